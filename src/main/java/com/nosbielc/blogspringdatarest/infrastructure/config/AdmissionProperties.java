@@ -0,0 +1,39 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Costs are in units: a unit is {@code items-per-unit} items of a resource without associations. An item
+ * costs one more unit share per level of to-one associations it renders, nothing more when projected.
+ *
+ * @param enabled          admit requests to the repository resources by cost
+ * @param clientHeader     header identifying the client; the remote address when empty or absent
+ * @param clientRate       units a client earns per second
+ * @param clientBurst      units a client may spend at once; a request never costs more than this
+ * @param maxClients       clients whose bucket is remembered; idle ones are forgotten first
+ * @param resourceCapacity units in flight per resource, across every client
+ * @param queueTarget      longest wait for capacity; requests that would wait longer are shed with 503
+ * @param itemsPerUnit     items of a flat resource that make one unit
+ */
+@ConfigurationProperties(prefix = "blog.admission")
+public record AdmissionProperties(boolean enabled,
+                                  String clientHeader,
+                                  int clientRate,
+                                  int clientBurst,
+                                  long maxClients,
+                                  int resourceCapacity,
+                                  Duration queueTarget,
+                                  int itemsPerUnit) {
+
+    public AdmissionProperties {
+        if (clientRate <= 0 || clientBurst <= 0 || maxClients <= 0 || resourceCapacity <= 0 || itemsPerUnit <= 0) {
+            throw new IllegalArgumentException("blog.admission.client-rate, client-burst, max-clients,"
+                    + " resource-capacity e items-per-unit devem ser positivos");
+        }
+        if (queueTarget == null || queueTarget.isNegative()) {
+            throw new IllegalArgumentException("blog.admission.queue-target não pode ser negativo");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.PostCommentResume;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.PostCommentResumeView;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.UsersResume;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.UsersResumeView;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.events.CollectionCacheEventHandler;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.events.PostCounterEventHandler;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.events.SearchIndexEventHandler;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import java.util.List;
+
+/**
+ * What the AOT engine cannot infer for a native image. Entities, repositories, configuration properties
+ * and controller payloads are covered by Spring's own contributions; the rest is listed here.
+ */
+public class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * Spring Data REST only looks for projections next to the repository interfaces at build time, and
+     * classpath scanning finds nothing in a native image.
+     */
+    public static final List<Class<?>> PROJECTIONS = List.of(UsersResume.class, PostCommentResume.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (var projection : PROJECTIONS) {
+            hints.proxies().registerJdkProxy(projection, TargetAware.class, SpringProxy.class, DecoratingProxy.class);
+            hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        // the SpEL of UsersResume.getFullName reads the entity through its getters
+        hints.reflection().registerType(User.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // instantiated by Hibernate from "select new" constructor expressions
+        hints.reflection().registerType(UsersResumeView.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(PostCommentResumeView.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // @HandleAfter* methods are invoked reflectively by Spring Data REST
+        for (var handler : List.of(PostCounterEventHandler.class, CollectionCacheEventHandler.class,
+                SearchIndexEventHandler.class)) {
+            hints.reflection().registerType(handler, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        // Caffeine's JCache provider reads its defaults with Typesafe Config
+        hints.resources().registerPattern("reference.conf");
+    }
+}
@@ -0,0 +1,39 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * @param enabled      run the archival in the background every {@code interval}; it can always be run on demand
+ * @param maxAge       comments created longer ago are archived, whatever their status except pending approval
+ * @param statuses     comments in these statuses are archived regardless of their age
+ * @param interval     delay between two background runs
+ * @param batchSize    comments moved per transaction
+ * @param watermarkTtl how long the newest archived {@code created_at} per status is trusted before it is
+ *                     read from the table again, so comments archived by other instances are seen
+ */
+@ConfigurationProperties(prefix = "blog.archive")
+public record ArchiveProperties(boolean enabled, Duration maxAge, Set<CommentStatus> statuses, Duration interval,
+                                int batchSize, Duration watermarkTtl) {
+
+    public ArchiveProperties {
+        if (maxAge == null || maxAge.isNegative() || interval == null || interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("blog.archive.max-age não pode ser negativo e blog.archive.interval"
+                    + " deve ser positivo");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("blog.archive.batch-size deve ser positivo");
+        }
+        if (watermarkTtl == null || watermarkTtl.isNegative()) {
+            throw new IllegalArgumentException("blog.archive.watermark-ttl não pode ser negativo");
+        }
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+        if (statuses.contains(CommentStatus.PENDING_APPROVAL)) {
+            throw new IllegalArgumentException("blog.archive.statuses não pode conter PENDING_APPROVAL,"
+                    + " que a fila de moderação ainda precisa");
+        }
+    }
+}
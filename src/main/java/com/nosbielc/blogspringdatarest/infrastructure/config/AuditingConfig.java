@@ -0,0 +1,12 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+/**
+ * Fills the {@code @LastModifiedDate} columns, which Spring Data REST turns into {@code Last-Modified}.
+ */
+@Configuration
+@EnableJpaAuditing
+public class AuditingConfig {
+}
@@ -0,0 +1,17 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param maxIds          upper bound of ids per batch request, all resource types together
+ * @param commentsPerPost newest comments included per post with {@code include=comments}
+ */
+@ConfigurationProperties(prefix = "blog.batch")
+public record BatchProperties(int maxIds, int commentsPerPost) {
+
+    public BatchProperties {
+        if (maxIds <= 0 || commentsPerPost <= 0) {
+            throw new IllegalArgumentException("blog.batch.max-ids e blog.batch.comments-per-post devem ser positivos");
+        }
+    }
+}
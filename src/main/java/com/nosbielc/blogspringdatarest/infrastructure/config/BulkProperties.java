@@ -0,0 +1,17 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param batchSize rows sent per JDBC batch; the persistence context is cleared after each batch
+ * @param chunkSize rows written per transaction
+ */
+@ConfigurationProperties(prefix = "blog.bulk")
+public record BulkProperties(int batchSize, int chunkSize) {
+
+    public BulkProperties {
+        if (batchSize <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("blog.bulk.batch-size e blog.bulk.chunk-size devem ser positivos");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Bounds of the second-level cache regions. Caffeine evicts with W-TinyLFU once a region
+ * reaches {@code maximumSize}; {@code regions} overrides the defaults per region name.
+ */
+@ConfigurationProperties(prefix = "blog.cache")
+public record CacheProperties(long maximumSize, Duration expireAfterWrite, Map<String, Region> regions) {
+
+    public CacheProperties {
+        regions = regions == null ? Map.of() : regions;
+    }
+
+    public Region region(String name) {
+        var region = regions.get(name);
+        return new Region(
+                region == null || region.maximumSize() == null ? maximumSize : region.maximumSize(),
+                region == null || region.expireAfterWrite() == null ? expireAfterWrite : region.expireAfterWrite());
+    }
+
+    public record Region(Long maximumSize, Duration expireAfterWrite) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param planCacheSize filter shapes whose query is kept ready; Hibernate keeps the compiled plans of
+ *                      those queries in its own plan cache ({@code hibernate.query.plan_cache_max_size})
+ */
+@ConfigurationProperties(prefix = "blog.comment-search")
+public record CommentSearchProperties(int planCacheSize) {
+
+    public CommentSearchProperties {
+        if (planCacheSize <= 0) {
+            throw new IllegalArgumentException("blog.comment-search.plan-cache-size deve ser positivo");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param maxDepth     deepest reply level a tree request may ask for
+ * @param maxNodes     largest number of comments a tree request may ask for
+ * @param defaultNodes number of comments returned when the request does not set a limit
+ */
+@ConfigurationProperties(prefix = "blog.comment-tree")
+public record CommentTreeProperties(int maxDepth, int maxNodes, int defaultNodes) {
+
+    public CommentTreeProperties {
+        if (maxDepth <= 0 || maxNodes <= 0 || defaultNodes <= 0) {
+            throw new IllegalArgumentException("blog.comment-tree.* devem ser positivos");
+        }
+    }
+}
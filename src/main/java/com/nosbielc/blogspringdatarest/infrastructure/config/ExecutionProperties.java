@@ -0,0 +1,20 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param virtualThreads           serve requests on virtual threads (Java 21+) instead of the Tomcat pool
+ * @param connectionAcquireTimeout longest a request waits in line for a database connection when
+ *                                 running on virtual threads
+ */
+@ConfigurationProperties(prefix = "blog.execution")
+public record ExecutionProperties(boolean virtualThreads, Duration connectionAcquireTimeout) {
+
+    public ExecutionProperties {
+        if (connectionAcquireTimeout == null || connectionAcquireTimeout.isNegative() || connectionAcquireTimeout.isZero()) {
+            throw new IllegalArgumentException("blog.execution.connection-acquire-timeout deve ser positivo");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param enabled           accept comments on {@code POST /postComments/queue} and write them behind
+ * @param queueCapacity     comments waiting to be written before new ones are refused with 429
+ * @param batchSize         comments written per transaction; a full batch is written without waiting
+ * @param flushInterval     longest time a comment waits in the queue
+ * @param shutdownTimeout   time given to the writer to empty the queue when the application stops
+ * @param trackingRetention how long the outcome of a queued comment can be looked up
+ */
+@ConfigurationProperties(prefix = "blog.ingestion")
+public record IngestionProperties(boolean enabled,
+                                  int queueCapacity,
+                                  int batchSize,
+                                  Duration flushInterval,
+                                  Duration shutdownTimeout,
+                                  Duration trackingRetention) {
+
+    public IngestionProperties {
+        if (queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("blog.ingestion.queue-capacity e blog.ingestion.batch-size devem ser positivos");
+        }
+        if (flushInterval == null || flushInterval.isZero() || flushInterval.isNegative()
+                || shutdownTimeout == null || shutdownTimeout.isNegative()
+                || trackingRetention == null || trackingRetention.isZero() || trackingRetention.isNegative()) {
+            throw new IllegalArgumentException(
+                    "blog.ingestion.flush-interval, shutdown-timeout e tracking-retention devem ser positivos");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param claimTimeout      how long a claimed batch stays reserved for its moderator
+ * @param defaultBatchSize  comments claimed when the request does not ask for a number
+ * @param maxBatchSize      upper bound of comments claimed per request
+ * @param maxTransitionSize upper bound of ids per status transition
+ */
+@ConfigurationProperties(prefix = "blog.moderation")
+public record ModerationProperties(Duration claimTimeout, int defaultBatchSize, int maxBatchSize,
+                                   int maxTransitionSize) {
+
+    public ModerationProperties {
+        if (claimTimeout == null || claimTimeout.isZero() || claimTimeout.isNegative()) {
+            throw new IllegalArgumentException("blog.moderation.claim-timeout deve ser positivo");
+        }
+        if (defaultBatchSize <= 0 || maxBatchSize < defaultBatchSize || maxTransitionSize <= 0) {
+            throw new IllegalArgumentException("blog.moderation.default-batch-size deve ser positivo e não maior"
+                    + " que blog.moderation.max-batch-size; blog.moderation.max-transition-size deve ser positivo");
+        }
+    }
+}
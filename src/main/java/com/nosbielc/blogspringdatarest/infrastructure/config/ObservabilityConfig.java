@@ -0,0 +1,61 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.EntityInterceptor;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.QueryCounter;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.SlowQueryInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+@Configuration
+public class ObservabilityConfig {
+
+    @Bean
+    public QueryCounter queryCounter() {
+        return new QueryCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer(QueryCounter queryCounter,
+                                                                ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        var sessionFactory = SingletonSupplier.of(() -> entityManagerFactory.getObject()
+                .unwrap(SessionFactoryImplementor.class));
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCounter);
+            properties.put(AvailableSettings.INTERCEPTOR, new EntityInterceptor(queryCounter, sessionFactory));
+        };
+    }
+
+    /**
+     * Adds a {@link SlowQueryInterceptor} to every repository proxy. Dependencies are resolved on first use,
+     * repositories are created long before the meter registry is ready.
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryInterceptorPostProcessor(ObjectProvider<ObservabilityProperties> properties,
+                                                                      ObjectProvider<QueryCounter> queryCounter,
+                                                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        var registry = SingletonSupplier.of(meterRegistry::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(new SlowQueryInterceptor(
+                                    information.getRepositoryInterface(),
+                                    properties.getObject().slowQueryThreshold(),
+                                    queryCounter.getObject(),
+                                    registry))));
+                }
+                return bean;
+            }
+        };
+    }
+}
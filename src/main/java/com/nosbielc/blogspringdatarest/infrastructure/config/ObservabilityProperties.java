@@ -0,0 +1,20 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param slowQueryThreshold repository calls taking at least this long are logged with their arguments
+ * @param statementsWarning  requests executing more SQL statements than this are logged as a possible N+1
+ */
+@ConfigurationProperties(prefix = "blog.observability")
+public record ObservabilityProperties(Duration slowQueryThreshold, int statementsWarning) {
+
+    public ObservabilityProperties {
+        if (slowQueryThreshold == null || slowQueryThreshold.isNegative() || statementsWarning < 0) {
+            throw new IllegalArgumentException(
+                    "blog.observability.slow-query-threshold e blog.observability.statements-warning não podem ser negativos");
+        }
+    }
+}
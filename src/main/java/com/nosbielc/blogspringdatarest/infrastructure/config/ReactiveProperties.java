@@ -0,0 +1,33 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.StringUtils;
+
+/**
+ * @param enabled     serve the reactive read API
+ * @param port        port of its Netty server; {@code 0} picks a free one
+ * @param url         R2DBC url of the database the JPA repositories write to
+ * @param username    database user; {@code spring.datasource.username} when empty
+ * @param password    database password; {@code spring.datasource.password} when empty
+ * @param maxPoolSize R2DBC connections, shared by every open stream
+ * @param prefetch    rows requested from the database at a time while a client keeps reading
+ */
+@ConfigurationProperties(prefix = "blog.reactive")
+public record ReactiveProperties(boolean enabled,
+                                 int port,
+                                 String url,
+                                 String username,
+                                 String password,
+                                 int maxPoolSize,
+                                 int prefetch) {
+
+    public ReactiveProperties {
+        if (enabled && !StringUtils.hasText(url)) {
+            throw new IllegalArgumentException("blog.reactive.url é obrigatório com blog.reactive.enabled");
+        }
+        if (port < 0 || maxPoolSize <= 0 || prefetch <= 0) {
+            throw new IllegalArgumentException("blog.reactive.port não pode ser negativo; blog.reactive.max-pool-size"
+                    + " e blog.reactive.prefetch devem ser positivos");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosbielc.blogspringdatarest.infrastructure.web.controllers.ReactiveReadHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.rest.RepositoryRestProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+/**
+ * Opt-in ({@code blog.reactive.enabled=true}): {@code GET /users}, {@code /posts} and {@code /postComments}
+ * under the Spring Data REST base path, served by WebFlux on {@code blog.reactive.port}. Only reads go
+ * there; writes stay on the servlet resources and the JPA repositories.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "blog.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    @Bean
+    public ReactiveReadServer reactiveReadServer(ReactiveReadHandler handler,
+                                                 ReactiveProperties properties,
+                                                 RepositoryRestProperties restProperties,
+                                                 ObjectMapper objectMapper) {
+        var basePath = restProperties.getBasePath() == null ? "" : restProperties.getBasePath();
+        var routes = RouterFunctions.route()
+                .path(basePath, builder -> builder
+                        .GET("/users", handler::users)
+                        .GET("/posts", handler::posts)
+                        .GET("/postComments", handler::postComments))
+                .build();
+        // the application's mapper, so dates and enums come out as on the servlet side
+        var strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .build();
+        return new ReactiveReadServer(properties.port(), RouterFunctions.toHttpHandler(routes, strategies));
+    }
+}
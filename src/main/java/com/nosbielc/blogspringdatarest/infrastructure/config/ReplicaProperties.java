@@ -0,0 +1,42 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * @param enabled           route read-only transactions to the replica
+ * @param url               JDBC url of the replica
+ * @param username          replica user; the primary's when empty
+ * @param password          replica password; the primary's when empty
+ * @param maximumPoolSize   connections of the read pool
+ * @param heartbeatInterval how often a heartbeat is written to the primary and read back from the replica
+ * @param maxLag            reads go to the primary while the replica trails it by more than this
+ * @param stickiness        how long a client's reads stay on the primary after it wrote something
+ */
+@ConfigurationProperties(prefix = "blog.replica")
+public record ReplicaProperties(boolean enabled,
+                                String url,
+                                String username,
+                                String password,
+                                int maximumPoolSize,
+                                Duration heartbeatInterval,
+                                Duration maxLag,
+                                Duration stickiness) {
+
+    public ReplicaProperties {
+        if (enabled && !StringUtils.hasText(url)) {
+            throw new IllegalArgumentException("blog.replica.url é obrigatório com blog.replica.enabled");
+        }
+        if (maximumPoolSize <= 0) {
+            throw new IllegalArgumentException("blog.replica.maximum-pool-size deve ser positivo");
+        }
+        if (heartbeatInterval == null || heartbeatInterval.isZero() || heartbeatInterval.isNegative()
+                || maxLag == null || maxLag.compareTo(heartbeatInterval) <= 0
+                || stickiness == null || stickiness.isNegative()) {
+            throw new IllegalArgumentException("blog.replica.heartbeat-interval deve ser positivo e menor que"
+                    + " blog.replica.max-lag; blog.replica.stickiness não pode ser negativo");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.ReplicaJpaDialect;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.ReplicaRoutingDataSource;
+import com.nosbielc.blogspringdatarest.infrastructure.services.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in ({@code blog.replica.enabled=true}): the {@code spring.datasource} pool becomes the primary, a
+ * second pool is opened on {@code blog.replica.url}, and the application's {@link DataSource} routes
+ * between them per transaction with {@link ReplicaRoutingDataSource}. Repositories, JDBC templates and
+ * the transaction manager keep using that single data source and need no change.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "blog.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primary, ReplicaProperties replica) {
+        var dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(primary.determineDriverClassName());
+        dataSource.setJdbcUrl(replica.url());
+        dataSource.setUsername(StringUtils.hasText(replica.username()) ? replica.username() : primary.determineUsername());
+        dataSource.setPassword(StringUtils.hasText(replica.password()) ? replica.password() : primary.determinePassword());
+        dataSource.setMaximumPoolSize(replica.maximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * The lag monitor is looked up at the first routed connection, so it does not have to exist before
+     * the entity manager factory.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        var routing = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                () -> replicaLagMonitor.getObject().replicaUsable());
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Spring's default keeps a session's connection until the session closes, which with open-in-view
+     * is the whole request: a read-only transaction would leave the request on the replica for the
+     * writes that follow. Releasing it after each transaction lets every transaction pick its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * The transaction manager takes its dialect from the entity manager factory, which must have it
+     * before it initializes.
+     */
+    @Bean
+    public static BeanPostProcessor replicaJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactory) {
+                    entityManagerFactory.setJpaDialect(new ReplicaJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.webmvc.config.RepositoryRestConfigurer;
+import org.springframework.web.servlet.config.annotation.CorsRegistry;
+
+@Configuration
+@ImportRuntimeHints(ApplicationRuntimeHints.class)
+public class RepositoryRestConfig implements RepositoryRestConfigurer {
+
+    /**
+     * Projections are registered explicitly instead of relying on the classpath scan, which a native
+     * image cannot perform.
+     */
+    @Override
+    public void configureRepositoryRestConfiguration(RepositoryRestConfiguration config, CorsRegistry cors) {
+        ApplicationRuntimeHints.PROJECTIONS.forEach(config.getProjectionConfiguration()::addProjection);
+    }
+}
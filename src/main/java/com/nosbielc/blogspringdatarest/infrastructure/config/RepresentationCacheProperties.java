@@ -0,0 +1,16 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param maximumSize number of entities whose serialized item resource is kept
+ */
+@ConfigurationProperties(prefix = "blog.representation-cache")
+public record RepresentationCacheProperties(long maximumSize) {
+
+    public RepresentationCacheProperties {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("blog.representation-cache.maximum-size deve ser positivo");
+        }
+    }
+}
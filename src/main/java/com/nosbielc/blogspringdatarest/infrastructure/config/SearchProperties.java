@@ -0,0 +1,28 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param directory        where the Lucene index is kept; {@code null} keeps it in memory
+ * @param defaultResults   hits returned when the request does not ask for a number
+ * @param maxResults       upper bound of hits per request
+ * @param reindexOnStartup rebuild the index from the database once the application is ready
+ * @param commitInterval   delay between two commits of the index to its directory
+ */
+@ConfigurationProperties(prefix = "blog.search")
+public record SearchProperties(Path directory, int defaultResults, int maxResults, boolean reindexOnStartup,
+                               Duration commitInterval) {
+
+    public SearchProperties {
+        if (defaultResults <= 0 || maxResults < defaultResults) {
+            throw new IllegalArgumentException(
+                    "blog.search.default-results deve ser positivo e não maior que blog.search.max-results");
+        }
+        if (commitInterval == null || commitInterval.isZero() || commitInterval.isNegative()) {
+            throw new IllegalArgumentException("blog.search.commit-interval deve ser positivo");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.CacheRegions;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * Each application context gets its own provider instance, so contexts never share regions.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(CacheProperties properties) {
+        var cacheManager = new CaffeineCachingProvider().getCacheManager();
+
+        CacheRegions.BOUNDED.forEach(name -> cacheManager.createCache(name, bounded(properties.region(name))));
+        // query results are only valid while this region still holds the table timestamps
+        cacheManager.createCache(CacheRegions.UPDATE_TIMESTAMPS, configuration());
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(CacheProperties.Region region) {
+        var configuration = configuration();
+        configuration.setMaximumSize(OptionalLong.of(region.maximumSize()));
+        if (region.expireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.expireAfterWrite().toNanos()));
+        }
+        return configuration;
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration() {
+        var configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        return configuration;
+    }
+}
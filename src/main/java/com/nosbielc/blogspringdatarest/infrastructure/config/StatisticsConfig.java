@@ -0,0 +1,52 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.StatisticsChangeListener;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.StatisticsChanges;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class StatisticsConfig {
+
+    @Bean
+    public StatisticsChanges statisticsChanges() {
+        return new StatisticsChanges();
+    }
+
+    /**
+     * Registers {@link StatisticsChangeListener} for the post-commit events of the session factory.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statisticsListenerCustomizer(StatisticsChanges statisticsChanges) {
+        var listener = new StatisticsChangeListener(statisticsChanges);
+        var integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                                  SessionFactoryImplementor sessionFactory) {
+                var registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+                registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+                registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                     SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return properties -> properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(integrator));
+    }
+}
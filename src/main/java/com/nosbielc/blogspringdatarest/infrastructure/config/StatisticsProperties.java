@@ -0,0 +1,27 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param refreshInterval    delay between two refreshes of the posts and users whose comments changed
+ * @param topCommenters      commenters listed per post or user
+ * @param rebuildChunkSize   span of post or user ids recomputed by one task of a full rebuild
+ * @param rebuildParallelism tasks of a full rebuild running at once
+ * @param rebuildOnStartup   rebuild every statistic once the application is ready
+ */
+@ConfigurationProperties(prefix = "blog.statistics")
+public record StatisticsProperties(Duration refreshInterval, int topCommenters, int rebuildChunkSize,
+                                   int rebuildParallelism, boolean rebuildOnStartup) {
+
+    public StatisticsProperties {
+        if (refreshInterval == null || refreshInterval.isZero() || refreshInterval.isNegative()) {
+            throw new IllegalArgumentException("blog.statistics.refresh-interval deve ser positivo");
+        }
+        if (topCommenters <= 0 || rebuildChunkSize <= 0 || rebuildParallelism <= 0) {
+            throw new IllegalArgumentException("blog.statistics.top-commenters, blog.statistics.rebuild-chunk-size "
+                    + "e blog.statistics.rebuild-parallelism devem ser positivos");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param maxPageSize upper bound of a page written in streaming mode ({@code ?stream}), which does not
+ *                    share {@code spring.data.rest.max-page-size}
+ * @param fetchSize   rows the driver fetches per round trip while a page is streamed
+ */
+@ConfigurationProperties(prefix = "blog.streaming")
+public record StreamingProperties(int maxPageSize, int fetchSize) {
+
+    public StreamingProperties {
+        if (maxPageSize <= 0 || fetchSize <= 0) {
+            throw new IllegalArgumentException("blog.streaming.max-page-size e blog.streaming.fetch-size devem ser positivos");
+        }
+    }
+}
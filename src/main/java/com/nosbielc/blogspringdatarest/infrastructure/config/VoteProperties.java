@@ -0,0 +1,19 @@
+package com.nosbielc.blogspringdatarest.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param flushInterval  delay between two scheduled flushes of the vote buffer
+ * @param flushThreshold number of distinct comments pending before a flush is triggered early
+ */
+@ConfigurationProperties(prefix = "blog.votes")
+public record VoteProperties(Duration flushInterval, int flushThreshold) {
+
+    public VoteProperties {
+        if (flushInterval == null || flushInterval.isZero() || flushInterval.isNegative() || flushThreshold <= 0) {
+            throw new IllegalArgumentException("blog.votes.flush-interval e blog.votes.flush-threshold devem ser positivos");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence;
+
+import java.util.List;
+
+/**
+ * Second-level cache region names, shared by the entity mappings and the cache configuration.
+ */
+public final class CacheRegions {
+
+    public static final String USER = "user";
+    public static final String USER_POSTS = "user.posts";
+    public static final String USER_COMMENTS = "user.comments";
+    public static final String POST = "post";
+    public static final String POST_COMMENTS = "post.comments";
+    public static final String POST_COMMENT = "postComment";
+    public static final String POST_COMMENT_CHILDREN = "postComment.childPostComments";
+    public static final String POST_COMMENT_SPECS = "postComment.specs";
+
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    public static final List<String> BOUNDED = List.of(USER, USER_POSTS, USER_COMMENTS, POST, POST_COMMENTS,
+            POST_COMMENT, POST_COMMENT_CHILDREN, POST_COMMENT_SPECS, QUERY_RESULTS);
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,47 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence;
+
+import org.hibernate.Interceptor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.Type;
+
+import java.util.function.Supplier;
+
+/**
+ * Session factory wide {@link Interceptor}.
+ * <p>
+ * Hibernate 6.1 decides whether an associated instance is transient by its {@code @Version} alone. When an
+ * entity graph join fetches a {@code @ManyToOne} (e.g. {@code PostComment.withPostAndUser}), the owner's
+ * second-level cache entry is built before the fetched instance is hydrated, so its version is still
+ * {@code null} and the load fails with a {@code TransientObjectException}. {@link #isTransient} answers only
+ * for that shape, a versioned instance with an id but no version yet, and leaves everything else to Hibernate.
+ * Ids come from sequences and nothing assigns one before persist, so such an instance is never a new one.
+ */
+public class EntityInterceptor implements Interceptor {
+
+    private final QueryCounter queryCounter;
+    private final Supplier<SessionFactoryImplementor> sessionFactory;
+
+    public EntityInterceptor(QueryCounter queryCounter, Supplier<SessionFactoryImplementor> sessionFactory) {
+        this.queryCounter = queryCounter;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        queryCounter.entityLoaded();
+        return false;
+    }
+
+    @Override
+    public Boolean isTransient(Object entity) {
+        if (entity instanceof HibernateProxy) {
+            return null;
+        }
+        var persister = sessionFactory.get().getMappingMetamodel().getEntityDescriptor(entity.getClass());
+        if (!persister.isVersioned() || persister.getVersion(entity) != null) {
+            return null;
+        }
+        return persister.getIdentifier(entity, null) != null ? Boolean.FALSE : null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts, per thread, the SQL statements Hibernate prepares and the entities it loads. Callers take a
+ * {@link Snapshot} before and after a unit of work and look at the difference.
+ * <p>
+ * Statements issued through plain JDBC ({@code PostCounterRepository}) and entities served from the
+ * second-level cache without hydration are not seen here. Loads are reported by {@link EntityInterceptor}.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private final ThreadLocal<long[]> counts = ThreadLocal.withInitial(() -> new long[2]);
+
+    @Override
+    public String inspect(String sql) {
+        counts.get()[0]++;
+        return sql;
+    }
+
+    void entityLoaded() {
+        counts.get()[1]++;
+    }
+
+    public Snapshot snapshot() {
+        var current = counts.get();
+        return new Snapshot(current[0], current[1]);
+    }
+
+    public record Snapshot(long statements, long entities) {
+
+        public Snapshot since(Snapshot start) {
+            return new Snapshot(statements - start.statements, entities - start.entities);
+        }
+    }
+}
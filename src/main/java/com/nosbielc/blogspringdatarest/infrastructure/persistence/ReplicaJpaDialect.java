@@ -0,0 +1,48 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Gives transactions that {@link ReplicaRoutingDataSource} may send to the replica (read-only, not
+ * pinned to the primary) a session in {@link CacheMode#GET}: they read the second-level cache but never
+ * put into it, so a lagging replica cannot overwrite fresher entries or cache rows the primary already
+ * changed. The session's previous mode is restored when the transaction ends, which matters for the
+ * session open-in-view keeps for the whole request.
+ * <p>
+ * The mode is chosen when the transaction begins, before the replica's lag is known; a read-only
+ * transaction kept on the primary while the replica lags does not populate the cache either.
+ */
+public class ReplicaJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws SQLException {
+        var transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly() || ReplicaRoutingDataSource.pinnedToPrimary()) {
+            return transactionData;
+        }
+        var session = entityManager.unwrap(Session.class);
+        var previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new ReplicaTransactionData(transactionData, session, previous);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReplicaTransactionData replica) {
+            replica.session().setCacheMode(replica.previousCacheMode());
+            super.cleanupTransaction(replica.delegate());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record ReplicaTransactionData(Object delegate, Session session, CacheMode previousCacheMode) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything else.
+ * The choice is made when a connection is taken, so it must sit behind a
+ * {@code LazyConnectionDataSourceProxy}: the transaction manager asks for the connection before it marks
+ * the transaction read-only, the proxy only fetches it at the first statement.
+ * <p>
+ * Reads stay on the primary while the replica is lagging, and for a thread {@linkplain #pinToPrimary() pinned}
+ * to it, e.g. a request from a client that has just written.
+ * <p>
+ * What a replica returns may be older than what the caches already hold, so transactions that may be
+ * routed here do not populate the second-level cache, see {@link ReplicaJpaDialect}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final BooleanSupplier replicaUsable;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaUsable) {
+        this.replicaUsable = replicaUsable;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * Sends the calling thread's reads to the primary until the returned pin is closed.
+     */
+    public static Pin pinToPrimary() {
+        var previous = PINNED.get();
+        PINNED.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                PINNED.remove();
+            } else {
+                PINNED.set(previous);
+            }
+        };
+    }
+
+    /**
+     * @return whether the calling thread's reads are pinned to the primary
+     */
+    public static boolean pinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !pinnedToPrimary()
+                && replicaUsable.getAsBoolean() ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    private enum Target {
+        PRIMARY, REPLICA
+    }
+
+    @FunctionalInterface
+    public interface Pin extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
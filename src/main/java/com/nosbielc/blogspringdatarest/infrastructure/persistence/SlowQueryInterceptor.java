@@ -0,0 +1,64 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Logs repository calls slower than the configured threshold together with their arguments, which
+ * includes the bound {@code Specification}s, and counts them in {@code blog.repository.slow.invocations}.
+ * Timings of every call are already published by Spring Boot as {@code spring.data.repository.invocations}.
+ */
+@Slf4j
+public class SlowQueryInterceptor implements MethodInterceptor {
+
+    private static final int MAX_ARGUMENT_LENGTH = 200;
+
+    private final Class<?> repositoryInterface;
+    private final long thresholdNanos;
+    private final QueryCounter queryCounter;
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    public SlowQueryInterceptor(Class<?> repositoryInterface, Duration threshold, QueryCounter queryCounter,
+                                Supplier<MeterRegistry> meterRegistry) {
+        this.repositoryInterface = repositoryInterface;
+        this.thresholdNanos = threshold.toNanos();
+        this.queryCounter = queryCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        var before = queryCounter.snapshot();
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= thresholdNanos) {
+                var repository = repositoryInterface.getSimpleName();
+                var method = invocation.getMethod().getName();
+                log.warn("Consulta lenta: {}.{}({}) levou {} ms e executou {} statements SQL",
+                        repository, method, describe(invocation.getArguments()),
+                        Duration.ofNanos(elapsed).toMillis(), queryCounter.snapshot().since(before).statements());
+                meterRegistry.get().counter("blog.repository.slow.invocations",
+                        "repository", repository, "method", method).increment();
+            }
+        }
+    }
+
+    private static String describe(Object[] arguments) {
+        return Arrays.stream(arguments)
+                .map(String::valueOf)
+                .map(argument -> argument.length() > MAX_ARGUMENT_LENGTH
+                        ? argument.substring(0, MAX_ARGUMENT_LENGTH) + "..."
+                        : argument)
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,124 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.StatisticsChanges.CommentRow;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.StatisticsChanges.Delta;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.CommentStatusCount;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Objects;
+
+/**
+ * Records in {@link StatisticsChanges} the comments written through Hibernate, once the transaction has
+ * committed. Comments are covered whichever way they are written: REST resources, bulk imports and
+ * cascades from a deleted post or user.
+ * <p>
+ * Inserts and deletes count the comment in or out of its row; updates move it from the row of the old
+ * state to the row of the new one, so moving a comment adjusts both sides. Only an update without an old
+ * state falls back to recomputing the comment's current post and user. A deleted post is recomputed with
+ * its author, and a post handed to another user recomputes both authors, whose commenter counts follow
+ * the post.
+ */
+public class StatisticsChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final StatisticsChanges changes;
+
+    public StatisticsChangeListener(StatisticsChanges changes) {
+        this.changes = changes;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof PostComment) {
+            count(event.getPersister(), event.getState(), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof PostComment) {
+            var persister = event.getPersister();
+            if (event.getOldState() == null) {
+                changes.postChanged(reference(persister, event.getState(), "post"));
+                changes.userChanged(reference(persister, event.getState(), "user"));
+            } else if (!row(persister, event.getOldState()).equals(row(persister, event.getState()))
+                    || votes(persister, event.getOldState()) != votes(persister, event.getState())) {
+                count(persister, event.getOldState(), -1);
+                count(persister, event.getState(), 1);
+            }
+        } else if (event.getEntity() instanceof Post && event.getOldState() != null) {
+            var previousAuthor = reference(event.getPersister(), event.getOldState(), "user");
+            var author = reference(event.getPersister(), event.getState(), "user");
+            if (!Objects.equals(previousAuthor, author)) {
+                changes.userChanged(previousAuthor);
+                changes.userChanged(author);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof PostComment) {
+            count(event.getPersister(), event.getDeletedState(), -1);
+        } else if (event.getEntity() instanceof Post) {
+            changes.postChanged((Long) event.getId());
+            changes.userChanged(reference(event.getPersister(), event.getDeletedState(), "user"));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        var type = persister.getMappedClass();
+        return type == PostComment.class || type == Post.class;
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void count(EntityPersister persister, Object[] state, int sign) {
+        if (state != null) {
+            changes.commentsCounted(row(persister, state), new Delta(sign, sign * votes(persister, state)));
+        }
+    }
+
+    private static CommentRow row(EntityPersister persister, Object[] state) {
+        var status = (CommentStatus) value(persister, state, "status");
+        return new CommentRow(reference(persister, state, "post"), reference(persister, state, "user"),
+                status == null ? CommentStatusCount.NO_STATUS : status.getCode());
+    }
+
+    private static long votes(EntityPersister persister, Object[] state) {
+        var votes = (Integer) value(persister, state, "votes");
+        return votes == null ? 0 : votes;
+    }
+
+    /**
+     * Id of a to-one association in {@code state}; proxies answer it without being initialized.
+     */
+    private static Long reference(EntityPersister persister, Object[] state, String property) {
+        var value = state == null ? null : value(persister, state, property);
+        return value == null ? null : (Long) persister.getFactory().getPersistenceUnitUtil().getIdentifier(value);
+    }
+
+    private static Object value(EntityPersister persister, Object[] state, String property) {
+        return state[persister.getEntityMetamodel().getPropertyIndex(property)];
+    }
+}
@@ -0,0 +1,125 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Changes the comment statistics have not seen yet, recorded after their transaction commits and drained
+ * by the statistics refresh. Writes whose rows are known before and after record {@linkplain Delta deltas}
+ * per {@link CommentRow}, which add up between two refreshes; the others record the posts, users or
+ * comments whose statistics must be recomputed, each recomputed once however often it changed.
+ */
+public class StatisticsChanges {
+
+    private final Set<Long> posts = ConcurrentHashMap.newKeySet();
+    private final Set<Long> users = ConcurrentHashMap.newKeySet();
+    private final Set<Long> comments = ConcurrentHashMap.newKeySet();
+    private final Map<CommentRow, Delta> deltas = new ConcurrentHashMap<>();
+
+    public void postChanged(Long postId) {
+        if (postId != null) {
+            posts.add(postId);
+        }
+    }
+
+    public void userChanged(Long userId) {
+        if (userId != null) {
+            users.add(userId);
+        }
+    }
+
+    /**
+     * For writes that only know the comment ids; their post and user are looked up on refresh.
+     */
+    public void commentsChanged(Collection<Long> commentIds) {
+        comments.addAll(commentIds);
+    }
+
+    /**
+     * Adds {@code delta} to the counts of {@code row}; a comment leaving the row counts negatively.
+     */
+    public void commentsCounted(CommentRow row, Delta delta) {
+        deltas.merge(row, delta, Delta::plus);
+    }
+
+    /**
+     * Trades the deltas of the rows matching {@code recomputed} for a recompute of their post and user.
+     * Used for owners recomputed while the deltas were on their way: a delta may already be part of the
+     * recomputed counts, and applying it would count its comments twice.
+     */
+    public void recomputeInstead(Predicate<CommentRow> recomputed) {
+        for (var row : deltas.keySet()) {
+            if (recomputed.test(row) && deltas.remove(row) != null) {
+                postChanged(row.postId());
+                userChanged(row.userId());
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return posts.isEmpty() && users.isEmpty() && comments.isEmpty() && deltas.isEmpty();
+    }
+
+    /**
+     * Takes the recorded changes out. Changes recorded meanwhile are either taken or left for the next drain.
+     */
+    public Pending drain() {
+        var drainedDeltas = new HashMap<CommentRow, Delta>();
+        for (var row : deltas.keySet()) {
+            var delta = deltas.remove(row);
+            if (delta != null) {
+                drainedDeltas.put(row, delta);
+            }
+        }
+        return new Pending(drain(posts), drain(users), drain(comments), drainedDeltas);
+    }
+
+    /**
+     * Puts back changes whose refresh failed.
+     */
+    public void restore(Pending pending) {
+        posts.addAll(pending.posts());
+        users.addAll(pending.users());
+        comments.addAll(pending.comments());
+        pending.deltas().forEach(this::commentsCounted);
+    }
+
+    private static Set<Long> drain(Set<Long> source) {
+        var drained = new HashSet<Long>();
+        for (var iterator = source.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    /**
+     * The post, user and status a comment is counted under; {@code status} is the {@code CommentStatus}
+     * code or {@code CommentStatusCount.NO_STATUS}.
+     */
+    public record CommentRow(Long postId, Long userId, int status) {
+    }
+
+    public record Delta(long comments, long votes) {
+
+        public Delta plus(Delta other) {
+            return new Delta(comments + other.comments, votes + other.votes);
+        }
+
+        public boolean isZero() {
+            return comments == 0 && votes == 0;
+        }
+    }
+
+    public record Pending(Set<Long> posts, Set<Long> users, Set<Long> comments, Map<CommentRow, Delta> deltas) {
+
+        public boolean isEmpty() {
+            return posts.isEmpty() && users.isEmpty() && comments.isEmpty() && deltas.isEmpty();
+        }
+    }
+}
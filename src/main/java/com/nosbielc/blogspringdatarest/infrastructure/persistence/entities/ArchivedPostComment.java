@@ -0,0 +1,63 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.entities;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a comment moved out of {@code post_comment}, written and read only by
+ * {@code PostCommentArchiveRepository}. The parent is kept as a plain id since it may still be live;
+ * rows go away with their post or user through the foreign keys.
+ */
+@Getter
+@Entity
+@Immutable
+@NoArgsConstructor
+@Table(name = "post_comment_archive", indexes = {
+        @Index(name = "idx_post_comment_archive_post_created_at_id", columnList = "post_id, created_at, id"),
+        @Index(name = "idx_post_comment_archive_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_post_comment_archive_status_created_at_id", columnList = "status, created_at, id")
+})
+public class ArchivedPostComment implements Serializable {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(name = "parent_post_comment_id")
+    private Long parentPostCommentId;
+
+    @Column(name = "review", columnDefinition = "TEXT")
+    private String review;
+
+    @Column(name = "votes")
+    private Integer votes;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "status")
+    private CommentStatus status;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
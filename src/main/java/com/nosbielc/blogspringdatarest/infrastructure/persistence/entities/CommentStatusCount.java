@@ -0,0 +1,52 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.entities;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.StatisticsScope;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Comments and votes of one post or user in one status. Rows are written and read only by
+ * {@code CommentStatisticsRepository}; {@code status} holds the {@code CommentStatus} code, or
+ * {@link #NO_STATUS} for comments stored without one.
+ */
+@Getter
+@Entity
+@Immutable
+@NoArgsConstructor
+@IdClass(CommentStatusCount.Key.class)
+@Table(name = "comment_status_count")
+public class CommentStatusCount implements Serializable {
+
+    public static final int NO_STATUS = -1;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", length = 8)
+    private StatisticsScope scope;
+
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Id
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "comments", nullable = false)
+    private long comments;
+
+    @Column(name = "votes", nullable = false)
+    private long votes;
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private StatisticsScope scope;
+        private Long ownerId;
+        private Integer status;
+    }
+}
@@ -0,0 +1,48 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.entities;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.StatisticsScope;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Comments a user wrote on one post ({@link StatisticsScope#POST}) or on the posts of one user
+ * ({@link StatisticsScope#USER}). The index serves the top commenters of an owner without sorting.
+ */
+@Getter
+@Entity
+@Immutable
+@NoArgsConstructor
+@IdClass(CommenterCount.Key.class)
+@Table(name = "commenter_count", indexes = {
+        @Index(name = "idx_commenter_count_top", columnList = "scope, owner_id, comments desc, user_id")
+})
+public class CommenterCount implements Serializable {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", length = 8)
+    private StatisticsScope scope;
+
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "comments", nullable = false)
+    private long comments;
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private StatisticsScope scope;
+        private Long ownerId;
+        private Long userId;
+    }
+}
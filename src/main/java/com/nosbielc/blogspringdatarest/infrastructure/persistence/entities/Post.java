@@ -1,7 +1,14 @@
 package com.nosbielc.blogspringdatarest.infrastructure.persistence.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.CacheRegions;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
@@ -11,14 +18,22 @@ import java.util.StringJoiner;
 
 @Getter
 @Entity
+@EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.POST)
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "post")
+@Table(name = "post", indexes = {
+        @Index(name = "idx_post_user_created_at_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_post_created_at_id", columnList = "created_at, id")
+})
+@NamedEntityGraph(name = "Post.withUser", attributeNodes = @NamedAttributeNode("user"))
 @Builder(toBuilder = true, builderClassName = "PostEntityBuilder", setterPrefix = "with")
 public class Post implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "title")
@@ -30,11 +45,30 @@ public class Post implements Serializable {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
-    @ManyToOne
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    @Builder.Default private Long commentCount = 0L;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "total_votes", nullable = false, updatable = false)
+    @Builder.Default private Long totalVotes = 0L;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.POST_COMMENTS)
     @Builder.Default private List<PostComment> comments = new ArrayList<>();
 
     @Override
@@ -44,6 +78,8 @@ public class Post implements Serializable {
                 .add("title='" + title + "'")
                 .add("content='" + content + "'")
                 .add("createdAt=" + createdAt)
+                .add("commentCount=" + commentCount)
+                .add("totalVotes=" + totalVotes)
                 .toString();
     }
 }
@@ -1,8 +1,15 @@
 package com.nosbielc.blogspringdatarest.infrastructure.persistence.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.CacheRegions;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
@@ -12,25 +19,39 @@ import java.util.StringJoiner;
 
 @Getter
 @Entity
+@EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.POST_COMMENT)
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "post_comment")
+@Table(name = "post_comment", indexes = {
+        @Index(name = "idx_post_comment_post_created_at_id", columnList = "post_id, created_at, id"),
+        @Index(name = "idx_post_comment_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_post_comment_parent", columnList = "parent_post_comment_id"),
+        @Index(name = "idx_post_comment_status_created_at_id", columnList = "status, created_at, id")
+})
+@NamedEntityGraph(name = "PostComment.withPostAndUser", attributeNodes = {
+        @NamedAttributeNode("post"),
+        @NamedAttributeNode("user")
+})
 @Builder(toBuilder = true, builderClassName = "PostCommentEntityBuilder", setterPrefix = "with")
 public class PostComment implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_comment_seq")
+    @SequenceGenerator(name = "post_comment_seq", sequenceName = "post_comment_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     private Post post;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_post_comment_id")
     private PostComment parentPostComment;
 
-    @OneToMany(mappedBy = "parentPostComment", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "parentPostComment", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.POST_COMMENT_CHILDREN)
     private List<PostComment> childPostComments = new ArrayList<>();
 
     @Column(name = "review", columnDefinition = "TEXT")
@@ -42,7 +63,17 @@ public class PostComment implements Serializable {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
-    @ManyToOne
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -50,11 +81,22 @@ public class PostComment implements Serializable {
     @Column(name = "status")
     private CommentStatus status;
 
+    /**
+     * Moderation lease, written only by {@code ModerationRepository}.
+     */
+    @JsonIgnore
+    @Column(name = "claimed_by", insertable = false, updatable = false)
+    private String claimedBy;
+
+    @JsonIgnore
+    @Column(name = "claimed_until", insertable = false, updatable = false)
+    private LocalDateTime claimedUntil;
+
     @Override
     public String toString() {
         return new StringJoiner(", ", PostComment.class.getSimpleName() + "[", "]")
                 .add("id=" + id)
-                .add("post=" + post)
+                .add("postId=" + (post != null ? post.getId() : null))
                 .add("review='" + review + "'")
                 .add("votes=" + votes)
                 .add("createdAt=" + createdAt)
@@ -0,0 +1,27 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single row rewritten on the primary by {@code ReplicaLagMonitor}; how old the copy on the replica is
+ * tells how far replication trails.
+ */
+@Getter
+@Entity
+@NoArgsConstructor
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "beat_at", nullable = false)
+    private LocalDateTime beatAt;
+}
@@ -0,0 +1,19 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@link PostCommentResume} read straight from the selected columns, without loading the comment.
+ */
+@Relation(itemRelation = "postComment", collectionRelation = "postComments")
+public record PostCommentResumeView(Long id,
+                                    String review,
+                                    Integer votes,
+                                    CommentStatus status,
+                                    @JsonIgnore Long version,
+                                    @JsonIgnore LocalDateTime updatedAt) {
+}
@@ -0,0 +1,25 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * {@link UsersResume} read straight from the selected columns; the full name is built once, when the
+ * row is read. {@code version} and {@code updatedAt} only feed the ETag and Last-Modified headers.
+ */
+@Relation(itemRelation = "user", collectionRelation = "users")
+public record UsersResumeView(Long id,
+                              String fullName,
+                              String email,
+                              Integer age,
+                              @JsonIgnore Long version,
+                              @JsonIgnore LocalDateTime updatedAt) {
+
+    public UsersResumeView(Long id, String firstName, String lastName, String email, Integer age,
+                           Long version, LocalDateTime updatedAt) {
+        this(id, Objects.toString(firstName, "") + " " + Objects.toString(lastName, ""), email, age, version, updatedAt);
+    }
+}
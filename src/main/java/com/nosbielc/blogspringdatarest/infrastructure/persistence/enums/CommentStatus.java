@@ -1,5 +1,8 @@
 package com.nosbielc.blogspringdatarest.infrastructure.persistence.enums;
 
+/**
+ * Codes match the ordinals stored in {@code post_comment.status}.
+ */
 public enum CommentStatus {
     PENDING_APPROVAL(0, "Pending Approval"),
     APPROVED(1, "Approved"),
@@ -7,6 +10,8 @@ public enum CommentStatus {
     SPAM(3, "Spam"),
     DELETED(4, "Deleted");
 
+    private static final CommentStatus[] BY_CODE = byCode();
+
     private int code;
     private String displayName;
 
@@ -24,11 +29,21 @@ public enum CommentStatus {
     }
 
     public static CommentStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Código inválido: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    private static CommentStatus[] byCode() {
+        int max = 0;
+        for (CommentStatus status : values()) {
+            max = Math.max(max, status.code);
+        }
+        var byCode = new CommentStatus[max + 1];
         for (CommentStatus status : values()) {
-            if (status.getCode() == code) {
-                return status;
-            }
+            byCode[status.code] = status;
         }
-        throw new IllegalArgumentException("Código inválido: " + code);
+        return byCode;
     }
 }
@@ -0,0 +1,10 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.enums;
+
+/**
+ * Owner of a row of comment statistics: the post the comments belong to, or the user they were
+ * written by (and, for commenter counts, the user whose posts they were written on).
+ */
+public enum StatisticsScope {
+    POST,
+    USER
+}
@@ -0,0 +1,89 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.events;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterLinkDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterLinkSave;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate only invalidates a cached collection when its owning side changes. The collections here
+ * are all {@code mappedBy}, so writes through the child resources have to evict them explicitly.
+ */
+@Component
+@RepositoryEventHandler
+@RequiredArgsConstructor
+public class CollectionCacheEventHandler {
+
+    public static final String USER_POSTS = User.class.getName() + ".posts";
+    public static final String USER_COMMENTS = User.class.getName() + ".comments";
+    public static final String POST_COMMENTS = Post.class.getName() + ".comments";
+    public static final String POST_COMMENT_CHILDREN = PostComment.class.getName() + ".childPostComments";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @HandleAfterCreate
+    @HandleAfterDelete
+    public void evictOwners(PostComment comment) {
+        evict(POST_COMMENTS, comment.getPost());
+        evict(USER_COMMENTS, comment.getUser());
+        evict(POST_COMMENT_CHILDREN, comment.getParentPostComment());
+    }
+
+    @HandleAfterCreate
+    @HandleAfterDelete
+    public void evictOwners(Post post) {
+        evict(USER_POSTS, post.getUser());
+    }
+
+    /**
+     * The previous owner is no longer known after an update, so the whole role is dropped.
+     */
+    @HandleAfterSave
+    public void evictCommentCollections(PostComment comment) {
+        evictCommentCollections();
+    }
+
+    // link events pass the linked entity as a second argument
+    @HandleAfterLinkSave
+    @HandleAfterLinkDelete
+    public void evictCommentCollections(PostComment comment, Object linked) {
+        evictCommentCollections();
+    }
+
+    @HandleAfterSave
+    public void evictPostCollections(Post post) {
+        cache().evictCollectionData(USER_POSTS);
+    }
+
+    @HandleAfterLinkSave
+    @HandleAfterLinkDelete
+    public void evictPostCollections(Post post, Object linked) {
+        evictPostCollections(post);
+    }
+
+    public void evictCommentCollections() {
+        var cache = cache();
+        cache.evictCollectionData(POST_COMMENTS);
+        cache.evictCollectionData(USER_COMMENTS);
+        cache.evictCollectionData(POST_COMMENT_CHILDREN);
+    }
+
+    private void evict(String role, Object owner) {
+        if (owner != null) {
+            cache().evictCollectionData(role, entityManagerFactory.getPersistenceUnitUtil().getIdentifier(owner));
+        }
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+}
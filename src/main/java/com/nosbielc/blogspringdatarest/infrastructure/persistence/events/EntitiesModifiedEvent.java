@@ -0,0 +1,10 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.events;
+
+import java.util.Collection;
+
+/**
+ * Published by writes that bypass the repositories, so listeners of the Spring Data REST events still
+ * learn which rows changed.
+ */
+public record EntitiesModifiedEvent(Class<?> type, Collection<Long> ids) {
+}
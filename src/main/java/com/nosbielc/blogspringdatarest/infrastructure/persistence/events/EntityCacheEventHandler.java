@@ -0,0 +1,30 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.events;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.CacheRegions;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the second-level cache entries of rows changed by statements that bypass Hibernate. The
+ * eviction waits for the commit: done earlier, a concurrent read could cache the old row again before
+ * the new one becomes visible.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEventHandler {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void entitiesModified(EntitiesModifiedEvent event) {
+        var cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        event.ids().forEach(id -> cache.evictEntityData(event.type(), id));
+        if (event.type() == PostComment.class) {
+            cache.evictQueryRegion(CacheRegions.POST_COMMENT_SPECS);
+        }
+    }
+}
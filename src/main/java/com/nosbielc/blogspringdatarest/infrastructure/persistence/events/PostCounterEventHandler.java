@@ -0,0 +1,107 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.events;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCounterRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCounterRepository.PostDelta;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterLinkDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterLinkSave;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.HandleBeforeDelete;
+import org.springframework.data.rest.core.annotation.HandleBeforeLinkDelete;
+import org.springframework.data.rest.core.annotation.HandleBeforeLinkSave;
+import org.springframework.data.rest.core.annotation.HandleBeforeSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps {@code post.comment_count} and {@code post.total_votes} in step with comment writes made
+ * through the REST resources. Creations apply a delta. Updates may move a comment between posts and
+ * deletes cascade to the replies, so both recount every post affected, read from the database before
+ * the write (the entity being edited already carries the new state).
+ */
+@Component
+@RepositoryEventHandler
+@RequiredArgsConstructor
+public class PostCounterEventHandler {
+
+    private final PostCounterRepository postCounterRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    // posts a comment belonged to before the write of the current request
+    private final ThreadLocal<Affected> affected = new ThreadLocal<>();
+
+    @HandleAfterCreate
+    @Transactional
+    public void commentCreated(PostComment comment) {
+        if (comment.getPost() != null) {
+            long votes = comment.getVotes() == null ? 0 : comment.getVotes();
+            postCounterRepository.addToPosts(Map.of(postId(comment), new PostDelta(1, votes)));
+        }
+    }
+
+    @HandleBeforeSave
+    public void commentUpdating(PostComment comment) {
+        affected.set(new Affected(comment.getId(),
+                postCounterRepository.postIdOf(comment.getId()).map(Set::of).orElse(Set.of())));
+    }
+
+    // link events hand the linked entity over as a second argument
+    @HandleBeforeLinkSave
+    @HandleBeforeLinkDelete
+    public void commentRelinking(PostComment comment, Object linked) {
+        commentUpdating(comment);
+    }
+
+    @HandleAfterSave
+    @Transactional
+    public void commentUpdated(PostComment comment) {
+        recountAffected(comment);
+    }
+
+    @HandleAfterLinkSave
+    @HandleAfterLinkDelete
+    @Transactional
+    public void commentRelinked(PostComment comment, Object linked) {
+        recountAffected(comment);
+    }
+
+    @HandleBeforeDelete
+    public void commentDeleting(PostComment comment) {
+        affected.set(new Affected(comment.getId(), postCounterRepository.postIdsOfThread(comment.getId())));
+    }
+
+    @HandleAfterDelete
+    @Transactional
+    public void commentDeleted(PostComment comment) {
+        recountAffected(comment);
+    }
+
+    private void recountAffected(PostComment comment) {
+        var posts = new HashSet<>(previous(comment));
+        if (comment.getPost() != null) {
+            posts.add(postId(comment));
+        }
+        posts.forEach(postCounterRepository::recount);
+    }
+
+    private Set<Long> previous(PostComment comment) {
+        var before = affected.get();
+        affected.remove();
+        return before != null && before.commentId().equals(comment.getId()) ? before.postIds() : Set.of();
+    }
+
+    private Long postId(PostComment comment) {
+        return (Long) entityManagerFactory.getPersistenceUnitUtil().getIdentifier(comment.getPost());
+    }
+
+    private record Affected(Long commentId, Set<Long> postIds) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.events;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.SearchableTextRepository.CommentText;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.SearchableTextRepository.PostText;
+import com.nosbielc.blogspringdatarest.infrastructure.services.SearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterLinkDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterLinkSave;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mirrors post and comment writes made through the REST resources into the {@link SearchIndex}.
+ */
+@Component
+@RepositoryEventHandler
+@RequiredArgsConstructor
+public class SearchIndexEventHandler {
+
+    private final SearchIndex searchIndex;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @HandleAfterCreate
+    @HandleAfterSave
+    public void postSaved(Post post) {
+        searchIndex.index(new PostText(post.getId(), post.getTitle(), post.getContent()));
+    }
+
+    @HandleAfterDelete
+    public void postDeleted(Post post) {
+        searchIndex.deletePost(post.getId());
+    }
+
+    @HandleAfterCreate
+    @HandleAfterSave
+    public void commentSaved(PostComment comment) {
+        var postId = comment.getPost() == null ? null
+                : (Long) entityManagerFactory.getPersistenceUnitUtil().getIdentifier(comment.getPost());
+        searchIndex.index(new CommentText(comment.getId(), postId, comment.getReview()));
+    }
+
+    /**
+     * Link updates may move the comment to another post. Link events pass the linked entity as well.
+     */
+    @HandleAfterLinkSave
+    @HandleAfterLinkDelete
+    public void commentRelinked(PostComment comment, Object linked) {
+        commentSaved(comment);
+    }
+
+    @HandleAfterDelete
+    public void commentDeleted(PostComment comment) {
+        searchIndex.deleteComment(comment.getId());
+    }
+}
@@ -0,0 +1,36 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.StreamingProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Offset pages of a whole table handed row by row to the caller while the result set scrolls, for
+ * responses written as the rows arrive. Table, column and order names come from the callers' own
+ * constants, never from the request.
+ */
+@Repository
+public class CollectionStreamingRepository {
+
+    private final JdbcTemplate streamingTemplate;
+
+    public CollectionStreamingRepository(DataSource dataSource, StreamingProperties properties) {
+        this.streamingTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate.setFetchSize(properties.fetchSize());
+    }
+
+    public void scan(String table, List<String> columns, String orderBy, long offset, int limit,
+                     RowCallbackHandler handler) {
+        streamingTemplate.query("SELECT " + String.join(", ", columns) + " FROM " + table + " ORDER BY " + orderBy
+                + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", handler, offset, limit);
+    }
+
+    public long count(String table) {
+        Long count = streamingTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count == null ? 0 : count;
+    }
+}
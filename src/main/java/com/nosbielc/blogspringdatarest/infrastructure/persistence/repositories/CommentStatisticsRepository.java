@@ -0,0 +1,349 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.StatisticsChanges.CommentRow;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.StatisticsChanges.Delta;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.CommentStatusCount;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.StatisticsScope;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.TopCommenter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maintains {@code comment_status_count} and {@code commenter_count}. Deltas are added to the rows they
+ * touch. Otherwise the rows of an owner are replaced together, recomputed from its live and archived
+ * comments through the {@code post_id} / {@code user_id} indexes of both tables. Archiving a comment
+ * leaves the statistics as they are, and the cost of a refresh follows the comments of the owners
+ * refreshed, not the size of the tables.
+ * Reads are primary key lookups plus a bounded walk of {@code idx_commenter_count_top}.
+ * <p>
+ * Callers provide the transaction.
+ */
+@Repository
+public class CommentStatisticsRepository {
+
+    private static final int IN_LIST_SIZE = 1000;
+
+    private static final String BY_IDS = "= ANY(:ids)";
+    private static final String BY_RANGE = "BETWEEN :from AND :to";
+
+    private static final String DELETE_STATUS_COUNTS =
+            "DELETE FROM comment_status_count WHERE scope = :scope AND owner_id %s";
+    private static final String DELETE_COMMENTER_COUNTS =
+            "DELETE FROM commenter_count WHERE scope = :scope AND owner_id %s";
+
+    private static final String POST_STATUS_COUNTS = """
+            INSERT INTO comment_status_count (scope, owner_id, status, comments, votes)
+            SELECT :scope, post_id, COALESCE(status, :noStatus), COUNT(*), COALESCE(SUM(votes), 0)
+              FROM (SELECT post_id, status, votes FROM post_comment WHERE post_id %1$s
+                    UNION ALL
+                    SELECT post_id, status, votes FROM post_comment_archive WHERE post_id %1$s) c
+             GROUP BY post_id, COALESCE(status, :noStatus)
+            """;
+    private static final String POST_COMMENTER_COUNTS = """
+            INSERT INTO commenter_count (scope, owner_id, user_id, comments)
+            SELECT :scope, post_id, user_id, COUNT(*)
+              FROM (SELECT post_id, user_id FROM post_comment WHERE post_id %1$s AND user_id IS NOT NULL
+                    UNION ALL
+                    SELECT post_id, user_id FROM post_comment_archive WHERE post_id %1$s AND user_id IS NOT NULL) c
+             GROUP BY post_id, user_id
+            """;
+    private static final String USER_STATUS_COUNTS = """
+            INSERT INTO comment_status_count (scope, owner_id, status, comments, votes)
+            SELECT :scope, user_id, COALESCE(status, :noStatus), COUNT(*), COALESCE(SUM(votes), 0)
+              FROM (SELECT user_id, status, votes FROM post_comment WHERE user_id %1$s
+                    UNION ALL
+                    SELECT user_id, status, votes FROM post_comment_archive WHERE user_id %1$s) c
+             GROUP BY user_id, COALESCE(status, :noStatus)
+            """;
+    private static final String USER_COMMENTER_COUNTS = """
+            INSERT INTO commenter_count (scope, owner_id, user_id, comments)
+            SELECT :scope, author_id, user_id, COUNT(*)
+              FROM (SELECT p.user_id AS author_id, c.user_id FROM post p JOIN post_comment c ON c.post_id = p.id
+                     WHERE p.user_id %1$s AND c.user_id IS NOT NULL
+                    UNION ALL
+                    SELECT p.user_id, a.user_id FROM post p JOIN post_comment_archive a ON a.post_id = p.id
+                     WHERE p.user_id %1$s AND a.user_id IS NOT NULL) c
+             GROUP BY author_id, user_id
+            """;
+
+    private static final String ADD_STATUS_COUNT = """
+            MERGE INTO comment_status_count t
+            USING (SELECT CAST(:scope AS VARCHAR(8)) AS scope, CAST(:ownerId AS BIGINT) AS owner_id,
+                          CAST(:status AS INTEGER) AS status, CAST(:comments AS BIGINT) AS comments,
+                          CAST(:votes AS BIGINT) AS votes) d
+               ON t.scope = d.scope AND t.owner_id = d.owner_id AND t.status = d.status
+             WHEN MATCHED THEN UPDATE SET comments = t.comments + d.comments, votes = t.votes + d.votes
+             WHEN NOT MATCHED THEN INSERT (scope, owner_id, status, comments, votes)
+                  VALUES (d.scope, d.owner_id, d.status, d.comments, d.votes)
+            """;
+    private static final String ADD_COMMENTER_COUNT = """
+            MERGE INTO commenter_count t
+            USING (SELECT CAST(:scope AS VARCHAR(8)) AS scope, CAST(:ownerId AS BIGINT) AS owner_id,
+                          CAST(:userId AS BIGINT) AS user_id, CAST(:comments AS BIGINT) AS comments) d
+               ON t.scope = d.scope AND t.owner_id = d.owner_id AND t.user_id = d.user_id
+             WHEN MATCHED THEN UPDATE SET comments = t.comments + d.comments
+             WHEN NOT MATCHED THEN INSERT (scope, owner_id, user_id, comments)
+                  VALUES (d.scope, d.owner_id, d.user_id, d.comments)
+            """;
+    private static final String DROP_EMPTY_STATUS_COUNT = """
+            DELETE FROM comment_status_count
+             WHERE scope = :scope AND owner_id = :ownerId AND status = :status AND comments <= 0
+            """;
+    private static final String DROP_EMPTY_COMMENTER_COUNT = """
+            DELETE FROM commenter_count
+             WHERE scope = :scope AND owner_id = :ownerId AND user_id = :userId AND comments <= 0
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CommentStatisticsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds the post and the user of each existing comment to {@code posts} and {@code users}.
+     */
+    public void ownersOfComments(Collection<Long> commentIds, Set<Long> posts, Set<Long> users) {
+        for (var ids : partition(commentIds)) {
+            jdbcTemplate.query("SELECT post_id, user_id FROM post_comment WHERE id IN (:ids)",
+                    Map.of("ids", ids),
+                    rs -> {
+                        addIfPresent(posts, rs.getObject("post_id", Long.class));
+                        addIfPresent(users, rs.getObject("user_id", Long.class));
+                    });
+        }
+    }
+
+    public List<Long> authorsOf(Collection<Long> postIds) {
+        var authors = new ArrayList<Long>();
+        for (var ids : partition(postIds)) {
+            authors.addAll(jdbcTemplate.queryForList(
+                    "SELECT DISTINCT user_id FROM post WHERE id IN (:ids) AND user_id IS NOT NULL",
+                    Map.of("ids", ids), Long.class));
+        }
+        return authors;
+    }
+
+    /**
+     * Adds {@code deltas} to the rows they touch, leaving out the owners in {@code recomputedPosts} and
+     * {@code recomputedUsers}, whose rows already count them. Rows left without comments are dropped, as
+     * a recompute would.
+     */
+    public void add(Map<CommentRow, Delta> deltas, Set<Long> recomputedPosts, Set<Long> recomputedUsers) {
+        var posts = new HashSet<Long>();
+        deltas.keySet().forEach(row -> addIfPresent(posts, row.postId()));
+        var authors = authorsByPost(posts);
+
+        var statusCounts = new HashMap<StatusKey, Delta>();
+        var commenterCounts = new HashMap<CommenterKey, Long>();
+        deltas.forEach((row, delta) -> {
+            var post = row.postId();
+            var user = row.userId();
+            if (post != null && !recomputedPosts.contains(post)) {
+                statusCounts.merge(new StatusKey(StatisticsScope.POST, post, row.status()), delta, Delta::plus);
+                if (user != null) {
+                    commenterCounts.merge(new CommenterKey(StatisticsScope.POST, post, user), delta.comments(),
+                            Long::sum);
+                }
+            }
+            if (user != null && !recomputedUsers.contains(user)) {
+                statusCounts.merge(new StatusKey(StatisticsScope.USER, user, row.status()), delta, Delta::plus);
+            }
+            var author = post == null ? null : authors.get(post);
+            if (author != null && user != null && !recomputedUsers.contains(author)) {
+                commenterCounts.merge(new CommenterKey(StatisticsScope.USER, author, user), delta.comments(),
+                        Long::sum);
+            }
+        });
+        statusCounts.values().removeIf(Delta::isZero);
+        commenterCounts.values().removeIf(comments -> comments == 0);
+
+        var statusParams = statusCounts.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("scope", entry.getKey().scope().name())
+                        .addValue("ownerId", entry.getKey().ownerId())
+                        .addValue("status", entry.getKey().status())
+                        .addValue("comments", entry.getValue().comments())
+                        .addValue("votes", entry.getValue().votes()))
+                .toArray(SqlParameterSource[]::new);
+        var commenterParams = commenterCounts.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("scope", entry.getKey().scope().name())
+                        .addValue("ownerId", entry.getKey().ownerId())
+                        .addValue("userId", entry.getKey().userId())
+                        .addValue("comments", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(ADD_STATUS_COUNT, statusParams);
+        jdbcTemplate.batchUpdate(ADD_COMMENTER_COUNT, commenterParams);
+        jdbcTemplate.batchUpdate(DROP_EMPTY_STATUS_COUNT, statusParams);
+        jdbcTemplate.batchUpdate(DROP_EMPTY_COMMENTER_COUNT, commenterParams);
+    }
+
+    public void refreshPosts(Collection<Long> postIds) {
+        for (var ids : partition(postIds)) {
+            replacePosts(BY_IDS, ids(ids));
+        }
+    }
+
+    public void refreshUsers(Collection<Long> userIds) {
+        for (var ids : partition(userIds)) {
+            replaceUsers(BY_IDS, ids(ids));
+        }
+    }
+
+    /**
+     * Recomputes every post with an id in {@code [from, to]}, dropping the rows of posts no longer there.
+     */
+    public void rebuildPosts(long from, long to) {
+        replacePosts(BY_RANGE, range(from, to));
+    }
+
+    /**
+     * Recomputes every user with an id in {@code [from, to]}, dropping the rows of users no longer there.
+     */
+    public void rebuildUsers(long from, long to) {
+        replaceUsers(BY_RANGE, range(from, to));
+    }
+
+    /**
+     * Drops the rows of owners outside {@code range}, which no chunk of a rebuild covers; a {@code null}
+     * range drops every row of the scope.
+     */
+    public void deleteOutside(StatisticsScope scope, long[] range) {
+        var params = (range == null ? range(0, -1) : range(range[0], range[1])).addValue("scope", scope.name());
+        jdbcTemplate.update("DELETE FROM comment_status_count WHERE scope = :scope AND owner_id NOT "
+                + BY_RANGE, params);
+        jdbcTemplate.update("DELETE FROM commenter_count WHERE scope = :scope AND owner_id NOT "
+                + BY_RANGE, params);
+    }
+
+    /**
+     * @return {@code [min, max]} of the ids in {@code post} or {@code users}, {@code null} when the table is empty
+     */
+    public long[] idRange(StatisticsScope scope) {
+        var table = scope == StatisticsScope.POST ? "post" : "users";
+        return jdbcTemplate.query("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM " + table, Map.of(),
+                rs -> {
+                    rs.next();
+                    var min = rs.getObject("min_id", Long.class);
+                    return min == null ? null : new long[]{min, rs.getLong("max_id")};
+                });
+    }
+
+    public List<StatusCount> findStatusCounts(StatisticsScope scope, long ownerId) {
+        return jdbcTemplate.query("""
+                        SELECT status, comments, votes FROM comment_status_count
+                         WHERE scope = :scope AND owner_id = :ownerId
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("scope", scope.name())
+                        .addValue("ownerId", ownerId),
+                (rs, rowNum) -> new StatusCount(rs.getInt("status"), rs.getLong("comments"), rs.getLong("votes")));
+    }
+
+    public List<TopCommenter> findTopCommenters(StatisticsScope scope, long ownerId, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT s.user_id, s.comments, u.first_name, u.last_name
+                          FROM commenter_count s
+                          LEFT JOIN users u ON u.id = s.user_id
+                         WHERE s.scope = :scope AND s.owner_id = :ownerId
+                         ORDER BY s.comments DESC, s.user_id
+                         FETCH FIRST :limit ROWS ONLY
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("scope", scope.name())
+                        .addValue("ownerId", ownerId)
+                        .addValue("limit", limit),
+                (rs, rowNum) -> new TopCommenter(rs.getLong("user_id"),
+                        Objects.toString(rs.getString("first_name"), "") + " "
+                                + Objects.toString(rs.getString("last_name"), ""),
+                        rs.getLong("comments")));
+    }
+
+    public boolean exists(StatisticsScope scope, long ownerId) {
+        var table = scope == StatisticsScope.POST ? "post" : "users";
+        return !jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE id = :id",
+                Map.of("id", ownerId), Long.class).isEmpty();
+    }
+
+    private Map<Long, Long> authorsByPost(Collection<Long> postIds) {
+        var authors = new HashMap<Long, Long>();
+        for (var ids : partition(postIds)) {
+            jdbcTemplate.query("SELECT id, user_id FROM post WHERE id IN (:ids) AND user_id IS NOT NULL",
+                    Map.of("ids", ids),
+                    rs -> {
+                        authors.put(rs.getLong("id"), rs.getLong("user_id"));
+                    });
+        }
+        return authors;
+    }
+
+    private void replacePosts(String condition, MapSqlParameterSource params) {
+        params.addValue("scope", StatisticsScope.POST.name()).addValue("noStatus", CommentStatusCount.NO_STATUS);
+        jdbcTemplate.update(DELETE_STATUS_COUNTS.formatted(condition), params);
+        jdbcTemplate.update(DELETE_COMMENTER_COUNTS.formatted(condition), params);
+        jdbcTemplate.update(POST_STATUS_COUNTS.formatted(condition), params);
+        jdbcTemplate.update(POST_COMMENTER_COUNTS.formatted(condition), params);
+    }
+
+    private void replaceUsers(String condition, MapSqlParameterSource params) {
+        params.addValue("scope", StatisticsScope.USER.name()).addValue("noStatus", CommentStatusCount.NO_STATUS);
+        jdbcTemplate.update(DELETE_STATUS_COUNTS.formatted(condition), params);
+        jdbcTemplate.update(DELETE_COMMENTER_COUNTS.formatted(condition), params);
+        jdbcTemplate.update(USER_STATUS_COUNTS.formatted(condition), params);
+        jdbcTemplate.update(USER_COMMENTER_COUNTS.formatted(condition), params);
+    }
+
+    private static MapSqlParameterSource ids(List<Long> ids) {
+        return new MapSqlParameterSource("ids", ids.toArray(Long[]::new));
+    }
+
+    private static MapSqlParameterSource range(long from, long to) {
+        return new MapSqlParameterSource().addValue("from", from).addValue("to", to);
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private static List<List<Long>> partition(Collection<Long> ids) {
+        var partitions = new ArrayList<List<Long>>();
+        var current = new ArrayList<Long>(Math.min(ids.size(), IN_LIST_SIZE));
+        for (Long id : ids) {
+            current.add(id);
+            if (current.size() == IN_LIST_SIZE) {
+                partitions.add(current);
+                current = new ArrayList<>(IN_LIST_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            partitions.add(current);
+        }
+        return partitions;
+    }
+
+    private record StatusKey(StatisticsScope scope, long ownerId, int status) {
+    }
+
+    private record CommenterKey(StatisticsScope scope, long ownerId, long userId) {
+    }
+
+    /**
+     * @param status {@code CommentStatus} code, or {@link CommentStatusCount#NO_STATUS}
+     */
+    public record StatusCount(int status, long comments, long votes) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+
+import java.time.LocalDateTime;
+
+public record CommentTreeRow(long id,
+                             Long parentPostCommentId,
+                             Long userId,
+                             String review,
+                             Integer votes,
+                             LocalDateTime createdAt,
+                             CommentStatus status,
+                             int depth) {
+}
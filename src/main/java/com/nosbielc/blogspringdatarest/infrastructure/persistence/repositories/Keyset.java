@@ -0,0 +1,32 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Seek position over {@code (createdAt, id)}. Exposed to clients only as an opaque cursor.
+ * <p>
+ * Rows without a {@code createdAt} sort before every dated one; their cursor leaves the date empty.
+ */
+public record Keyset(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        var raw = (createdAt == null ? "" : createdAt.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Keyset decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = raw.lastIndexOf(SEPARATOR);
+            var createdAt = raw.substring(0, separator);
+            return new Keyset(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
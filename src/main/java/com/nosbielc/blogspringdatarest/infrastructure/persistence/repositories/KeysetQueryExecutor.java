@@ -0,0 +1,105 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Seek pagination over {@code (createdAt, id)} for entities filtered by {@link Specification}s.
+ * Fetches {@code size + 1} rows to detect a further window, so no count query is ever issued.
+ * <p>
+ * A null {@code createdAt} sorts first, spelled out in both the ordering and the seek predicate so a
+ * window never skips undated rows whatever the database's default null ordering.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class KeysetQueryExecutor {
+
+    private static final String CREATED_AT = "createdAt";
+    private static final String ID = "id";
+
+    private final EntityManager entityManager;
+
+    public <T> KeysetWindow<T> findAfter(Class<T> type, Specification<T> spec, Keyset after, int size,
+                                         Function<T, Keyset> keyOf) {
+        var rows = find(type, spec, after, true, size);
+        var hasMore = rows.size() > size;
+        var content = hasMore ? rows.subList(0, size) : rows;
+
+        return new KeysetWindow<>(content,
+                hasMore ? keyOf.apply(content.get(content.size() - 1)) : null,
+                after != null && !content.isEmpty() ? keyOf.apply(content.get(0)) : null);
+    }
+
+    public <T> KeysetWindow<T> findBefore(Class<T> type, Specification<T> spec, Keyset before, int size,
+                                          Function<T, Keyset> keyOf) {
+        var rows = find(type, spec, before, false, size);
+        var hasMore = rows.size() > size;
+        var content = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        Collections.reverse(content);
+
+        return new KeysetWindow<>(content,
+                content.isEmpty() ? null : keyOf.apply(content.get(content.size() - 1)),
+                hasMore ? keyOf.apply(content.get(0)) : null);
+    }
+
+    private <T> List<T> find(Class<T> type, Specification<T> spec, Keyset keyset, boolean forward, int size) {
+        var builder = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        var query = builder.createQuery(type);
+        Root<T> root = query.from(type);
+
+        var predicates = new ArrayList<Predicate>();
+        if (spec != null) {
+            var predicate = spec.toPredicate(root, query, builder);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (keyset != null) {
+            predicates.add(seek(builder, root, keyset, forward));
+        }
+
+        Path<LocalDateTime> createdAt = root.get(CREATED_AT);
+        Path<Long> id = root.get(ID);
+        query.select(root)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(forward
+                        ? List.of(builder.asc(createdAt, true), builder.asc(id))
+                        : List.of(builder.desc(createdAt, false), builder.desc(id)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+    }
+
+    private static <T> Predicate seek(CriteriaBuilder builder, Root<T> root, Keyset keyset, boolean forward) {
+        Path<LocalDateTime> createdAt = root.get(CREATED_AT);
+        Path<Long> id = root.get(ID);
+
+        if (keyset.createdAt() == null) {
+            var undated = builder.and(builder.isNull(createdAt),
+                    forward ? builder.greaterThan(id, keyset.id()) : builder.lessThan(id, keyset.id()));
+            return forward ? builder.or(builder.isNotNull(createdAt), undated) : undated;
+        }
+        return forward
+                ? builder.or(builder.greaterThan(createdAt, keyset.createdAt()),
+                        builder.and(builder.equal(createdAt, keyset.createdAt()), builder.greaterThan(id, keyset.id())))
+                : builder.or(builder.lessThan(createdAt, keyset.createdAt()),
+                        builder.and(builder.equal(createdAt, keyset.createdAt()), builder.lessThan(id, keyset.id())),
+                        builder.isNull(createdAt));
+    }
+}
@@ -0,0 +1,10 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import java.util.List;
+
+/**
+ * @param next     position to continue forward from, {@code null} on the last window
+ * @param previous position to continue backwards from, {@code null} on the first window
+ */
+public record KeysetWindow<T>(List<T> content, Keyset next, Keyset previous) {
+}
@@ -0,0 +1,121 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.events.EntitiesModifiedEvent;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostCommentRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Moderation statements over {@code post_comment}. Pending comments are found through
+ * {@code idx_post_comment_status_created_at_id}, oldest first.
+ * <p>
+ * A claim is a lease ({@code claimed_by}, {@code claimed_until}) taken with a guarded update: rows
+ * leased by someone else no longer match, so concurrent moderators end up with disjoint batches and
+ * never wait on each other's rows, as {@code FOR UPDATE SKIP LOCKED} would give within one transaction.
+ * Callers provide the transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ModerationRepository {
+
+    private static final String COLUMNS =
+            "id, post_id, user_id, parent_post_comment_id, review, votes, created_at, status";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @return ids of the oldest pending comments nobody holds a lease on at {@code now}
+     */
+    public List<Long> findClaimable(int limit, LocalDateTime now) {
+        return jdbcTemplate.queryForList("""
+                        SELECT id FROM post_comment
+                         WHERE status = :pending AND (claimed_until IS NULL OR claimed_until < :now)
+                         ORDER BY created_at, id
+                         FETCH FIRST :limit ROWS ONLY
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("pending", CommentStatus.PENDING_APPROVAL.ordinal())
+                        .addValue("now", now)
+                        .addValue("limit", limit),
+                Long.class);
+    }
+
+    /**
+     * Leases those of {@code ids} that are still pending and free.
+     *
+     * @return number of comments leased
+     */
+    public int claim(Collection<Long> ids, String moderator, LocalDateTime now, LocalDateTime until) {
+        return jdbcTemplate.update("""
+                        UPDATE post_comment SET claimed_by = :moderator, claimed_until = :until
+                         WHERE id = ANY(:ids) AND status = :pending AND (claimed_until IS NULL OR claimed_until < :now)
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("ids", ids.toArray(Long[]::new))
+                        .addValue("moderator", moderator)
+                        .addValue("until", until)
+                        .addValue("pending", CommentStatus.PENDING_APPROVAL.ordinal())
+                        .addValue("now", now));
+    }
+
+    public List<PostCommentRow> findClaimed(String moderator, LocalDateTime until) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM post_comment"
+                        + " WHERE claimed_by = :moderator AND claimed_until = :until ORDER BY created_at, id",
+                new MapSqlParameterSource()
+                        .addValue("moderator", moderator)
+                        .addValue("until", until),
+                (rs, rowNum) -> toRow(rs));
+    }
+
+    /**
+     * Moves the comments to {@code status} in a single statement and releases their leases. Deleted
+     * comments and comments already in {@code status} are left alone.
+     *
+     * @return number of comments changed
+     */
+    public int transition(Collection<Long> ids, CommentStatus status) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int updated = jdbcTemplate.update("""
+                        UPDATE post_comment SET status = :status, claimed_by = NULL, claimed_until = NULL,
+                               version = version + 1, updated_at = :now
+                         WHERE id = ANY(:ids) AND status <> :status AND status <> :deleted
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("ids", ids.toArray(Long[]::new))
+                        .addValue("status", status.ordinal())
+                        .addValue("deleted", CommentStatus.DELETED.ordinal())
+                        .addValue("now", LocalDateTime.now()));
+
+        if (updated > 0) {
+            // the second-level cache entries are evicted once this commits
+            eventPublisher.publishEvent(new EntitiesModifiedEvent(PostComment.class, List.copyOf(ids)));
+        }
+        return updated;
+    }
+
+    private static PostCommentRow toRow(ResultSet rs) throws SQLException {
+        return new PostCommentRow(rs.getLong("id"),
+                rs.getObject("post_id", Long.class),
+                rs.getObject("user_id", Long.class),
+                rs.getObject("parent_post_comment_id", Long.class),
+                rs.getString("review"),
+                rs.getObject("votes", Integer.class),
+                rs.getObject("created_at", LocalDateTime.class),
+                CommentStatus.fromCode(rs.getInt("status")));
+    }
+}
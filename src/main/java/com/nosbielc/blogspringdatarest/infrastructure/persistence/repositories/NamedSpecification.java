@@ -0,0 +1,38 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * A {@link Specification} that prints as the call that built it, e.g. {@code byPostId(5)}, so slow query
+ * logs show the bound criteria. Compositions through {@link #and} and {@link #or} keep the description.
+ */
+public record NamedSpecification<T>(String name, Specification<T> delegate) implements Specification<T> {
+
+    public static <T> Specification<T> named(String name, Specification<T> delegate) {
+        return new NamedSpecification<>(name, delegate);
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        return delegate.toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Override
+    public Specification<T> and(Specification<T> other) {
+        return other == null ? this : named(name + " and " + other, Specification.super.and(other));
+    }
+
+    @Override
+    public Specification<T> or(Specification<T> other) {
+        return other == null ? this : named("(" + name + " or " + other + ")", Specification.super.or(other));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,193 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ArchiveProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.CacheRegions;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.CommentStatusCount;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.events.CollectionCacheEventHandler;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.events.EntitiesModifiedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves comments from {@code post_comment} to {@code post_comment_archive}. A comment is archivable once
+ * it is older than the cutoff (unless still pending approval) or in one of the archived statuses, is not
+ * leased to a moderator and has no live reply, so the live table never points at an archived parent.
+ * Threads therefore leave the live table leaves first, one level per batch.
+ * <p>
+ * The newest {@code created_at} archived per status is kept in memory so {@link #mayContain} can tell
+ * readers when the archive cannot hold anything they ask for. Moves made here raise it before they
+ * commit; moves made by other instances are picked up when it is read from the table again, at most
+ * {@code blog.archive.watermark-ttl} later. Callers provide the transaction.
+ */
+@Repository
+public class PostCommentArchiveRepository {
+
+    private static final String COLUMNS =
+            "id, post_id, user_id, parent_post_comment_id, review, votes, created_at, updated_at, status";
+
+    private static final String AGED = "c.created_at < :cutoff AND (c.status IS NULL OR c.status <> :pending)";
+    private static final String IN_STATUS = "c.status = ANY(:statuses)";
+    private static final String MOVABLE = """
+            (c.claimed_until IS NULL OR c.claimed_until < :now)
+            AND NOT EXISTS (SELECT 1 FROM post_comment r WHERE r.parent_post_comment_id = c.id)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ArchiveProperties properties;
+
+    /**
+     * Newest {@code created_at} archived, keyed by status code or {@link CommentStatusCount#NO_STATUS};
+     * {@link LocalDateTime#MIN} when only undated comments were archived. Values only grow: a read from
+     * the table is merged in, so it cannot undo a raise by a move that has not committed yet.
+     */
+    private final Map<Integer, LocalDateTime> newest = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+
+    public PostCommentArchiveRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                        EntityManagerFactory entityManagerFactory,
+                                        ApplicationEventPublisher eventPublisher,
+                                        ArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+
+    /**
+     * @return up to {@code limit} archivable comment ids, the oldest aged comments first
+     */
+    public Set<Long> findArchivable(LocalDateTime cutoff, Set<CommentStatus> statuses, LocalDateTime now, int limit) {
+        var params = params(cutoff, statuses, now).addValue("limit", limit);
+        var ids = new LinkedHashSet<>(jdbcTemplate.queryForList("SELECT c.id FROM post_comment c WHERE " + AGED
+                + " AND " + MOVABLE + " ORDER BY c.created_at, c.id FETCH FIRST :limit ROWS ONLY", params, Long.class));
+        if (ids.size() < limit && !statuses.isEmpty()) {
+            params.addValue("limit", limit - ids.size());
+            ids.addAll(jdbcTemplate.queryForList("SELECT c.id FROM post_comment c WHERE " + IN_STATUS
+                    + " AND " + MOVABLE + " FETCH FIRST :limit ROWS ONLY", params, Long.class));
+        }
+        return ids;
+    }
+
+    /**
+     * Moves those of {@code ids} that are still archivable. The rows are copied from the ones the delete
+     * removed, so a comment changed in the meantime either moves as it is now or stays live.
+     *
+     * @return number of comments moved
+     */
+    public int move(Collection<Long> ids, LocalDateTime cutoff, Set<CommentStatus> statuses, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        var params = params(cutoff, statuses, now).addValue("ids", ids.toArray(Long[]::new));
+        int moved = jdbcTemplate.update("INSERT INTO post_comment_archive (" + COLUMNS + ", archived_at)"
+                + " SELECT " + COLUMNS + ", :now FROM OLD TABLE ("
+                + " DELETE FROM post_comment c WHERE c.id = ANY(:ids) AND (" + AGED + " OR " + IN_STATUS + ")"
+                + " AND " + MOVABLE + ")", params);
+        if (moved == 0) {
+            return 0;
+        }
+
+        load();
+        jdbcTemplate.query("""
+                        SELECT COALESCE(status, :noStatus) AS status, MAX(created_at) AS newest
+                          FROM post_comment_archive
+                         WHERE id = ANY(:ids)
+                         GROUP BY COALESCE(status, :noStatus)
+                        """,
+                params.addValue("noStatus", CommentStatusCount.NO_STATUS),
+                rs -> {
+                    raise(rs.getInt("status"), rs.getObject("newest", LocalDateTime.class));
+                });
+
+        var cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        ids.forEach(id -> cache.evictEntityData(PostComment.class, id));
+        cache.evictQueryRegion(CacheRegions.POST_COMMENT_SPECS);
+        cache.evictCollectionData(CollectionCacheEventHandler.POST_COMMENTS);
+        cache.evictCollectionData(CollectionCacheEventHandler.USER_COMMENTS);
+        cache.evictCollectionData(CollectionCacheEventHandler.POST_COMMENT_CHILDREN);
+        eventPublisher.publishEvent(new EntitiesModifiedEvent(PostComment.class, List.copyOf(ids)));
+        return moved;
+    }
+
+    /**
+     * Whether archived comments in {@code status} (any status when {@code null}) created at or after
+     * {@code createdFrom} (at any time when {@code null}) may exist. A {@code false} can be up to
+     * {@code blog.archive.watermark-ttl} late for comments another instance archived; a {@code true} may
+     * be stale after archived rows went away with their post or user.
+     */
+    public boolean mayContain(CommentStatus status, LocalDateTime createdFrom) {
+        load();
+        if (status != null) {
+            return reaches(newest.get(status.getCode()), createdFrom);
+        }
+        return newest.values().stream().anyMatch(createdAt -> reaches(createdAt, createdFrom));
+    }
+
+    public long count() {
+        var count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_comment_archive", Map.of(), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private void load() {
+        if (fresh()) {
+            return;
+        }
+        synchronized (newest) {
+            if (!fresh()) {
+                jdbcTemplate.query("""
+                                SELECT COALESCE(status, :noStatus) AS status, MAX(created_at) AS newest
+                                  FROM post_comment_archive
+                                 GROUP BY COALESCE(status, :noStatus)
+                                """,
+                        Map.of("noStatus", CommentStatusCount.NO_STATUS),
+                        rs -> {
+                            raise(rs.getInt("status"), rs.getObject("newest", LocalDateTime.class));
+                        });
+                loadedAt = System.nanoTime();
+                loaded = true;
+            }
+        }
+    }
+
+    private boolean fresh() {
+        return loaded && System.nanoTime() - loadedAt < properties.watermarkTtl().toNanos();
+    }
+
+    private void raise(int status, LocalDateTime createdAt) {
+        newest.merge(status, createdAt == null ? LocalDateTime.MIN : createdAt,
+                (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+    }
+
+    private static boolean reaches(LocalDateTime newestArchived, LocalDateTime createdFrom) {
+        if (newestArchived == null) {
+            return false;
+        }
+        return createdFrom == null || (newestArchived != LocalDateTime.MIN && !newestArchived.isBefore(createdFrom));
+    }
+
+    private static MapSqlParameterSource params(LocalDateTime cutoff, Set<CommentStatus> statuses, LocalDateTime now) {
+        return new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("pending", CommentStatus.PENDING_APPROVAL.getCode())
+                .addValue("statuses", statuses.stream().map(CommentStatus::getCode).toArray(Integer[]::new))
+                .addValue("now", now);
+    }
+}
@@ -0,0 +1,32 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+import static com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository.Specs;
+
+/**
+ * Request level filter over post comments. Every criterion is optional and maps onto one of the
+ * {@link Specs}; {@code createdFrom} is inclusive and {@code createdTo} exclusive.
+ */
+public record PostCommentFilter(Long postId,
+                                Long userId,
+                                CommentStatus status,
+                                Integer minVotes,
+                                String review,
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+
+    public Specification<PostComment> toSpecification() {
+        return Specification.where(Specs.byPostId(postId))
+                .and(Specs.byUserId(userId))
+                .and(status == null ? null : Specs.byStatus(status))
+                .and(minVotes == null ? null : Specs.byVotesGreaterThanEqual(minVotes))
+                .and(review == null || review.isBlank() ? null : Specs.byReviewLike(review))
+                .and(createdFrom == null && createdTo == null ? null : Specs.byCreatedAtBetween(createdFrom, createdTo));
+    }
+}
@@ -3,26 +3,82 @@ package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.PostCommentResumeView;
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostCommentRow;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.util.CollectionUtils;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.NamedSpecification.named;
+import static java.lang.String.format;
 
 @RepositoryRestResource
 public interface PostCommentRepository extends JpaRepository<PostComment, Long>, CrudRepository<PostComment, Long>,
         JpaSpecificationExecutor<PostComment> {
 
+    @Override
+    @EntityGraph("PostComment.withPostAndUser")
+    List<PostComment> findAll(Specification<PostComment> spec);
+
+    @Override
+    @EntityGraph("PostComment.withPostAndUser")
+    Page<PostComment> findAll(Specification<PostComment> spec, Pageable pageable);
+
+    @EntityGraph("PostComment.withPostAndUser")
+    Page<PostComment> findByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    String POST_COMMENT_RESUME = "select new com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections"
+            + ".PostCommentResumeView(c.id, c.review, c.votes, c.status, c.version, c.updatedAt) from PostComment c";
+
+    @RestResource(exported = false)
+    @Query(value = POST_COMMENT_RESUME, countQuery = "select count(c) from PostComment c")
+    Page<PostCommentResumeView> findPostCommentResumeBy(Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query(POST_COMMENT_RESUME + " where c.id = :id")
+    Optional<PostCommentResumeView> findPostCommentResumeById(@Param("id") Long id);
+
+    @RestResource(exported = false)
+    @Query("select new com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostCommentRow(c.id, c.post.id, c.user.id,"
+            + " c.parentPostComment.id, c.review, c.votes, c.createdAt, c.status) from PostComment c where c.id in :ids")
+    List<PostCommentRow> findPostCommentRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Values are bound as parameters. The Criteria queries built from these are not query cached:
+     * Hibernate 6.1 keys them by their bindings in identity hash order, so the same query would be stored
+     * once per binding order. Cached filtering goes through the HQL of {@link PostCommentSearchRepository}.
+     */
     interface Specs {
 
         static Specification<PostComment> byPost(Post post) {
-            return (root, query, builder) ->
-                    builder.equal(root.get("post"), post);
+            return named(format("byPost(%s)", post == null ? null : post.getId()), (root, query, builder) ->
+                    builder.equal(root.get("post"), post));
+        }
+
+        static Specification<PostComment> byPostId(Long postId) {
+            return named(format("byPostId(%s)", postId), (root, query, builder) -> postId == null ? null :
+                    builder.equal(root.get("post").get("id"), postId));
+        }
+
+        static Specification<PostComment> byUserId(Long userId) {
+            return named(format("byUserId(%s)", userId), (root, query, builder) -> userId == null ? null :
+                    builder.equal(root.get("user").get("id"), userId));
         }
 
         static Specification<List<PostComment>> byUser(User user) {
@@ -30,30 +86,45 @@ public interface PostCommentRepository extends JpaRepository<PostComment, Long>,
 ;        }
 
         static Specification<PostComment> byStatus(CommentStatus status) {
-            return (root, query, builder) ->
-                    builder.equal(root.get("status"), status);
+            return named(format("byStatus(%s)", status), (root, query, builder) ->
+                    builder.equal(root.get("status"), status));
         }
 
         static Specification<PostComment> byReviewLike(String reviewPattern) {
-            return (root, query, builder) ->
-                    builder.like(root.get("review"), reviewPattern);
+            return named(format("byReviewLike(%s)", reviewPattern), (root, query, builder) ->
+                    builder.like(root.get("review"), reviewPattern));
         }
 
         static Specification<PostComment> byVotesGreaterThanEqual(int votes) {
-            return (root, query, builder) ->
-                    builder.greaterThanOrEqualTo(root.get("votes"), votes);
+            return named(format("byVotesGreaterThanEqual(%s)", votes), (root, query, builder) ->
+                    builder.greaterThanOrEqualTo(root.get("votes"), votes));
+        }
+
+        /**
+         * {@code from} inclusive, {@code to} exclusive; either may be {@code null}.
+         */
+        static Specification<PostComment> byCreatedAtBetween(LocalDateTime from, LocalDateTime to) {
+            return named(format("byCreatedAtBetween(%s, %s)", from, to), (root, query, builder) -> {
+                Path<LocalDateTime> createdAt = root.get("createdAt");
+                if (from == null) {
+                    return to == null ? null : builder.lessThan(createdAt, to);
+                }
+                return to == null ? builder.greaterThanOrEqualTo(createdAt, from)
+                        : builder.and(builder.greaterThanOrEqualTo(createdAt, from), builder.lessThan(createdAt, to));
+            });
         }
 
         static Specification<PostComment> orderByCreatedAt(
                 Specification<PostComment> spec) {
-            return (root, query, builder) -> {
+            return named(format("orderByCreatedAt(%s)", spec), (root, query, builder) -> {
                 query.orderBy(builder.asc(root.get("createdAt")));
                 return spec.toPredicate(root, query, builder);
-            };
+            });
         }
 
         static <T, V> Specification<T> contains(String field, Collection<V> value) {
-            return (root, query, cb) -> CollectionUtils.isEmpty(value) ? null : root.get(field).in(value);
+            return named(format("contains(%s, %s)", field, value), (root, query, cb) ->
+                    CollectionUtils.isEmpty(value) ? null : root.get(field).in(value));
         }
     }
 
@@ -0,0 +1,40 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+import static com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository.Specs;
+
+/**
+ * Criteria of the comment search resource. Like {@link PostCommentFilter}, but {@code status} may be
+ * repeated, which is {@link Specs#contains} over the statuses; a single one is {@link Specs#byStatus}.
+ */
+public record PostCommentSearch(Long postId,
+                                Long userId,
+                                List<CommentStatus> status,
+                                Integer minVotes,
+                                String review,
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+
+    public PostCommentSearch {
+        status = status == null ? List.of() : status.stream().filter(Objects::nonNull).distinct().toList();
+        review = review == null || review.isBlank() ? null : review;
+    }
+
+    public Specification<PostComment> toSpecification() {
+        return Specification.where(Specs.byPostId(postId))
+                .and(Specs.byUserId(userId))
+                .and(status.isEmpty() ? null
+                        : status.size() == 1 ? Specs.byStatus(status.get(0)) : Specs.contains("status", status))
+                .and(minVotes == null ? null : Specs.byVotesGreaterThanEqual(minVotes))
+                .and(review == null ? null : Specs.byReviewLike(review))
+                .and(createdFrom == null && createdTo == null ? null : Specs.byCreatedAtBetween(createdFrom, createdTo));
+    }
+}
@@ -0,0 +1,169 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nosbielc.blogspringdatarest.infrastructure.config.CommentSearchProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.CacheRegions;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * The {@link PostCommentSearch} criteria as HQL rather than Criteria trees. Hibernate never reuses the
+ * plan of a Criteria query, but it keeps the compiled plan of every HQL string it has seen; so each
+ * combination of present criteria and sort, the shape, is written once as parameterized HQL and kept
+ * in a bounded cache, and later searches of that shape only bind their values. Results go to the query
+ * cache, keyed by the HQL and its named parameters; the Criteria queries of the {@code Specs} are not cached.
+ * <p>
+ * Hibernate skips its plan cache for queries with an entity graph or a multi-valued parameter, so the
+ * post and the author are join fetched and every status gets a parameter of its own.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class PostCommentSearchRepository {
+
+    private static final Map<String, String> SORTABLE = Map.of(
+            "id", "c.id",
+            "createdAt", "c.createdAt",
+            "updatedAt", "c.updatedAt",
+            "votes", "c.votes",
+            "status", "c.status");
+    private static final Sort DEFAULT_SORT = Sort.by("createdAt", "id");
+
+    private final EntityManager entityManager;
+    private final Cache<Shape, Plan> plans;
+
+    public PostCommentSearchRepository(EntityManager entityManager,
+                                       CommentSearchProperties properties,
+                                       MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(properties.planCacheSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, "postCommentSearchPlans");
+    }
+
+    /**
+     * Sorted by {@code createdAt} when the pageable has no sort, always ending with {@code id} so pages are
+     * stable; the count query runs only when the page alone cannot tell the total.
+     */
+    public Page<PostComment> search(PostCommentSearch search, Pageable pageable) {
+        var sort = sort(pageable.getSort());
+        var plan = plans.get(new Shape(search.postId() != null, search.userId() != null, search.status().size(),
+                search.minVotes() != null, search.review() != null, search.createdFrom() != null,
+                search.createdTo() != null, sort), PostCommentSearchRepository::compile);
+
+        var query = bind(entityManager.createQuery(plan.select(), PostComment.class), search);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable,
+                () -> bind(entityManager.createQuery(plan.count(), Long.class), search).getSingleResult());
+    }
+
+    public long planCount() {
+        return plans.estimatedSize();
+    }
+
+    private static Sort sort(Sort requested) {
+        var sort = requested.isSorted() ? requested : DEFAULT_SORT;
+        for (var order : sort) {
+            if (!SORTABLE.containsKey(order.getProperty())) {
+                throw new IllegalArgumentException(format("Ordenação desconhecida: %s; aceitas: %s", order.getProperty(),
+                        String.join(", ", SORTABLE.keySet().stream().sorted().toList())));
+            }
+        }
+        return sort.getOrderFor("id") == null ? sort.and(Sort.by("id")) : sort;
+    }
+
+    private static Plan compile(Shape shape) {
+        var where = new ArrayList<String>();
+        if (shape.postId()) {
+            where.add("c.post.id = :postId");
+        }
+        if (shape.userId()) {
+            where.add("c.user.id = :userId");
+        }
+        if (shape.statuses() == 1) {
+            where.add("c.status = :status0");
+        } else if (shape.statuses() > 1) {
+            var params = new ArrayList<String>();
+            for (int i = 0; i < shape.statuses(); i++) {
+                params.add(":status" + i);
+            }
+            where.add("c.status in (" + String.join(", ", params) + ")");
+        }
+        if (shape.minVotes()) {
+            where.add("c.votes >= :minVotes");
+        }
+        if (shape.review()) {
+            where.add("c.review like :review");
+        }
+        if (shape.createdFrom()) {
+            where.add("c.createdAt >= :createdFrom");
+        }
+        if (shape.createdTo()) {
+            where.add("c.createdAt < :createdTo");
+        }
+        var condition = where.isEmpty() ? "" : " where " + String.join(" and ", where);
+
+        var orderBy = new ArrayList<String>();
+        shape.sort().forEach(order -> orderBy.add(SORTABLE.get(order.getProperty()) + (order.isAscending() ? " asc" : " desc")));
+        return new Plan("select c from PostComment c left join fetch c.post left join fetch c.user" + condition
+                + " order by " + String.join(", ", orderBy),
+                "select count(c) from PostComment c" + condition);
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, PostCommentSearch search) {
+        query.setHint(AvailableHints.HINT_CACHEABLE, true)
+                .setHint(AvailableHints.HINT_CACHE_REGION, CacheRegions.POST_COMMENT_SPECS);
+        if (search.postId() != null) {
+            query.setParameter("postId", search.postId());
+        }
+        if (search.userId() != null) {
+            query.setParameter("userId", search.userId());
+        }
+        for (int i = 0; i < search.status().size(); i++) {
+            query.setParameter("status" + i, search.status().get(i));
+        }
+        if (search.minVotes() != null) {
+            query.setParameter("minVotes", search.minVotes());
+        }
+        if (search.review() != null) {
+            query.setParameter("review", search.review());
+        }
+        if (search.createdFrom() != null) {
+            query.setParameter("createdFrom", search.createdFrom());
+        }
+        if (search.createdTo() != null) {
+            query.setParameter("createdTo", search.createdTo());
+        }
+        return query;
+    }
+
+    /**
+     * Which criteria are present, how many statuses, and the order; never the values.
+     */
+    private record Shape(boolean postId, boolean userId, int statuses, boolean minVotes, boolean review,
+                         boolean createdFrom, boolean createdTo, Sort sort) {
+    }
+
+    private record Plan(String select, String count) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Loads a whole reply thread with a single recursive CTE, ordered so that every parent precedes
+ * its replies.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostCommentTreeRepository {
+
+    private static final String THREAD = """
+            WITH RECURSIVE thread (id, depth) AS (
+                SELECT id, 0 FROM post_comment
+                 WHERE post_id = :postId
+                   AND %s
+                UNION ALL
+                SELECT c.id, t.depth + 1 FROM post_comment c
+                  JOIN thread t ON c.parent_post_comment_id = t.id
+                 WHERE t.depth < :maxDepth
+            )
+            SELECT c.id, c.parent_post_comment_id, c.user_id, c.review, c.votes, c.created_at, c.status, t.depth
+              FROM thread t
+              JOIN post_comment c ON c.id = t.id
+             ORDER BY t.depth, c.created_at, c.id
+             FETCH FIRST :limit ROWS ONLY
+            """;
+
+    private static final String TOP_LEVEL = THREAD.formatted("parent_post_comment_id IS NULL");
+    private static final String SUBTREE = THREAD.formatted("id = :rootId");
+
+    private static final RowMapper<CommentTreeRow> ROW_MAPPER = (rs, rowNum) -> {
+        var status = rs.getObject("status", Integer.class);
+        return new CommentTreeRow(
+                rs.getLong("id"),
+                rs.getObject("parent_post_comment_id", Long.class),
+                rs.getObject("user_id", Long.class),
+                rs.getString("review"),
+                rs.getObject("votes", Integer.class),
+                rs.getObject("created_at", LocalDateTime.class),
+                status == null ? null : CommentStatus.fromCode(status),
+                rs.getInt("depth"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @param rootId   subtree root, or {@code null} for every top level comment of the post
+     * @param maxDepth deepest reply level to include, the root level being 0
+     * @param limit    maximum number of rows, taken level by level
+     */
+    public List<CommentTreeRow> findThread(long postId, Long rootId, int maxDepth, int limit) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("postId", postId)
+                .addValue("rootId", rootId)
+                .addValue("maxDepth", maxDepth)
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(rootId == null ? TOP_LEVEL : SUBTREE, parameters, ROW_MAPPER);
+    }
+}
@@ -0,0 +1,152 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.events.EntitiesModifiedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Relative updates of {@code post_comment.votes} and of the denormalized {@code post.comment_count} /
+ * {@code post.total_votes} columns. The statements bypass Hibernate, so they bump {@code version} and
+ * {@code updated_at} themselves and publish an {@link EntitiesModifiedEvent}, on whose commit the touched
+ * second-level cache entries are evicted. The counters are part of the representation, so its {@code ETag}
+ * moves with them, as it does for {@code ModerationRepository}'s bulk transitions. Callers provide the
+ * transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostCounterRepository {
+
+    private static final int IN_LIST_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param deltas vote increments keyed by comment id
+     */
+    public void addVotes(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        var now = LocalDateTime.now();
+        var commentBatch = new ArrayList<MapSqlParameterSource>(deltas.size());
+        deltas.forEach((id, delta) -> commentBatch.add(new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("delta", delta)
+                .addValue("now", now)));
+        jdbcTemplate.batchUpdate("UPDATE post_comment SET votes = COALESCE(votes, 0) + :delta, "
+                        + "version = version + 1, updated_at = :now WHERE id = :id",
+                commentBatch.toArray(MapSqlParameterSource[]::new));
+
+        var postDeltas = new HashMap<Long, PostDelta>();
+        for (var ids : partition(deltas.keySet())) {
+            jdbcTemplate.query("SELECT id, post_id FROM post_comment WHERE id IN (:ids) AND post_id IS NOT NULL",
+                    Map.of("ids", ids),
+                    rs -> {
+                        postDeltas.merge(rs.getLong("post_id"), new PostDelta(0, deltas.get(rs.getLong("id"))),
+                                PostDelta::plus);
+                    });
+        }
+        addToPosts(postDeltas);
+        eventPublisher.publishEvent(new EntitiesModifiedEvent(PostComment.class, List.copyOf(deltas.keySet())));
+    }
+
+    /**
+     * @param deltas comments and votes added (or removed, when negative) keyed by post id
+     */
+    public void addToPosts(Map<Long, PostDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        var now = LocalDateTime.now();
+        var batch = new ArrayList<MapSqlParameterSource>(deltas.size());
+        deltas.forEach((postId, delta) -> batch.add(new MapSqlParameterSource()
+                .addValue("id", postId)
+                .addValue("comments", delta.comments())
+                .addValue("votes", delta.votes())
+                .addValue("now", now)));
+        jdbcTemplate.batchUpdate("UPDATE post SET comment_count = comment_count + :comments, "
+                + "total_votes = total_votes + :votes, version = version + 1, updated_at = :now WHERE id = :id",
+                batch.toArray(MapSqlParameterSource[]::new));
+        eventPublisher.publishEvent(new EntitiesModifiedEvent(Post.class, List.copyOf(deltas.keySet())));
+    }
+
+    /**
+     * Recomputes the counters of one post from its comments, archived ones included.
+     */
+    public void recount(long postId) {
+        jdbcTemplate.update("""
+                UPDATE post SET
+                    comment_count = (SELECT COUNT(*) FROM post_comment c WHERE c.post_id = post.id)
+                        + (SELECT COUNT(*) FROM post_comment_archive a WHERE a.post_id = post.id),
+                    total_votes = (SELECT COALESCE(SUM(c.votes), 0) FROM post_comment c WHERE c.post_id = post.id)
+                        + (SELECT COALESCE(SUM(a.votes), 0) FROM post_comment_archive a WHERE a.post_id = post.id),
+                    version = version + 1,
+                    updated_at = :now
+                 WHERE id = :id
+                """, Map.of("id", postId, "now", LocalDateTime.now()));
+        eventPublisher.publishEvent(new EntitiesModifiedEvent(Post.class, List.of(postId)));
+    }
+
+    /**
+     * @return the post the comment belongs to in the database, which may differ from an entity being edited
+     */
+    public Optional<Long> postIdOf(long commentId) {
+        return jdbcTemplate.queryForList("SELECT post_id FROM post_comment WHERE id = :id AND post_id IS NOT NULL",
+                Map.of("id", commentId), Long.class).stream().findFirst();
+    }
+
+    /**
+     * @return the posts of the comment and of every reply below it, which a cascading delete removes too
+     */
+    public Set<Long> postIdsOfThread(long commentId) {
+        return new HashSet<>(jdbcTemplate.queryForList("""
+                WITH RECURSIVE thread(id, post_id) AS (
+                    SELECT id, post_id FROM post_comment WHERE id = :id
+                    UNION ALL
+                    SELECT c.id, c.post_id FROM post_comment c JOIN thread t ON c.parent_post_comment_id = t.id
+                )
+                SELECT DISTINCT post_id FROM thread WHERE post_id IS NOT NULL
+                """, Map.of("id", commentId), Long.class));
+    }
+
+    private static List<List<Long>> partition(Collection<Long> ids) {
+        var partitions = new ArrayList<List<Long>>();
+        var current = new ArrayList<Long>(Math.min(ids.size(), IN_LIST_SIZE));
+        for (Long id : ids) {
+            current.add(id);
+            if (current.size() == IN_LIST_SIZE) {
+                partitions.add(current);
+                current = new ArrayList<>(IN_LIST_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            partitions.add(current);
+        }
+        return partitions;
+    }
+
+    public record PostDelta(long comments, long votes) {
+
+        public PostDelta plus(PostDelta other) {
+            return new PostDelta(comments + other.comments, votes + other.votes);
+        }
+    }
+}
@@ -1,12 +1,43 @@
 package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
 
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+import java.util.Collection;
+import java.util.List;
+
+import static com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.NamedSpecification.named;
+import static java.lang.String.format;
 
 @RepositoryRestResource
 public interface PostRepository extends JpaRepository<Post, Long>, CrudRepository<Post, Long>,
         JpaSpecificationExecutor<Post> {
+
+    @EntityGraph("Post.withUser")
+    Page<Post> findByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query("select new com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostRow(p.id, p.user.id, p.title,"
+            + " p.content, p.createdAt, p.commentCount, p.totalVotes, p.updatedAt) from Post p where p.id in :ids")
+    List<PostRow> findPostRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface Specs {
+
+        static Specification<Post> byUserId(Long userId) {
+            return named(format("byUserId(%s)", userId), (root, query, builder) -> userId == null ? null :
+                    builder.equal(root.get("user").get("id"), userId));
+        }
+    }
+
 }
@@ -0,0 +1,126 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ReactiveProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.PostCommentResumeView;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.UsersResumeView;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostRow;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking reads over the tables the JPA repositories write, through R2DBC. Rows are pulled from the
+ * database only as fast as the subscriber requests them, so a slow client holds a connection of the pool
+ * but neither a thread nor the rest of the result.
+ * <p>
+ * The H2 driver runs the embedded engine on the thread that subscribes or requests, which would be a
+ * Netty event loop; the statements are moved to the bounded elastic scheduler, whose threads are taken
+ * only while rows are being read.
+ * <p>
+ * The pool is not a {@code ConnectionFactory} bean on purpose: one in the context would make Spring Boot
+ * skip the JDBC {@code DataSource} the rest of the application runs on.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "blog.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadRepository {
+
+    private static final String USERS = "SELECT id, first_name, last_name, email, age, version, updated_at FROM users";
+    private static final String POSTS =
+            "SELECT id, user_id, title, content, created_at, comment_count, total_votes, updated_at FROM post";
+    private static final String POST_COMMENTS =
+            "SELECT id, review, votes, status, version, updated_at FROM post_comment";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveReadRepository(ReactiveProperties properties, DataSourceProperties dataSourceProperties) {
+        var options = ConnectionFactoryOptions.parse(properties.url()).mutate()
+                .option(ConnectionFactoryOptions.USER, StringUtils.hasText(properties.username())
+                        ? properties.username() : dataSourceProperties.determineUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, StringUtils.hasText(properties.password())
+                        ? properties.password() : dataSourceProperties.determinePassword())
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive")
+                .initialSize(0)
+                .maxSize(properties.maxPoolSize())
+                .build());
+        this.databaseClient = DatabaseClient.create(pool);
+    }
+
+    @PreDestroy
+    void close() {
+        pool.dispose();
+    }
+
+    public Flux<UsersResumeView> users() {
+        return databaseClient.sql(USERS + " ORDER BY id")
+                .map(row -> new UsersResumeView(row.get("id", Long.class),
+                        row.get("first_name", String.class),
+                        row.get("last_name", String.class),
+                        row.get("email", String.class),
+                        row.get("age", Integer.class),
+                        row.get("version", Long.class),
+                        row.get("updated_at", LocalDateTime.class)))
+                .all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Flux<PostRow> posts(Long userId) {
+        var sql = POSTS + (userId == null ? "" : " WHERE user_id = :userId") + " ORDER BY id";
+        var spec = databaseClient.sql(sql);
+        if (userId != null) {
+            spec = spec.bind("userId", userId);
+        }
+        return spec.map(row -> new PostRow(row.get("id", Long.class),
+                        row.get("user_id", Long.class),
+                        row.get("title", String.class),
+                        row.get("content", String.class),
+                        row.get("created_at", LocalDateTime.class),
+                        row.get("comment_count", Long.class),
+                        row.get("total_votes", Long.class),
+                        row.get("updated_at", LocalDateTime.class)))
+                .all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * The live comments matching {@code filter}, with the same conditions the {@link PostCommentRepository.Specs}
+     * build from it, ordered by id.
+     */
+    public Flux<PostCommentResumeView> postComments(PostCommentFilter filter) {
+        var params = new MapSqlParameterSource();
+        var where = TieredPostCommentRepository.where(filter, params);
+        var spec = databaseClient.sql(POST_COMMENTS + (where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where))
+                + " ORDER BY id");
+        for (var param : params.getValues().entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec.map(ReactiveReadRepository::toPostCommentResume).all().subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static PostCommentResumeView toPostCommentResume(Readable row) {
+        // an ordinal column, TINYINT in H2, which the driver does not widen to Integer
+        var status = (Number) row.get("status");
+        return new PostCommentResumeView(row.get("id", Long.class),
+                row.get("review", String.class),
+                row.get("votes", Integer.class),
+                status == null ? null : CommentStatus.fromCode(status.intValue()),
+                row.get("version", Long.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,67 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Reads the indexed text columns with plain JDBC. The scans stream rows with a bounded fetch size and
+ * never enter a persistence context, so a full reindex neither holds entities nor locks rows.
+ */
+@Repository
+public class SearchableTextRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate streamingTemplate;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SearchableTextRepository(DataSource dataSource, NamedParameterJdbcTemplate jdbcTemplate) {
+        this.streamingTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void scanPosts(Consumer<PostText> consumer) {
+        streamingTemplate.query("SELECT id, title, content FROM post",
+                rs -> {
+                    consumer.accept(new PostText(rs.getLong("id"), rs.getString("title"), rs.getString("content")));
+                });
+    }
+
+    public void scanComments(Consumer<CommentText> consumer) {
+        streamingTemplate.query("SELECT id, post_id, review FROM post_comment",
+                rs -> {
+                    consumer.accept(new CommentText(rs.getLong("id"), rs.getObject("post_id", Long.class),
+                            rs.getString("review")));
+                });
+    }
+
+    public Set<Long> existingPostIds(Collection<Long> ids) {
+        return existing("SELECT id FROM post WHERE id IN (:ids)", ids);
+    }
+
+    public Set<Long> existingCommentIds(Collection<Long> ids) {
+        return existing("SELECT id FROM post_comment WHERE id IN (:ids)", ids);
+    }
+
+    private Set<Long> existing(String sql, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Map.of("ids", ids), Long.class));
+    }
+
+    public record PostText(long id, String title, String content) {
+    }
+
+    public record CommentText(long id, Long postId, String review) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostCommentRow;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Filtered reads over the live and the archived comments. The archive is read only when the filter's
+ * status and {@code createdFrom} can match something in it ({@link PostCommentArchiveRepository#mayContain});
+ * otherwise the statements touch {@code post_comment} alone, exactly as if nothing had been archived.
+ * <p>
+ * When both tables are read every branch carries the filter, so each one walks its own indexes, and
+ * a window takes at most {@code size + 1} rows from each side before merging them.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class TieredPostCommentRepository {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final String COLUMNS =
+            "id, post_id, user_id, parent_post_comment_id, review, votes, created_at, status";
+    private static final String LIVE = "post_comment";
+    private static final String ARCHIVE = "post_comment_archive";
+    private static final String BY_CREATED_AT = " ORDER BY created_at NULLS FIRST, id";
+    private static final String FIRST_ROWS = " FETCH FIRST :limit ROWS ONLY";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingTemplate;
+    private final PostCommentArchiveRepository archiveRepository;
+
+    public TieredPostCommentRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                       DataSource dataSource,
+                                       PostCommentArchiveRepository archiveRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.streamingTemplate.getJdbcTemplate().setFetchSize(FETCH_SIZE);
+        this.archiveRepository = archiveRepository;
+    }
+
+    public boolean includesArchive(PostCommentFilter filter) {
+        return archiveRepository.mayContain(filter.status(), filter.createdFrom());
+    }
+
+    /**
+     * Seek window over {@code (createdAt, id)}, forward only. Undated comments come first, as in
+     * {@link KeysetQueryExecutor}.
+     */
+    public KeysetWindow<PostCommentRow> findAfter(PostCommentFilter filter, Keyset after, int size) {
+        var params = new MapSqlParameterSource().addValue("limit", size + 1);
+        var where = where(filter, params);
+        if (after != null && after.createdAt() == null) {
+            where.add("(created_at IS NOT NULL OR id > :afterId)");
+            params.addValue("afterId", after.id());
+        } else if (after != null) {
+            where.add("(created_at > :afterCreatedAt OR (created_at = :afterCreatedAt AND id > :afterId))");
+            params.addValue("afterCreatedAt", after.createdAt()).addValue("afterId", after.id());
+        }
+
+        var live = select(LIVE, where) + BY_CREATED_AT + FIRST_ROWS;
+        var sql = !includesArchive(filter) ? live
+                : "SELECT " + COLUMNS + " FROM ((" + live + ") UNION ALL (" + select(ARCHIVE, where) + BY_CREATED_AT
+                + FIRST_ROWS + ")) c" + BY_CREATED_AT + FIRST_ROWS;
+        var rows = jdbcTemplate.query(sql, params, (rs, rowNum) -> toRow(rs));
+
+        var hasMore = rows.size() > size;
+        var content = hasMore ? rows.subList(0, size) : rows;
+        var last = content.isEmpty() ? null : content.get(content.size() - 1);
+        return new KeysetWindow<>(content, hasMore ? new Keyset(last.createdAt(), last.id()) : null, null);
+    }
+
+    /**
+     * The {@code limit} newest live comments of each post, ranked within the post in a single statement.
+     */
+    public List<PostCommentRow> findNewestByPostIdIn(Collection<Long> postIds, int limit) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM (SELECT " + COLUMNS + ", ROW_NUMBER() OVER"
+                        + " (PARTITION BY post_id ORDER BY created_at DESC, id DESC) AS rn FROM " + LIVE
+                        + " WHERE post_id = ANY(:postIds)) ranked WHERE rn <= :limit ORDER BY post_id, created_at DESC, id DESC",
+                new MapSqlParameterSource()
+                        .addValue("postIds", postIds.toArray(Long[]::new))
+                        .addValue("limit", limit),
+                (rs, rowNum) -> toRow(rs));
+    }
+
+    /**
+     * Every matching comment ordered by id, streamed with a bounded fetch size.
+     */
+    public void scan(PostCommentFilter filter, Consumer<PostCommentRow> consumer) {
+        var params = new MapSqlParameterSource();
+        var where = where(filter, params);
+        var sql = !includesArchive(filter) ? select(LIVE, where) + " ORDER BY id"
+                : "SELECT " + COLUMNS + " FROM (" + select(LIVE, where) + " UNION ALL " + select(ARCHIVE, where)
+                + ") c ORDER BY id";
+        streamingTemplate.query(sql, params, rs -> {
+            consumer.accept(toRow(rs));
+        });
+    }
+
+    /**
+     * Conditions of the {@link PostCommentRepository.Specs} a filter maps onto, as SQL over either table.
+     */
+    static List<String> where(PostCommentFilter filter, MapSqlParameterSource params) {
+        var conditions = new ArrayList<String>();
+        if (filter.postId() != null) {
+            conditions.add("post_id = :postId");
+            params.addValue("postId", filter.postId());
+        }
+        if (filter.userId() != null) {
+            conditions.add("user_id = :userId");
+            params.addValue("userId", filter.userId());
+        }
+        if (filter.status() != null) {
+            conditions.add("status = :status");
+            params.addValue("status", filter.status().getCode());
+        }
+        if (filter.minVotes() != null) {
+            conditions.add("votes >= :minVotes");
+            params.addValue("minVotes", filter.minVotes());
+        }
+        if (filter.review() != null && !filter.review().isBlank()) {
+            conditions.add("review LIKE :review");
+            params.addValue("review", filter.review());
+        }
+        if (filter.createdFrom() != null) {
+            conditions.add("created_at >= :createdFrom");
+            params.addValue("createdFrom", filter.createdFrom());
+        }
+        if (filter.createdTo() != null) {
+            conditions.add("created_at < :createdTo");
+            params.addValue("createdTo", filter.createdTo());
+        }
+        return conditions;
+    }
+
+    private static String select(String table, List<String> where) {
+        return "SELECT " + COLUMNS + " FROM " + table + (where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where));
+    }
+
+    private static PostCommentRow toRow(ResultSet rs) throws SQLException {
+        var status = rs.getObject("status", Integer.class);
+        return new PostCommentRow(rs.getLong("id"),
+                rs.getObject("post_id", Long.class),
+                rs.getObject("user_id", Long.class),
+                rs.getObject("parent_post_comment_id", Long.class),
+                rs.getString("review"),
+                rs.getObject("votes", Integer.class),
+                rs.getObject("created_at", LocalDateTime.class),
+                status == null ? null : CommentStatus.fromCode(status));
+    }
+}
@@ -1,12 +1,40 @@
 package com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories;
 
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.UsersResumeView;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.UserRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @RepositoryRestResource
 public interface UserRepository extends JpaRepository<User, Long>, CrudRepository<User, Long>,
         JpaSpecificationExecutor<User> {
+
+    String USERS_RESUME = "select new com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections"
+            + ".UsersResumeView(u.id, u.firstName, u.lastName, u.email, u.age, u.version, u.updatedAt) from User u";
+
+    @RestResource(exported = false)
+    @Query(value = USERS_RESUME, countQuery = "select count(u) from User u")
+    Page<UsersResumeView> findUsersResumeBy(Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query(USERS_RESUME + " where u.id = :id")
+    Optional<UsersResumeView> findUsersResumeById(@Param("id") Long id);
+
+    @RestResource(exported = false)
+    @Query("select new com.nosbielc.blogspringdatarest.infrastructure.web.dto.UserRow(u.id, u.firstName, u.lastName,"
+            + " u.email, u.age, u.updatedAt) from User u where u.id in :ids")
+    List<UserRow> findUserRowsByIdIn(@Param("ids") Collection<Long> ids);
+
 }
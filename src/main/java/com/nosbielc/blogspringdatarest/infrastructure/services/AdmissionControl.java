@@ -0,0 +1,216 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nosbielc.blogspringdatarest.infrastructure.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission of requests by estimated cost. Each client has a token bucket, kept as the theoretical arrival
+ * time of the generic cell rate algorithm in a single {@link AtomicLong}, so taking tokens is one
+ * compare-and-set and never blocks. Each resource then has {@code resource-capacity} units in flight at
+ * most; a request waits for its units in arrival order for up to {@code queue-target}, and is shed past it.
+ */
+@Service
+@ConditionalOnProperty(prefix = "blog.admission", name = "enabled", havingValue = "true")
+public class AdmissionControl {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AdmissionProperties properties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, AtomicLong> buckets;
+    private final long interval;
+    private final long tolerance;
+    private final Map<Class<?>, Integer> depths = new ConcurrentHashMap<>();
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    public AdmissionControl(AdmissionProperties properties,
+                            EntityManagerFactory entityManagerFactory,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.entityManagerFactory = entityManagerFactory;
+        this.meterRegistry = meterRegistry;
+        this.interval = NANOS_PER_SECOND / properties.clientRate();
+        this.tolerance = interval * properties.clientBurst();
+        // a bucket idle for this long is full again, forgetting it changes nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(Duration.ofNanos(tolerance).plusSeconds(1))
+                .build();
+    }
+
+    /**
+     * Units for {@code items} items of {@code domainType}: every level of to-one associations rendered
+     * with an item adds its weight again, a projection reads the item's own columns only.
+     */
+    public int cost(Class<?> domainType, int items, boolean projected) {
+        long weight = projected ? 1 : 1 + depth(domainType);
+        long units = (items * weight + properties.itemsPerUnit() - 1) / properties.itemsPerUnit();
+        return (int) Math.max(1, Math.min(units, Math.min(properties.clientBurst(), properties.resourceCapacity())));
+    }
+
+    /**
+     * Takes {@code cost} units from the client's bucket, then from the resource's capacity, waiting for the
+     * latter up to {@code queue-target}. The returned admission must be closed once the response is done.
+     */
+    public Admission admit(String client, String resource, int cost) throws InterruptedException {
+        var limit = limits.computeIfAbsent(resource, this::limit);
+
+        var bucket = buckets.get(client, key -> new AtomicLong(System.nanoTime()));
+        long wait = take(bucket, cost);
+        if (wait > 0) {
+            limit.shedByRate().increment();
+            return Admission.rejected(HttpStatus.TOO_MANY_REQUESTS, Duration.ofNanos(wait));
+        }
+
+        // a timed attempt, unlike tryAcquire(cost), does not overtake requests already waiting
+        if (!limit.permits().tryAcquire(cost, 0, TimeUnit.NANOSECONDS)) {
+            limit.queued().increment();
+            long start = System.nanoTime();
+            boolean acquired = limit.permits().tryAcquire(cost, properties.queueTarget().toNanos(), TimeUnit.NANOSECONDS);
+            limit.queueTime().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                // the client was not served, give its tokens back
+                bucket.addAndGet(-cost * interval);
+                limit.shedByOverload().increment();
+                return Admission.rejected(HttpStatus.SERVICE_UNAVAILABLE, properties.queueTarget());
+            }
+        }
+        limit.admitted().increment();
+        return Admission.admitted(limit.permits(), cost);
+    }
+
+    /**
+     * @return nanoseconds until the bucket can pay {@code cost}, or 0 once paid
+     */
+    private long take(AtomicLong bucket, int cost) {
+        long now = System.nanoTime();
+        long increment = cost * interval;
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + increment;
+            long wait = next - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private int depth(Class<?> domainType) {
+        return depths.computeIfAbsent(domainType, type ->
+                depth(entityManagerFactory.getMetamodel().entity(type), new HashSet<>(Set.of(type))));
+    }
+
+    /**
+     * Longest chain of to-one associations, each entity type counted once per chain.
+     */
+    private static int depth(EntityType<?> type, Set<Class<?>> path) {
+        int deepest = 0;
+        for (var attribute : type.getSingularAttributes()) {
+            if (attribute.isAssociation() && attribute.getType() instanceof EntityType<?> target
+                    && path.add(target.getJavaType())) {
+                deepest = Math.max(deepest, 1 + depth(target, path));
+                path.remove(target.getJavaType());
+            }
+        }
+        return deepest;
+    }
+
+    private Limit limit(String resource) {
+        var permits = new Semaphore(properties.resourceCapacity(), true);
+        Gauge.builder("blog.admission.in-flight", permits, semaphore -> properties.resourceCapacity() - semaphore.availablePermits())
+                .description("Cost units of the admitted requests still running")
+                .tag("resource", resource)
+                .register(meterRegistry);
+        return new Limit(permits,
+                counter("blog.admission.admitted", "Requests admitted", resource),
+                counter("blog.admission.queued", "Requests that waited for capacity", resource),
+                Counter.builder("blog.admission.shed").description("Requests refused")
+                        .tag("resource", resource).tag("reason", "rate").register(meterRegistry),
+                Counter.builder("blog.admission.shed").description("Requests refused")
+                        .tag("resource", resource).tag("reason", "overload").register(meterRegistry),
+                Timer.builder("blog.admission.queue").description("Time spent waiting for capacity")
+                        .tag("resource", resource).register(meterRegistry));
+    }
+
+    private Counter counter(String name, String description, String resource) {
+        return Counter.builder(name).description(description).tag("resource", resource).register(meterRegistry);
+    }
+
+    private record Limit(Semaphore permits, Counter admitted, Counter queued, Counter shedByRate,
+                         Counter shedByOverload, Timer queueTime) {
+    }
+
+    /**
+     * Either admitted, holding its units until closed, or rejected with the status and the time after which
+     * a retry may succeed.
+     */
+    public static final class Admission implements AutoCloseable {
+
+        private final Semaphore permits;
+        private final int units;
+        private final HttpStatus rejection;
+        private final Duration retryAfter;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Admission(Semaphore permits, int units, HttpStatus rejection, Duration retryAfter) {
+            this.permits = permits;
+            this.units = units;
+            this.rejection = rejection;
+            this.retryAfter = retryAfter;
+        }
+
+        static Admission admitted(Semaphore permits, int units) {
+            return new Admission(permits, units, null, Duration.ZERO);
+        }
+
+        static Admission rejected(HttpStatus status, Duration retryAfter) {
+            return new Admission(null, 0, status, retryAfter);
+        }
+
+        public boolean admitted() {
+            return rejection == null;
+        }
+
+        public HttpStatus rejection() {
+            return rejection;
+        }
+
+        /**
+         * Whole seconds, rounded up, as {@code Retry-After} wants them.
+         */
+        public long retryAfterSeconds() {
+            return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        }
+
+        @Override
+        public void close() {
+            if (permits != null && released.compareAndSet(false, true)) {
+                permits.release(units);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.BatchProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.TieredPostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.BatchRequest;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.CompoundDocument;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostCommentRow;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostRow;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.UserRow;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Resolves a {@link BatchRequest} with one IN-list statement per resource type, whatever the number of
+ * ids: the comments asked for, then every post needed, then the newest comments of the posts asked for,
+ * then every user needed. Each statement reads flat rows, so no association is loaded behind it and the
+ * request costs at most four statements.
+ */
+@Service
+public class BatchReadService {
+
+    private static final String USER = "user";
+    private static final String POST = "post";
+    private static final String COMMENTS = "comments";
+    private static final String COMMENTS_USER = "comments.user";
+    private static final Set<String> INCLUDES = Set.of(USER, POST, COMMENTS, COMMENTS_USER);
+
+    private final PostRepository postRepository;
+    private final PostCommentRepository postCommentRepository;
+    private final TieredPostCommentRepository tieredPostCommentRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchProperties properties;
+
+    public BatchReadService(PostRepository postRepository,
+                            PostCommentRepository postCommentRepository,
+                            TieredPostCommentRepository tieredPostCommentRepository,
+                            UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            BatchProperties properties) {
+        this.postRepository = postRepository;
+        this.postCommentRepository = postCommentRepository;
+        this.tieredPostCommentRepository = tieredPostCommentRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    public CompoundDocument read(BatchRequest request) {
+        var include = validate(request);
+        return transactionTemplate.execute(status -> resolve(request, include));
+    }
+
+    private Set<String> validate(BatchRequest request) {
+        int ids = request.posts().size() + request.postComments().size() + request.users().size();
+        if (ids == 0) {
+            throw new IllegalArgumentException("Informe ao menos um id em posts, postComments ou users");
+        }
+        if (ids > properties.maxIds()) {
+            throw new IllegalArgumentException(format("No máximo %d ids por requisição; recebidos %d",
+                    properties.maxIds(), ids));
+        }
+        var include = new LinkedHashSet<String>();
+        for (var value : request.include()) {
+            for (var name : value.split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                if (!INCLUDES.contains(name.trim())) {
+                    throw new IllegalArgumentException(format("include desconhecido: %s; aceitos: %s", name.trim(),
+                            String.join(", ", INCLUDES.stream().sorted().toList())));
+                }
+                include.add(name.trim());
+            }
+        }
+        // as in JSON:API, a relation path includes every resource along it
+        if (include.contains(COMMENTS_USER)) {
+            include.add(COMMENTS);
+        }
+        return include;
+    }
+
+    private CompoundDocument resolve(BatchRequest request, Set<String> include) {
+        var commentIds = distinct(request.postComments());
+        var postIds = distinct(request.posts());
+        var userIds = distinct(request.users());
+
+        var comments = commentIds.isEmpty() ? Map.<Long, PostCommentRow>of()
+                : byId(postCommentRepository.findPostCommentRowsByIdIn(commentIds), PostCommentRow::id);
+
+        var neededPosts = new LinkedHashSet<>(postIds);
+        if (include.contains(POST)) {
+            comments.values().forEach(comment -> add(neededPosts, comment.postId()));
+        }
+        var posts = neededPosts.isEmpty() ? Map.<Long, PostRow>of()
+                : byId(postRepository.findPostRowsByIdIn(neededPosts), PostRow::id);
+
+        var postComments = include.contains(COMMENTS) && !postIds.isEmpty()
+                ? tieredPostCommentRepository.findNewestByPostIdIn(postIds, properties.commentsPerPost())
+                : List.<PostCommentRow>of();
+
+        var neededUsers = new LinkedHashSet<>(userIds);
+        if (include.contains(USER)) {
+            postIds.forEach(id -> {
+                var post = posts.get(id);
+                if (post != null) {
+                    add(neededUsers, post.userId());
+                }
+            });
+            comments.values().forEach(comment -> add(neededUsers, comment.userId()));
+        }
+        if (include.contains(COMMENTS_USER)) {
+            postComments.forEach(comment -> add(neededUsers, comment.userId()));
+        }
+        var users = neededUsers.isEmpty() ? Map.<Long, UserRow>of()
+                : byId(userRepository.findUserRowsByIdIn(neededUsers), UserRow::id);
+
+        var data = new CompoundDocument.Resources(pick(postIds, posts), pick(commentIds, comments),
+                pick(userIds, users));
+        var includedPosts = posts.values().stream().filter(post -> !postIds.contains(post.id())).toList();
+        var includedComments = postComments.stream().filter(comment -> !commentIds.contains(comment.id())).toList();
+        var includedUsers = users.values().stream().filter(user -> !userIds.contains(user.id())).toList();
+        return new CompoundDocument(data,
+                new CompoundDocument.Resources(includedPosts, includedComments, includedUsers));
+    }
+
+    private static Set<Long> distinct(List<Long> ids) {
+        var distinct = new LinkedHashSet<Long>();
+        ids.stream().filter(Objects::nonNull).forEach(distinct::add);
+        return distinct;
+    }
+
+    private static void add(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private static <T> Map<Long, T> byId(List<T> rows, Function<T, Long> id) {
+        var byId = new LinkedHashMap<Long, T>();
+        rows.forEach(row -> byId.put(id.apply(row), row));
+        return byId;
+    }
+
+    /**
+     * Rows in the order the ids were asked for; ids that do not exist are left out.
+     */
+    private static <T> List<T> pick(Collection<Long> ids, Map<Long, T> rows) {
+        return ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,115 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ArchiveProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentArchiveRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.ArchiveResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves cold comments to the archive in batches of {@code blog.archive.batch-size}, one transaction per
+ * batch, until none is left. Runs every {@code blog.archive.interval} when {@code blog.archive.enabled},
+ * or on demand; only one run at a time.
+ */
+@Slf4j
+@Service
+public class CommentArchiver {
+
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "comment-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final PostCommentArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties properties;
+    private final Timer runTimer;
+    private final Counter archivedCounter;
+
+    public CommentArchiver(PostCommentArchiveRepository archiveRepository,
+                           PlatformTransactionManager transactionManager,
+                           ArchiveProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.runTimer = Timer.builder("blog.archive.run")
+                .description("Time to move every archivable comment out of the live table")
+                .register(meterRegistry);
+        this.archivedCounter = Counter.builder("blog.archive.comments")
+                .description("Comments moved to the archive")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (properties.enabled()) {
+            long interval = properties.interval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::archiveQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(properties.interval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Archives every comment archivable at the start of the run. A failed batch is rolled back and the
+     * run stops; the comments moved by earlier batches stay archived.
+     */
+    public ArchiveResult archive() {
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("Arquivamento de comentários já em andamento");
+        }
+        long start = System.nanoTime();
+        try {
+            var now = LocalDateTime.now();
+            var cutoff = now.minus(properties.maxAge());
+            int batches = 0;
+            long archived = 0;
+            while (true) {
+                Integer moved = transactionTemplate.execute(status -> archiveRepository.move(
+                        archiveRepository.findArchivable(cutoff, properties.statuses(), now, properties.batchSize()),
+                        cutoff, properties.statuses(), now));
+                if (moved == null || moved == 0) {
+                    break;
+                }
+                batches++;
+                archived += moved;
+                archivedCounter.increment(moved);
+            }
+            return new ArchiveResult(batches, archived, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            runLock.unlock();
+        }
+    }
+
+    private void archiveQuietly() {
+        try {
+            var result = archive();
+            if (result.archived() > 0) {
+                log.info("{} comentários arquivados em {} ms", result.archived(), result.elapsedMillis());
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao arquivar comentários; nova tentativa no próximo ciclo", e);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nosbielc.blogspringdatarest.infrastructure.config.IngestionProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.BulkPostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.QueuedComment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Accept-and-queue path for comments: requests only validate and enqueue, a single writer thread
+ * stores the queue in batches through {@link PostCommentBulkService#write}, so posts and users are
+ * referenced instead of loaded. The writer wakes up when a batch is full or after
+ * {@code blog.ingestion.flush-interval}.
+ * <p>
+ * A failed batch is retried comment by comment, so one bad row only fails its own tracking id.
+ * On shutdown the queue stops accepting and the writer empties it before the persistence layer goes.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "blog.ingestion", name = "enabled", havingValue = "true")
+public class CommentIngestionQueue {
+
+    private final BlockingQueue<Entry> queue;
+    private final Cache<UUID, QueuedComment> tracking;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private final Thread writer = new Thread(this::drainLoop, "comment-ingestion-writer");
+    private volatile boolean accepting = true;
+
+    private final PostCommentBulkService postCommentBulkService;
+    private final IngestionProperties properties;
+    private final Timer flushTimer;
+    private final Counter rejected;
+    private final Counter written;
+    private final Counter failed;
+
+    public CommentIngestionQueue(PostCommentBulkService postCommentBulkService,
+                                 IngestionProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.postCommentBulkService = postCommentBulkService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        // ids stay resolvable for a while after the write, bounded so a flood cannot keep them all
+        this.tracking = Caffeine.newBuilder()
+                .expireAfterWrite(properties.trackingRetention())
+                .maximumSize(properties.queueCapacity() * 10L)
+                .build();
+
+        Gauge.builder("blog.ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Comments accepted and not yet written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("blog.ingestion.flush")
+                .description("Time to write one batch of queued comments")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("blog.ingestion.rejected")
+                .description("Comments refused because the queue was full")
+                .register(meterRegistry);
+        this.written = comments(meterRegistry, "written");
+        this.failed = comments(meterRegistry, "failed");
+        writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * @throws IllegalArgumentException   when the comment is incomplete
+     * @throws RejectedExecutionException when the queue is full
+     * @throws StoppedException          when the application is stopping
+     */
+    public QueuedComment submit(BulkPostComment comment) {
+        validate(comment);
+
+        var queued = QueuedComment.queued(UUID.randomUUID());
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new StoppedException();
+            }
+            tracking.put(queued.trackingId(), queued);
+            if (!queue.offer(new Entry(queued.trackingId(), comment))) {
+                tracking.invalidate(queued.trackingId());
+                rejected.increment();
+                throw new RejectedExecutionException("Fila de comentários cheia, tente novamente em instantes");
+            }
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+
+        if (queue.size() >= properties.batchSize()) {
+            LockSupport.unpark(writer);
+        }
+        return queued;
+    }
+
+    public Optional<QueuedComment> status(UUID trackingId) {
+        return Optional.ofNullable(tracking.getIfPresent(trackingId));
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    /**
+     * Writes every queued comment, one transaction per batch.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            var batch = new ArrayList<Entry>(properties.batchSize());
+            while (queue.drainTo(batch, properties.batchSize()) > 0) {
+                flushTimer.record(() -> write(batch));
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+
+        LockSupport.unpark(writer);
+        writer.join(properties.shutdownTimeout().toMillis());
+        if (writer.isAlive()) {
+            log.warn("Escrita de comentários não terminou em {}; {} comentários ainda na fila",
+                    properties.shutdownTimeout(), queue.size());
+        }
+    }
+
+    private void drainLoop() {
+        long interval = properties.flushInterval().toNanos();
+        while (accepting) {
+            long deadline = System.nanoTime() + interval;
+            long remaining;
+            while (accepting && queue.size() < properties.batchSize()
+                    && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            flushQuietly();
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar comentários da fila", e);
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        try {
+            var ids = postCommentBulkService.write(batch.stream().map(Entry::comment).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                var commentId = ids.get(i);
+                tracking.asMap().computeIfPresent(batch.get(i).trackingId(), (id, queued) -> queued.written(commentId));
+            }
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                log.warn("Falha ao gravar lote de {} comentários, gravando um a um", batch.size(), e);
+                batch.forEach(entry -> write(List.of(entry)));
+                return;
+            }
+            log.warn("Comentário {} descartado", batch.get(0).trackingId(), e);
+            var error = isConstraintViolation(e)
+                    ? "Post, usuário ou comentário pai inexistente"
+                    : "Falha ao gravar comentário";
+            tracking.asMap().computeIfPresent(batch.get(0).trackingId(), (id, queued) -> queued.failed(error));
+            failed.increment();
+        }
+    }
+
+    /**
+     * The bulk writer flushes the {@code EntityManager} itself, so constraint violations arrive
+     * untranslated.
+     */
+    private static boolean isConstraintViolation(Throwable e) {
+        for (var cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException || cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void validate(BulkPostComment comment) {
+        if (comment == null || comment.postId() == null || comment.userId() == null) {
+            throw new IllegalArgumentException("postId e userId são obrigatórios");
+        }
+        if (!StringUtils.hasText(comment.review())) {
+            throw new IllegalArgumentException("review é obrigatório");
+        }
+        if (comment.votes() != null && comment.votes() < 0) {
+            throw new IllegalArgumentException("votes não pode ser negativo");
+        }
+    }
+
+    private static Counter comments(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("blog.ingestion.comments")
+                .description("Queued comments by outcome of their write")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Entry(UUID trackingId, BulkPostComment comment) {
+    }
+
+    /**
+     * The queue no longer accepts comments because the application is stopping.
+     */
+    public static class StoppedException extends IllegalStateException {
+
+        StoppedException() {
+            super("Fila de comentários encerrada");
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.StatisticsProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.StatisticsChanges;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.StatisticsScope;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.events.EntitiesModifiedEvent;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.CommentStatisticsRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.CommentStatistics;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.StatisticsRebuildResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Comment counts by status, votes and top commenters per post and per user, served from aggregate tables.
+ * <p>
+ * Writes only record their changes ({@link StatisticsChanges}), applied every
+ * {@code blog.statistics.refresh-interval}. Comments written through Hibernate arrive as per-row deltas
+ * that are added to the aggregate rows, so a refresh costs as much as the rows that changed, however
+ * many comments their owners have. Votes and moderation, written with plain JDBC, only name the comments
+ * they touched, whose posts and users are recomputed. Reads lag writes by up to one interval.
+ * <p>
+ * {@link #rebuild()} recomputes everything from scratch in id ranges, several ranges at a time, each in
+ * its own transaction. Refreshes wait for a running rebuild; the deltas recorded meanwhile may already
+ * be counted by it, so their owners are recomputed instead.
+ */
+@Slf4j
+@Service
+public class CommentStatisticsService {
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "comment-statistics-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final CommentStatisticsRepository commentStatisticsRepository;
+    private final StatisticsChanges changes;
+    private final TransactionTemplate transactionTemplate;
+    private final StatisticsProperties properties;
+    private final Timer refreshTimer;
+
+    public CommentStatisticsService(CommentStatisticsRepository commentStatisticsRepository,
+                                    StatisticsChanges changes,
+                                    PlatformTransactionManager transactionManager,
+                                    StatisticsProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.commentStatisticsRepository = commentStatisticsRepository;
+        this.changes = changes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.refreshTimer = Timer.builder("blog.statistics.refresh")
+                .description("Time to recompute the statistics of the posts and users whose comments changed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        long interval = properties.refreshInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(properties.refreshInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+        refreshQuietly();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        if (properties.rebuildOnStartup()) {
+            var result = rebuild();
+            log.info("Estatísticas de comentários reconstruídas em {} ms ({} faixas)",
+                    result.elapsedMillis(), result.chunks());
+        }
+    }
+
+    /**
+     * Votes and moderation are written with plain JDBC and only publish the comment ids.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void entitiesModified(EntitiesModifiedEvent event) {
+        if (event.type() == PostComment.class) {
+            changes.commentsChanged(event.ids());
+        }
+    }
+
+    public Optional<CommentStatistics> forPost(long postId) {
+        return find(StatisticsScope.POST, postId);
+    }
+
+    public Optional<CommentStatistics> forUser(long userId) {
+        return find(StatisticsScope.USER, userId);
+    }
+
+    /**
+     * Applies the changes recorded since the last refresh. Changes are kept for the next refresh if
+     * this one fails.
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            var pending = changes.drain();
+            if (pending.isEmpty()) {
+                return;
+            }
+            Owners recomputed;
+            try {
+                recomputed = refreshTimer.record(() -> transactionTemplate.execute(status -> {
+                    var posts = new HashSet<>(pending.posts());
+                    var users = new HashSet<>(pending.users());
+                    commentStatisticsRepository.ownersOfComments(pending.comments(), posts, users);
+                    users.addAll(commentStatisticsRepository.authorsOf(posts));
+                    commentStatisticsRepository.refreshPosts(posts);
+                    commentStatisticsRepository.refreshUsers(users);
+                    commentStatisticsRepository.add(pending.deltas(), posts, users);
+                    return new Owners(posts, users);
+                }));
+            } catch (RuntimeException e) {
+                changes.restore(pending);
+                throw e;
+            }
+            // deltas of comments that committed while their owner was being recomputed
+            changes.recomputeInstead(row -> recomputed.posts().contains(row.postId())
+                    || recomputed.users().contains(row.userId()));
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes the statistics of every post and user. Only one rebuild runs at a time.
+     */
+    public StatisticsRebuildResult rebuild() {
+        if (!rebuildLock.tryLock()) {
+            throw new IllegalStateException("Reconstrução das estatísticas já em andamento");
+        }
+        long start = System.nanoTime();
+        var sequence = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(properties.rebuildParallelism(), runnable -> {
+            var thread = new Thread(runnable, "comment-statistics-rebuild-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshLock.lock();
+        try {
+            var postRange = commentStatisticsRepository.idRange(StatisticsScope.POST);
+            var userRange = commentStatisticsRepository.idRange(StatisticsScope.USER);
+            var tasks = new ArrayList<Callable<Void>>();
+            chunks(postRange, commentStatisticsRepository::rebuildPosts, tasks);
+            chunks(userRange, commentStatisticsRepository::rebuildUsers, tasks);
+
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                commentStatisticsRepository.deleteOutside(StatisticsScope.POST, postRange);
+                commentStatisticsRepository.deleteOutside(StatisticsScope.USER, userRange);
+            });
+            changes.recomputeInstead(row -> true);
+            return new StatisticsRebuildResult(tasks.size(), properties.rebuildParallelism(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconstrução das estatísticas interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Falha ao reconstruir as estatísticas", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            refreshLock.unlock();
+            rebuildLock.unlock();
+        }
+    }
+
+    private Optional<CommentStatistics> find(StatisticsScope scope, long id) {
+        if (!commentStatisticsRepository.exists(scope, id)) {
+            return Optional.empty();
+        }
+
+        var byStatus = new LinkedHashMap<CommentStatus, Long>();
+        for (var status : CommentStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        long comments = 0;
+        long votes = 0;
+        for (var count : commentStatisticsRepository.findStatusCounts(scope, id)) {
+            comments += count.comments();
+            votes += count.votes();
+            if (count.status() >= 0) {
+                byStatus.merge(CommentStatus.fromCode(count.status()), count.comments(), Long::sum);
+            }
+        }
+        return Optional.of(new CommentStatistics(scope, id, comments, votes,
+                comments == 0 ? 0 : (double) votes / comments, byStatus,
+                commentStatisticsRepository.findTopCommenters(scope, id, properties.topCommenters())));
+    }
+
+    private void chunks(long[] range, RangeRebuild rebuild, List<Callable<Void>> tasks) {
+        if (range == null) {
+            return;
+        }
+        for (long from = range[0]; from <= range[1]; from += properties.rebuildChunkSize()) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(range[1], from + properties.rebuildChunkSize() - 1);
+            tasks.add(() -> {
+                transactionTemplate.executeWithoutResult(status -> rebuild.rebuild(chunkFrom, chunkTo));
+                return null;
+            });
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Falha ao atualizar as estatísticas de comentários; nova tentativa no próximo ciclo", e);
+        }
+    }
+
+    private record Owners(Set<Long> posts, Set<Long> users) {
+    }
+
+    @FunctionalInterface
+    private interface RangeRebuild {
+        void rebuild(long from, long to);
+    }
+}
@@ -0,0 +1,400 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosbielc.blogspringdatarest.infrastructure.config.StreamingProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.CollectionStreamingRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Writes a page of a collection resource in the same HAL shape Spring Data REST renders, but item by
+ * item while the JDBC result set scrolls, instead of building the whole {@code PagedModel} and its
+ * per-item {@code Link} objects first. Heap stays flat whatever the page size and the first bytes leave
+ * as soon as the first row is read.
+ * <p>
+ * The attributes and association links of each collection are declared here rather than derived from
+ * the mapping metadata; links are rendered from templates computed once per request, so an item costs
+ * its field values and nothing else. Page metadata and navigation links follow the items, and the count
+ * query runs only when the page itself does not reveal the total.
+ */
+@Service
+public class HalStreamWriter {
+
+    private static final SerializedString EMBEDDED = new SerializedString("_embedded");
+    private static final SerializedString LINKS = new SerializedString("_links");
+    private static final SerializedString SELF = new SerializedString("self");
+    private static final SerializedString HREF = new SerializedString("href");
+    private static final SerializedString TEMPLATED = new SerializedString("templated");
+    private static final String PROJECTION = "{?projection}";
+
+    private static final Map<String, StreamedCollection> COLLECTIONS = Map.of(
+            "posts", new StreamedCollection("posts", "post", List.of(
+                    new Attribute("title", "title", ValueType.STRING),
+                    new Attribute("content", "content", ValueType.STRING),
+                    new Attribute("createdAt", "created_at", ValueType.TIMESTAMP),
+                    new Attribute("commentCount", "comment_count", ValueType.LONG),
+                    new Attribute("totalVotes", "total_votes", ValueType.LONG),
+                    new Attribute("updatedAt", "updated_at", ValueType.TIMESTAMP)), List.of(
+                    new Association("post", "", false),
+                    new Association("user", "/user", true),
+                    new Association("comments", "/comments", true))),
+            "postComments", new StreamedCollection("postComments", "post_comment", List.of(
+                    new Attribute("review", "review", ValueType.STRING),
+                    new Attribute("votes", "votes", ValueType.INTEGER),
+                    new Attribute("createdAt", "created_at", ValueType.TIMESTAMP),
+                    new Attribute("updatedAt", "updated_at", ValueType.TIMESTAMP),
+                    new Attribute("status", "status", ValueType.COMMENT_STATUS)), List.of(
+                    new Association("postComment", "", true),
+                    new Association("childPostComments", "/childPostComments", true),
+                    new Association("post", "/post", false),
+                    new Association("parentPostComment", "/parentPostComment", true),
+                    new Association("user", "/user", true))));
+
+    private final CollectionStreamingRepository collectionStreamingRepository;
+    private final RepositoryRestConfiguration repositoryRestConfiguration;
+    private final StreamingProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public HalStreamWriter(CollectionStreamingRepository collectionStreamingRepository,
+                           RepositoryRestConfiguration repositoryRestConfiguration,
+                           StreamingProperties properties,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager) {
+        this.collectionStreamingRepository = collectionStreamingRepository;
+        this.repositoryRestConfiguration = repositoryRestConfiguration;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Validates the request before the response is committed; {@code sort} may use the streamed
+     * attributes other than the long texts.
+     */
+    public StreamedPage page(String collection, Integer page, Integer size, Sort sort) {
+        var streamed = COLLECTIONS.get(collection);
+        if (streamed == null) {
+            throw new IllegalArgumentException(format("Coleção sem modo streaming: %s", collection));
+        }
+        int number = page == null || page < 0 ? 0 : page;
+        int pageSize = size == null || size <= 0 ? repositoryRestConfiguration.getDefaultPageSize()
+                : Math.min(size, properties.maxPageSize());
+        return new StreamedPage(streamed, number, pageSize, orderBy(streamed, sort));
+    }
+
+    /**
+     * @param baseUri    absolute URI of the REST base path, e.g. {@code http://host/api/v1}
+     * @param requestUri the current request, from which the navigation links are derived
+     */
+    public void write(StreamedPage page, String baseUri, UriComponentsBuilder requestUri, OutputStream output)
+            throws IOException {
+        var collection = page.collection();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeFieldName(EMBEDDED);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart(collection.rel());
+
+            var items = new ItemWriter(generator, collection, baseUri + "/" + collection.rel() + "/");
+            long total;
+            try {
+                total = readOnlyTransaction.execute(status -> {
+                    collectionStreamingRepository.scan(collection.table(), collection.columns(), page.orderBy(),
+                            page.offset(), page.size(), items::write);
+                    return total(page, items.written);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+            writeLinks(generator, page, total, baseUri, requestUri);
+            writePage(generator, page, total);
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Same shortcut as Spring Data's paging: a short non-empty page, or an empty first one, tells the
+     * total without counting.
+     */
+    private long total(StreamedPage page, long written) {
+        if (written > 0 && written < page.size() || written == 0 && page.offset() == 0) {
+            return page.offset() + written;
+        }
+        return collectionStreamingRepository.count(page.collection().table());
+    }
+
+    private static void writeLinks(JsonGenerator generator, StreamedPage page, long total, String baseUri,
+                                   UriComponentsBuilder requestUri) throws IOException {
+        int pages = totalPages(page, total);
+        boolean hasPrevious = page.number() > 0;
+        boolean hasNext = page.number() + 1 < pages;
+
+        generator.writeFieldName(LINKS);
+        generator.writeStartObject();
+        if (hasPrevious || hasNext) {
+            writeLink(generator, "first", pageUri(requestUri, 0, page.size()));
+        }
+        if (hasPrevious) {
+            writeLink(generator, "prev", pageUri(requestUri, page.number() - 1, page.size()));
+        }
+        writeLink(generator, "self", requestUri.build().toUriString());
+        if (hasNext) {
+            writeLink(generator, "next", pageUri(requestUri, page.number() + 1, page.size()));
+        }
+        if (hasPrevious || hasNext) {
+            writeLink(generator, "last", pageUri(requestUri, Math.max(pages - 1, 0), page.size()));
+        }
+        writeLink(generator, "profile", baseUri + "/profile/" + page.collection().rel());
+        writeLink(generator, "search", baseUri + "/" + page.collection().rel() + "/search");
+        generator.writeEndObject();
+    }
+
+    private static void writeLink(JsonGenerator generator, String rel, String href) throws IOException {
+        generator.writeObjectFieldStart(rel);
+        generator.writeStringField("href", href);
+        generator.writeEndObject();
+    }
+
+    private static String pageUri(UriComponentsBuilder requestUri, int number, int size) {
+        return requestUri.cloneBuilder()
+                .replaceQueryParam("page", number)
+                .replaceQueryParam("size", size)
+                .build().toUriString();
+    }
+
+    private static void writePage(JsonGenerator generator, StreamedPage page, long total) throws IOException {
+        generator.writeObjectFieldStart("page");
+        generator.writeNumberField("size", page.size());
+        generator.writeNumberField("totalElements", total);
+        generator.writeNumberField("totalPages", totalPages(page, total));
+        generator.writeNumberField("number", page.number());
+        generator.writeEndObject();
+    }
+
+    private static int totalPages(StreamedPage page, long total) {
+        return (int) ((total + page.size() - 1) / page.size());
+    }
+
+    private static String orderBy(StreamedCollection collection, Sort sort) {
+        var clauses = new ArrayList<String>();
+        boolean byId = false;
+        for (var order : sort == null ? Sort.unsorted() : sort) {
+            var column = collection.sortable().get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException(format("Ordenação não suportada em streaming: %s; aceitas: %s",
+                        order.getProperty(), String.join(", ", collection.sortable().keySet())));
+            }
+            clauses.add(column + (order.isDescending() ? " DESC" : ""));
+            byId |= column.equals("id");
+        }
+        // id breaks ties so consecutive pages neither repeat nor skip rows
+        if (!byId) {
+            clauses.add("id");
+        }
+        return String.join(", ", clauses);
+    }
+
+    public record StreamedPage(StreamedCollection collection, int number, int size, String orderBy) {
+
+        long offset() {
+            return (long) number * size;
+        }
+    }
+
+    /**
+     * Renders one row as a HAL item. Field names are pre-encoded and hrefs are built in a reused buffer
+     * from the item prefix, the id and the association suffix.
+     */
+    private static final class ItemWriter {
+
+        private final JsonGenerator generator;
+        private final StreamedCollection collection;
+        private final StringBuilder href;
+        private final int prefixLength;
+        private char[] chars = new char[256];
+        private long written;
+
+        private ItemWriter(JsonGenerator generator, StreamedCollection collection, String itemPrefix) {
+            this.generator = generator;
+            this.collection = collection;
+            this.href = new StringBuilder(itemPrefix);
+            this.prefixLength = itemPrefix.length();
+        }
+
+        void write(ResultSet rs) throws SQLException {
+            try {
+                long id = rs.getLong(1);
+                generator.writeStartObject();
+                var attributes = collection.attributes();
+                for (int i = 0; i < attributes.size(); i++) {
+                    var attribute = attributes.get(i);
+                    generator.writeFieldName(attribute.name());
+                    attribute.type().write(generator, rs, i + 2);
+                }
+                generator.writeFieldName(LINKS);
+                generator.writeStartObject();
+                writeItemLink(SELF, id, "", false);
+                for (var association : collection.associations()) {
+                    writeItemLink(association.rel(), id, association.suffix(), association.templated());
+                }
+                generator.writeEndObject();
+                generator.writeEndObject();
+                written++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeItemLink(SerializableString rel, long id, String suffix, boolean templated)
+                throws IOException {
+            href.setLength(prefixLength);
+            href.append(id).append(suffix);
+            int length = href.length();
+            if (chars.length < length) {
+                chars = new char[length * 2];
+            }
+            href.getChars(0, length, chars, 0);
+
+            generator.writeFieldName(rel);
+            generator.writeStartObject();
+            generator.writeFieldName(HREF);
+            generator.writeString(chars, 0, length);
+            if (templated) {
+                generator.writeFieldName(TEMPLATED);
+                generator.writeBoolean(true);
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private record StreamedCollection(String rel, String table, List<Attribute> attributes,
+                                      List<Association> associations, List<String> columns,
+                                      Map<String, String> sortable) {
+
+        StreamedCollection(String rel, String table, List<Attribute> attributes, List<Association> associations) {
+            this(rel, table, attributes, associations, columns(attributes), sortable(attributes));
+        }
+
+        private static List<String> columns(List<Attribute> attributes) {
+            var columns = new ArrayList<String>();
+            columns.add("id");
+            attributes.forEach(attribute -> columns.add(attribute.column()));
+            return List.copyOf(columns);
+        }
+
+        private static Map<String, String> sortable(List<Attribute> attributes) {
+            var sortable = new LinkedHashMap<String, String>();
+            sortable.put("id", "id");
+            attributes.stream()
+                    .filter(attribute -> !attribute.column().equals("content") && !attribute.column().equals("review"))
+                    .forEach(attribute -> sortable.put(attribute.name().getValue(), attribute.column()));
+            return sortable;
+        }
+    }
+
+    private record Attribute(SerializedString name, String column, ValueType type) {
+
+        Attribute(String name, String column, ValueType type) {
+            this(new SerializedString(name), column, type);
+        }
+    }
+
+    private record Association(SerializedString rel, String suffix, boolean templated) {
+
+        Association(String rel, String path, boolean templated) {
+            this(new SerializedString(rel), templated ? path + PROJECTION : path, templated);
+        }
+    }
+
+    /**
+     * Column readers matching how Jackson renders the entity attributes.
+     */
+    private enum ValueType {
+
+        STRING {
+            @Override
+            void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+                var value = rs.getString(index);
+                if (value == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(value);
+                }
+            }
+        },
+        LONG {
+            @Override
+            void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+                long value = rs.getLong(index);
+                if (rs.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(value);
+                }
+            }
+        },
+        INTEGER {
+            @Override
+            void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+                int value = rs.getInt(index);
+                if (rs.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(value);
+                }
+            }
+        },
+        TIMESTAMP {
+            @Override
+            void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+                var value = rs.getObject(index, LocalDateTime.class);
+                if (value == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+                }
+            }
+        },
+        COMMENT_STATUS {
+            @Override
+            void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException {
+                int value = rs.getInt(index);
+                if (rs.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(CommentStatus.fromCode(value).name());
+                }
+            }
+        };
+
+        abstract void write(JsonGenerator generator, ResultSet rs, int index) throws SQLException, IOException;
+    }
+}
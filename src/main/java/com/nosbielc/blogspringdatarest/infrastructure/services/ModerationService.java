@@ -0,0 +1,87 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ModerationProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.ModerationRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.ModerationBatch;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.StatusTransition;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.StatusTransitionResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+@Service
+@RequiredArgsConstructor
+public class ModerationService {
+
+    private static final Set<CommentStatus> TARGETS =
+            EnumSet.of(CommentStatus.APPROVED, CommentStatus.REJECTED, CommentStatus.SPAM);
+    private static final int CLAIM_ATTEMPTS = 3;
+
+    private final ModerationRepository moderationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ModerationProperties properties;
+
+    /**
+     * Leases up to {@code requested} of the oldest pending comments to {@code moderator}. Candidates
+     * taken by a concurrent moderator in the meantime are replaced by the next ones, a few times at most,
+     * so the batch may come back short while the queue is contended.
+     */
+    public ModerationBatch claim(String moderator, Integer requested) {
+        if (!StringUtils.hasText(moderator)) {
+            throw new IllegalArgumentException("moderator é obrigatório");
+        }
+
+        int size = size(requested);
+        // truncated to what the column keeps, the lease end identifies this batch
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        var until = now.plus(properties.claimTimeout());
+
+        int claimed = 0;
+        for (int attempt = 0; attempt < CLAIM_ATTEMPTS && claimed < size; attempt++) {
+            int missing = size - claimed;
+            Integer leased = transactionTemplate.execute(status -> {
+                var candidates = moderationRepository.findClaimable(missing, now);
+                return candidates.isEmpty() ? null : moderationRepository.claim(candidates, moderator, now, until);
+            });
+            if (leased == null) {
+                break;
+            }
+            claimed += leased;
+        }
+
+        return new ModerationBatch(moderator, until, moderationRepository.findClaimed(moderator, until));
+    }
+
+    public StatusTransitionResult transition(StatusTransition transition) {
+        if (transition == null || transition.status() == null || !TARGETS.contains(transition.status())) {
+            throw new IllegalArgumentException(format("status deve ser um de %s", TARGETS));
+        }
+        if (transition.ids() == null || transition.ids().isEmpty() || transition.ids().contains(null)) {
+            throw new IllegalArgumentException("ids é obrigatório e não pode conter nulos");
+        }
+        if (transition.ids().size() > properties.maxTransitionSize()) {
+            throw new IllegalArgumentException(format("No máximo %s ids por transição", properties.maxTransitionSize()));
+        }
+
+        var ids = new LinkedHashSet<>(transition.ids());
+        Integer updated = transactionTemplate.execute(status -> moderationRepository.transition(ids, transition.status()));
+        return new StatusTransitionResult(transition.status(), ids.size(), updated == null ? 0 : updated);
+    }
+
+    private int size(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return properties.defaultBatchSize();
+        }
+        return Math.min(requested, properties.maxBatchSize());
+    }
+}
@@ -0,0 +1,128 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.nosbielc.blogspringdatarest.infrastructure.config.BulkProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.events.CollectionCacheEventHandler;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCounterRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCounterRepository.PostDelta;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.SearchableTextRepository.CommentText;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.BulkImportResult;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.BulkPostComment;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes NDJSON comment dumps in chunked transactions. Associations are resolved by reference,
+ * so no {@link Post} or {@link User} is loaded while importing.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostCommentBulkService {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BulkProperties properties;
+    private final CollectionCacheEventHandler collectionCacheEventHandler;
+    private final PostCounterRepository postCounterRepository;
+    private final SearchIndex searchIndex;
+
+    public BulkImportResult importNdjson(InputStream input) throws IOException {
+        long start = System.nanoTime();
+        long inserted = 0;
+        int chunks = 0;
+
+        try (MappingIterator<BulkPostComment> rows = objectMapper.readerFor(BulkPostComment.class).readValues(input)) {
+            while (rows.hasNext()) {
+                var indexed = new ArrayList<CommentText>(properties.chunkSize());
+                Long written = transactionTemplate.execute(status -> writeChunk(rows, indexed));
+                searchIndex.indexComments(indexed);
+                inserted += written == null ? 0 : written;
+                chunks++;
+            }
+        } catch (RuntimeJsonMappingException e) {
+            throw new IllegalArgumentException("Linha NDJSON inválida após " + inserted + " registros", e);
+        } finally {
+            collectionCacheEventHandler.evictCommentCollections();
+        }
+
+        return new BulkImportResult(inserted, chunks, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Writes the rows in a single transaction, whatever {@code blog.bulk.chunk-size} says.
+     *
+     * @return ids of the new comments, in the order of the rows
+     */
+    public List<Long> write(List<BulkPostComment> rows) {
+        var indexed = new ArrayList<CommentText>(rows.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                var iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writeChunk(iterator, indexed);
+                }
+            });
+        } finally {
+            collectionCacheEventHandler.evictCommentCollections();
+        }
+        searchIndex.indexComments(indexed);
+        return indexed.stream().map(CommentText::id).toList();
+    }
+
+    private long writeChunk(Iterator<BulkPostComment> rows, List<CommentText> indexed) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(properties.batchSize());
+
+        var postDeltas = new HashMap<Long, PostDelta>();
+        long written = 0;
+        while (written < properties.chunkSize() && rows.hasNext()) {
+            var row = rows.next();
+            var comment = toEntity(row);
+            entityManager.persist(comment);
+            indexed.add(new CommentText(comment.getId(), row.postId(), row.review()));
+            postDeltas.merge(row.postId(), new PostDelta(1, row.votes() == null ? 0 : row.votes()), PostDelta::plus);
+            if (++written % properties.batchSize() == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        postCounterRepository.addToPosts(postDeltas);
+        return written;
+    }
+
+    private PostComment toEntity(BulkPostComment row) {
+        if (row.postId() == null || row.userId() == null) {
+            throw new IllegalArgumentException("postId e userId são obrigatórios");
+        }
+
+        return PostComment.builder()
+                .withPost(entityManager.getReference(Post.class, row.postId()))
+                .withUser(entityManager.getReference(User.class, row.userId()))
+                .withParentPostComment(row.parentPostCommentId() == null ? null
+                        : entityManager.getReference(PostComment.class, row.parentPostCommentId()))
+                .withReview(row.review())
+                .withVotes(row.votes() == null ? 0 : row.votes())
+                .withCreatedAt(row.createdAt() == null ? LocalDateTime.now() : row.createdAt())
+                .withStatus(row.status() == null ? CommentStatus.PENDING_APPROVAL : row.status())
+                .build();
+    }
+}
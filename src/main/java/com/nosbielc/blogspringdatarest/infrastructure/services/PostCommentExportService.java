@@ -0,0 +1,117 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentFilter;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.TieredPostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostCommentRow;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams filtered comments straight to an output stream. Rows are read with plain JDBC and written one
+ * at a time, so memory stays flat regardless of how many rows match; archived comments are included
+ * when the filter reaches them.
+ */
+@Service
+public class PostCommentExportService {
+
+    private static final String CSV_HEADER = "id,postId,userId,parentPostCommentId,review,votes,createdAt,status";
+
+    private final TieredPostCommentRepository tieredPostCommentRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PostCommentExportService(TieredPostCommentRepository tieredPostCommentRepository,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.tieredPostCommentRepository = tieredPostCommentRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void exportNdjson(PostCommentFilter filter, OutputStream output) throws IOException {
+        var rowWriter = objectMapper.writerFor(PostCommentRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            export(filter, row -> {
+                rowWriter.writeValue(generator, row);
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    public void exportCsv(PostCommentFilter filter, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        export(filter, row -> writeCsv(writer, row));
+        writer.flush();
+    }
+
+    private void export(PostCommentFilter filter, RowConsumer consumer) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> tieredPostCommentRepository.scan(filter, row -> {
+                try {
+                    consumer.accept(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeCsv(Writer writer, PostCommentRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(nullable(row.postId()));
+        writer.write(',');
+        writer.write(nullable(row.userId()));
+        writer.write(',');
+        writer.write(nullable(row.parentPostCommentId()));
+        writer.write(',');
+        writer.write(escape(row.review()));
+        writer.write(',');
+        writer.write(nullable(row.votes()));
+        writer.write(',');
+        writer.write(nullable(row.createdAt()));
+        writer.write(',');
+        writer.write(nullable(row.status()));
+        writer.write('\n');
+    }
+
+    private static String nullable(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(PostCommentRow row) throws IOException;
+    }
+}
@@ -0,0 +1,53 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.CommentTreeProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.CommentTreeRow;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentTreeRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.CommentNode;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.CommentTree;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+@Service
+@RequiredArgsConstructor
+public class PostCommentTreeService {
+
+    private final PostRepository postRepository;
+    private final PostCommentTreeRepository postCommentTreeRepository;
+    private final CommentTreeProperties properties;
+
+    public CommentTree loadTree(long postId, Long rootId, Integer depth, Integer limit) {
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post não encontrado: " + postId);
+        }
+
+        int maxDepth = depth == null ? properties.maxDepth() : Math.max(0, Math.min(depth, properties.maxDepth()));
+        int maxNodes = limit == null ? properties.defaultNodes() : Math.max(1, Math.min(limit, properties.maxNodes()));
+
+        var rows = postCommentTreeRepository.findThread(postId, rootId, maxDepth, maxNodes + 1);
+        var truncated = rows.size() > maxNodes;
+        if (truncated) {
+            rows = rows.subList(0, maxNodes);
+        }
+
+        // rows come level by level, so a reply's parent has always been seen already
+        var nodes = new HashMap<Long, CommentNode>(rows.size() * 4 / 3 + 1);
+        var roots = new ArrayList<CommentNode>();
+        for (CommentTreeRow row : rows) {
+            var node = CommentNode.of(row);
+            nodes.put(row.id(), node);
+            if (row.depth() == 0) {
+                roots.add(node);
+            } else {
+                nodes.get(row.parentPostCommentId()).replies().add(node);
+            }
+        }
+
+        return new CommentTree(postId, rootId, maxDepth, maxNodes, rows.size(), truncated, roots);
+    }
+}
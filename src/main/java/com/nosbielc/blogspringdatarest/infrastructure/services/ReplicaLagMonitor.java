@@ -0,0 +1,117 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ReplicaProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@code blog.replica.heartbeat-interval} stamps the heartbeat row on the primary and reads the
+ * replica's copy back; the age of that copy is the replication lag, published as {@code blog.replica.lag}.
+ * A replica that keeps up still shows about one interval, the copy read being the previous heartbeat.
+ * The replica serves reads only while the lag is known and within {@code blog.replica.max-lag}; until the
+ * first heartbeat comes back, or when the replica cannot be read, everything goes to the primary.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "blog.replica", name = "enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+
+    private static final int HEARTBEAT_ID = 1;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaProperties properties;
+    private volatile Duration lag;
+
+    public ReplicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                             @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                             ReplicaProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.properties = properties;
+        Gauge.builder("blog.replica.lag", this, monitor -> monitor.lag == null ? Double.NaN : monitor.lag.toMillis())
+                .description("Age of the heartbeat read from the replica, in milliseconds")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        long interval = properties.heartbeatInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(properties.heartbeatInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean replicaUsable() {
+        var current = lag;
+        return current != null && current.compareTo(properties.maxLag()) <= 0;
+    }
+
+    /**
+     * Writes a new heartbeat and measures the lag from the replica's copy; a replica that cannot be read
+     * leaves the lag unknown.
+     */
+    public void refresh() {
+        var now = LocalDateTime.now();
+        if (primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = ?", now, HEARTBEAT_ID) == 0) {
+            primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (?, ?)", HEARTBEAT_ID, now);
+        }
+
+        boolean wasUsable = replicaUsable();
+        try {
+            var beats = replica.queryForList("SELECT beat_at FROM replica_heartbeat WHERE id = ?",
+                    LocalDateTime.class, HEARTBEAT_ID);
+            lag = beats.isEmpty() ? null : max(Duration.between(beats.get(0), now), Duration.ZERO);
+        } catch (DataAccessException e) {
+            lag = null;
+            if (wasUsable) {
+                log.warn("Réplica ilegível, leituras voltam ao primário", e);
+            }
+            return;
+        }
+        if (wasUsable != replicaUsable()) {
+            log.info(replicaUsable() ? "Réplica em dia (atraso {} ms), leituras somente leitura vão para a réplica"
+                    : "Réplica atrasada ({} ms), leituras voltam ao primário", lag == null ? -1 : lag.toMillis());
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            lag = null;
+            log.error("Falha ao medir o atraso da réplica; leituras ficam no primário até o próximo ciclo", e);
+        }
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -0,0 +1,105 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nosbielc.blogspringdatarest.infrastructure.config.RepresentationCacheProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.events.EntitiesModifiedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.rest.core.event.AfterDeleteEvent;
+import org.springframework.data.rest.core.event.AfterLinkDeleteEvent;
+import org.springframework.data.rest.core.event.AfterLinkSaveEvent;
+import org.springframework.data.rest.core.event.AfterSaveEvent;
+import org.springframework.data.rest.core.event.RepositoryEvent;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialized item resources, headers included, per entity and {@code Accept} variant. Entries are dropped
+ * on every Spring Data REST write event and on {@link EntitiesModifiedEvent}, so a cached body always
+ * carries the current version in its {@code ETag}.
+ * <p>
+ * A response rendered while an eviction ran may already be stale; {@link #generation()} lets the caller
+ * detect that and {@link #put} then keeps it out of the cache.
+ */
+@Component
+public class RepresentationCache {
+
+    private final Cache<EntityKey, Map<String, Representation>> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final EntityManagerFactory entityManagerFactory;
+
+    public RepresentationCache(RepresentationCacheProperties properties,
+                               EntityManagerFactory entityManagerFactory,
+                               MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .recordStats()
+                .build();
+        this.entityManagerFactory = entityManagerFactory;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "representations");
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public Representation get(Class<?> type, Object id, String variant) {
+        var variants = cache.getIfPresent(new EntityKey(type, id));
+        return variants == null ? null : variants.get(variant);
+    }
+
+    /**
+     * @param seenGeneration {@link #generation()} read before the representation was rendered
+     */
+    public void put(Class<?> type, Object id, String variant, Representation representation, long seenGeneration) {
+        // evictions bump the generation before removing, so checking inside compute cannot miss one
+        cache.asMap().compute(new EntityKey(type, id), (key, variants) -> {
+            if (seenGeneration != generation.get()) {
+                return variants;
+            }
+            var updated = variants == null ? new ConcurrentHashMap<String, Representation>() : variants;
+            updated.put(variant, representation);
+            return updated;
+        });
+    }
+
+    public void evict(Class<?> type, Object id) {
+        generation.incrementAndGet();
+        cache.invalidate(new EntityKey(type, id));
+    }
+
+    @EventListener({AfterSaveEvent.class, AfterLinkSaveEvent.class, AfterLinkDeleteEvent.class})
+    public void entityChanged(RepositoryEvent event) {
+        var entity = event.getSource();
+        evict(Hibernate.getClass(entity), entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity));
+    }
+
+    /**
+     * Deletes cascade to posts and comments, whose ids are not known here.
+     */
+    @EventListener
+    public void entityDeleted(AfterDeleteEvent event) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void entitiesModified(EntitiesModifiedEvent event) {
+        event.ids().forEach(id -> evict(event.type(), id));
+    }
+
+    public record Representation(HttpHeaders headers, byte[] body) {
+    }
+
+    private record EntityKey(Class<?> type, Object id) {
+    }
+}
@@ -0,0 +1,431 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.SearchProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.SearchableTextRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.SearchableTextRepository.CommentText;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.SearchableTextRepository.PostText;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.ReindexResult;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.SearchHit;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.SearchResults;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lucene index over post titles and contents and comment reviews, ranked with BM25. Writes are applied
+ * when the repository events arrive and become searchable through a near-real-time reader refresh. They
+ * are committed to the directory only every {@code blog.search.commit-interval} and on shutdown: a commit
+ * fsyncs the segment files, far too costly for every write. After a crash the index may miss the last
+ * interval's writes, which {@link #reindex()} restores.
+ * <p>
+ * {@link #reindex()} builds a second index from a streaming scan while writes keep going to the current
+ * one. Changes made in the meantime are queued and replayed onto the new index right before it replaces
+ * the old one, so neither writes nor searches wait for the scan.
+ * <p>
+ * Deleting a user or a comment cascades to rows the index does not know about; search results are
+ * therefore checked against the database before they are returned.
+ */
+@Slf4j
+@Component
+public class SearchIndex {
+
+    public static final String POST = "post";
+    public static final String COMMENT = "comment";
+
+    private static final String TYPE = "type";
+    private static final String KEY = "key";
+    private static final String ID = "id";
+    private static final String POST_ID = "postId";
+    private static final String[] TEXT_FIELDS = {"title", "content", "review"};
+    private static final int FRAGMENTS = 3;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final ReentrantLock reindexLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "search-index-commit");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SearchableTextRepository searchableTextRepository;
+    private final SearchProperties properties;
+
+    private Index current;
+    private volatile Queue<Change> pending;
+
+    public SearchIndex(SearchableTextRepository searchableTextRepository, SearchProperties properties) {
+        this.searchableTextRepository = searchableTextRepository;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        current = openLatest();
+        long interval = properties.commitInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::commit, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(properties.commitInterval().toMillis(), TimeUnit.MILLISECONDS);
+        swapLock.writeLock().lock();
+        try {
+            current.writer().commit();
+            current.close();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void reindexOnStartup() {
+        if (properties.reindexOnStartup()) {
+            var result = reindex();
+            log.info("Índice de busca reconstruído: {} posts e {} comentários em {} ms",
+                    result.posts(), result.comments(), result.elapsedMillis());
+        }
+    }
+
+    public void index(PostText post) {
+        apply(writer -> writer.updateDocument(key(POST, post.id()), document(post)));
+    }
+
+    public void index(CommentText comment) {
+        apply(writer -> writer.updateDocument(key(COMMENT, comment.id()), document(comment)));
+    }
+
+    public void indexComments(Collection<CommentText> comments) {
+        if (!comments.isEmpty()) {
+            apply(writer -> {
+                for (var comment : comments) {
+                    writer.updateDocument(key(COMMENT, comment.id()), document(comment));
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes the post and the comments it cascades to.
+     */
+    public void deletePost(long id) {
+        apply(writer -> writer.deleteDocuments(key(POST, id), new Term(POST_ID, String.valueOf(id))));
+    }
+
+    public void deleteComment(long id) {
+        apply(writer -> writer.deleteDocuments(key(COMMENT, id)));
+    }
+
+    /**
+     * @param text  Lucene query syntax over {@code title}, {@code content} and {@code review}
+     * @param type  {@link #POST}, {@link #COMMENT} or {@code null} for both
+     * @param limit number of hits, capped by {@code blog.search.max-results}
+     */
+    public SearchResults search(String text, String type, Integer limit) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Informe o texto da busca");
+        }
+        if (type != null && !POST.equals(type) && !COMMENT.equals(type)) {
+            throw new IllegalArgumentException("Tipo de busca desconhecido: " + type);
+        }
+
+        Query query;
+        try {
+            query = new MultiFieldQueryParser(TEXT_FIELDS, analyzer).parse(text);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Consulta de busca inválida: " + text, e);
+        }
+        var filtered = new BooleanQuery.Builder().add(query, BooleanClause.Occur.MUST);
+        if (type != null) {
+            filtered.add(new TermQuery(new Term(TYPE, type)), BooleanClause.Occur.FILTER);
+        }
+        int size = limit == null ? properties.defaultResults() : Math.max(1, Math.min(limit, properties.maxResults()));
+
+        long totalHits;
+        var hits = new ArrayList<SearchHit>(size);
+        swapLock.readLock().lock();
+        try {
+            var searchers = current.searchers();
+            var searcher = searchers.acquire();
+            try {
+                var top = searcher.search(filtered.build(), size);
+                var highlighter = new Highlighter(new SimpleHTMLFormatter("<em>", "</em>"), new SimpleHTMLEncoder(),
+                        new QueryScorer(query));
+                var storedFields = searcher.storedFields();
+                for (var scoreDoc : top.scoreDocs) {
+                    var document = storedFields.document(scoreDoc.doc);
+                    hits.add(new SearchHit(document.get(TYPE), document.getField(ID).numericValue().longValue(),
+                            scoreDoc.score, highlights(highlighter, document)));
+                }
+                totalHits = top.totalHits.value;
+            } finally {
+                searchers.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao consultar o índice de busca", e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+
+        return new SearchResults(text, totalHits, existing(hits));
+    }
+
+    /**
+     * Rebuilds the index from the database. Only one rebuild runs at a time.
+     */
+    public ReindexResult reindex() {
+        if (!reindexLock.tryLock()) {
+            throw new IllegalStateException("Reindexação já em andamento");
+        }
+        long start = System.nanoTime();
+        Index fresh = null;
+        try {
+            pending = new ConcurrentLinkedQueue<>();
+            fresh = create();
+            var writer = fresh.writer();
+            long[] counts = new long[2];
+            searchableTextRepository.scanPosts(post -> {
+                add(writer, document(post));
+                counts[0]++;
+            });
+            searchableTextRepository.scanComments(comment -> {
+                add(writer, document(comment));
+                counts[1]++;
+            });
+
+            Index previous;
+            swapLock.writeLock().lock();
+            try {
+                for (var change : pending) {
+                    change.applyTo(writer);
+                }
+                // the previous directory is deleted below, the new one must hold everything on disk
+                writer.commit();
+                fresh.refresh();
+                previous = current;
+                current = fresh;
+                pending = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            discard(previous);
+            return new ReindexResult(counts[0], counts[1], (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao reconstruir o índice de busca", e);
+        } finally {
+            pending = null;
+            if (fresh != null && fresh != current) {
+                discard(fresh);
+            }
+            reindexLock.unlock();
+        }
+    }
+
+    /**
+     * Also refreshes the searchers, in case a write's own refresh was skipped because another was under way.
+     */
+    private void commit() {
+        swapLock.readLock().lock();
+        try {
+            current.writer().commit();
+            current.refresh();
+        } catch (IOException | RuntimeException e) {
+            log.error("Falha ao gravar o índice de busca", e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index failures never fail the write that triggered them; a {@link #reindex()} repairs the index.
+     */
+    private void apply(Change change) {
+        swapLock.readLock().lock();
+        try {
+            change.applyTo(current.writer());
+            current.refresh();
+            var queue = pending;
+            if (queue != null) {
+                queue.add(change);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Falha ao atualizar o índice de busca; execute a reindexação", e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private List<SearchHit> existing(List<SearchHit> hits) {
+        var postIds = hits.stream().filter(hit -> POST.equals(hit.type())).map(SearchHit::id).toList();
+        var commentIds = hits.stream().filter(hit -> COMMENT.equals(hit.type())).map(SearchHit::id).toList();
+        var existingPosts = searchableTextRepository.existingPostIds(postIds);
+        var existingComments = searchableTextRepository.existingCommentIds(commentIds);
+        return hits.stream()
+                .filter(hit -> POST.equals(hit.type()) ? existingPosts.contains(hit.id()) : existingComments.contains(hit.id()))
+                .toList();
+    }
+
+    private Map<String, List<String>> highlights(Highlighter highlighter, Document document) throws IOException {
+        var highlights = new LinkedHashMap<String, List<String>>();
+        for (var field : TEXT_FIELDS) {
+            var value = document.get(field);
+            if (value == null) {
+                continue;
+            }
+            try {
+                var fragments = highlighter.getBestFragments(analyzer, field, value, FRAGMENTS);
+                if (fragments.length > 0) {
+                    highlights.put(field, List.of(fragments));
+                }
+            } catch (InvalidTokenOffsetsException e) {
+                throw new IllegalStateException("Falha ao destacar o campo " + field, e);
+            }
+        }
+        return highlights;
+    }
+
+    private static Document document(PostText post) {
+        var document = document(POST, post.id());
+        text(document, "title", post.title());
+        text(document, "content", post.content());
+        return document;
+    }
+
+    private static Document document(CommentText comment) {
+        var document = document(COMMENT, comment.id());
+        if (comment.postId() != null) {
+            document.add(new StringField(POST_ID, String.valueOf(comment.postId()), Field.Store.NO));
+        }
+        text(document, "review", comment.review());
+        return document;
+    }
+
+    private static Document document(String type, long id) {
+        var document = new Document();
+        document.add(new StringField(TYPE, type, Field.Store.YES));
+        document.add(new StringField(KEY, type + ":" + id, Field.Store.NO));
+        document.add(new StoredField(ID, id));
+        return document;
+    }
+
+    private static void text(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.YES));
+        }
+    }
+
+    private static Term key(String type, long id) {
+        return new Term(KEY, type + ":" + id);
+    }
+
+    private static void add(IndexWriter writer, Document document) {
+        try {
+            writer.addDocument(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Index openLatest() throws IOException {
+        if (properties.directory() == null) {
+            return create();
+        }
+        Files.createDirectories(properties.directory());
+        try (var children = Files.list(properties.directory())) {
+            var latest = children
+                    .filter(path -> path.getFileName().toString().startsWith("index-"))
+                    .max(Path::compareTo);
+            return latest.isPresent() ? Index.open(FSDirectory.open(latest.get()), latest.get(), analyzer) : create();
+        }
+    }
+
+    private Index create() throws IOException {
+        if (properties.directory() == null) {
+            return Index.open(new ByteBuffersDirectory(), null, analyzer);
+        }
+        var path = properties.directory().resolve("index-" + System.currentTimeMillis());
+        return Index.open(FSDirectory.open(path), path, analyzer);
+    }
+
+    private static void discard(Index index) {
+        try {
+            index.close();
+            if (index.path() != null) {
+                FileSystemUtils.deleteRecursively(index.path());
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao descartar o índice de busca anterior", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Change {
+        void applyTo(IndexWriter writer) throws IOException;
+    }
+
+    private record Index(Directory directory, Path path, IndexWriter writer, SearcherManager searchers) {
+
+        static Index open(Directory directory, Path path, Analyzer analyzer) throws IOException {
+            var writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            writer.commit();
+            return new Index(directory, path, writer, new SearcherManager(writer, null));
+        }
+
+        // never blocks: a refresh already under way or the next scheduled one picks the change up
+        void refresh() throws IOException {
+            searchers.maybeRefresh();
+        }
+
+        void close() throws IOException {
+            IOUtils.close(searchers, writer, directory);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.nosbielc.blogspringdatarest.infrastructure.services;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.VoteProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCounterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Aggregates vote increments in memory and writes them as batched relative updates, so hot comments
+ * never see a read-modify-write cycle on their row.
+ * <p>
+ * Each pending comment owns a {@link Counter}. A flush drains counters in place and retires the ones
+ * that stayed idle; a writer that meets a retired counter simply installs a new one, so no increment
+ * is lost between a drain and a removal.
+ */
+@Slf4j
+@Component
+public class VoteBuffer {
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "vote-buffer-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final PostCounterRepository postCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final VoteProperties properties;
+
+    public VoteBuffer(PostCounterRepository postCounterRepository,
+                      PlatformTransactionManager transactionManager,
+                      VoteProperties properties) {
+        this.postCounterRepository = postCounterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() {
+        long interval = properties.flushInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void add(long commentId, long delta) {
+        while (!counters.computeIfAbsent(commentId, id -> new Counter()).tryAdd(delta)) {
+            Thread.onSpinWait();
+        }
+        if (counters.size() >= properties.flushThreshold() && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flushQuietly);
+        }
+    }
+
+    public long pending() {
+        return counters.size();
+    }
+
+    /**
+     * Writes every pending increment. Increments are put back into the buffer if the write fails.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            var drained = drain();
+            if (drained.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> postCounterRepository.addVotes(drained));
+            } catch (RuntimeException e) {
+                drained.forEach(this::add);
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(properties.flushInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    private Map<Long, Long> drain() {
+        var drained = new HashMap<Long, Long>();
+        counters.forEach((commentId, counter) -> {
+            long delta = counter.drain();
+            if (delta != 0) {
+                drained.put(commentId, delta);
+            } else if (counter.retire()) {
+                counters.remove(commentId, counter);
+            }
+        });
+        return drained;
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar votos pendentes; nova tentativa no próximo ciclo", e);
+        }
+    }
+
+    /**
+     * Pending delta of one comment. {@link #RETIRED} marks a counter already removed from the buffer.
+     */
+    private static final class Counter extends AtomicLong {
+
+        private static final long RETIRED = Long.MIN_VALUE;
+
+        boolean tryAdd(long delta) {
+            long current;
+            do {
+                current = get();
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!compareAndSet(current, current + delta));
+            return true;
+        }
+
+        long drain() {
+            long current;
+            do {
+                current = get();
+                if (current == RETIRED) {
+                    return 0;
+                }
+            } while (!compareAndSet(current, 0));
+            return current;
+        }
+
+        boolean retire() {
+            return compareAndSet(0, RETIRED);
+        }
+    }
+}
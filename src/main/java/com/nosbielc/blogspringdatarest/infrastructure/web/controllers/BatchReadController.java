@@ -0,0 +1,32 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.services.BatchReadService;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.BatchRequest;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.CompoundDocument;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.BasePathAwareController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * Several resources of several types in one round trip, e.g.
+ * {@code GET /batch?posts=1,2&postComments=7&include=user,comments}, instead of one item request per id
+ * followed by one request per association link.
+ */
+@BasePathAwareController
+@RequiredArgsConstructor
+public class BatchReadController {
+
+    private final BatchReadService batchReadService;
+
+    @GetMapping("/batch")
+    public ResponseEntity<CompoundDocument> batch(BatchRequest request) {
+        return ResponseEntity.ok(batchReadService.read(request));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
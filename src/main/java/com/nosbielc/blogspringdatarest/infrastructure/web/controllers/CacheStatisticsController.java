@@ -0,0 +1,37 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.CacheRegionStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.BasePathAwareController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+@BasePathAwareController
+@RequiredArgsConstructor
+public class CacheStatisticsController {
+
+    private final CacheManager hibernateCacheManager;
+
+    @GetMapping("/cacheStatistics")
+    public ResponseEntity<List<CacheRegionStatistics>> statistics() {
+        var regions = StreamSupport.stream(hibernateCacheManager.getCacheNames().spliterator(), false)
+                .sorted()
+                .map(this::statistics)
+                .toList();
+
+        return ResponseEntity.ok(regions);
+    }
+
+    private CacheRegionStatistics statistics(String region) {
+        var cache = hibernateCacheManager.getCache(region).unwrap(Cache.class);
+        var stats = cache.stats();
+
+        return new CacheRegionStatistics(region, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate());
+    }
+}
@@ -0,0 +1,63 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.Keyset;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentFilter;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.TieredPostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.CommentArchiver;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.ArchiveResult;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostCommentWindow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Archived comments are no longer item resources; they stay readable as rows through the history
+ * window, which only reads the archive when the filter reaches it.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class CommentArchiveController {
+
+    private final CommentArchiver commentArchiver;
+    private final TieredPostCommentRepository tieredPostCommentRepository;
+    private final RepositoryRestConfiguration repositoryRestConfiguration;
+
+    @GetMapping("/postComments/history")
+    public ResponseEntity<PostCommentWindow> history(PostCommentFilter filter,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(required = false) Integer size) {
+        var window = tieredPostCommentRepository.findAfter(filter, after == null ? null : Keyset.decode(after),
+                size(size));
+        return ResponseEntity.ok(new PostCommentWindow(window.content(),
+                window.next() == null ? null : window.next().encode(),
+                tieredPostCommentRepository.includesArchive(filter)));
+    }
+
+    @PostMapping("/postComments/archive")
+    public ResponseEntity<ArchiveResult> archive() {
+        return ResponseEntity.ok(commentArchiver.archive());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> conflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    private int size(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return repositoryRestConfiguration.getDefaultPageSize();
+        }
+        return Math.min(requested, repositoryRestConfiguration.getMaxPageSize());
+    }
+}
@@ -0,0 +1,66 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.IngestionProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.services.CommentIngestionQueue;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.BulkPostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.QueuedComment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Comments accepted here are written behind: the response carries a tracking id, and
+ * {@code GET /postComments/queue/{trackingId}} tells when the comment was stored and under which id.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "blog.ingestion", name = "enabled", havingValue = "true")
+public class CommentIngestionController {
+
+    private final CommentIngestionQueue commentIngestionQueue;
+    private final IngestionProperties properties;
+
+    @PostMapping("/postComments/queue")
+    public ResponseEntity<QueuedComment> enqueue(@RequestBody BulkPostComment comment) {
+        var queued = commentIngestionQueue.submit(comment);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{trackingId}")
+                        .buildAndExpand(queued.trackingId()).toUri())
+                .body(queued);
+    }
+
+    @GetMapping("/postComments/queue/{trackingId}")
+    public ResponseEntity<QueuedComment> status(@PathVariable UUID trackingId) {
+        return ResponseEntity.of(commentIngestionQueue.status(trackingId));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> tooManyRequests(RejectedExecutionException e) {
+        long retryAfter = Math.max(1, (properties.flushInterval().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(CommentIngestionQueue.StoppedException.class)
+    public ResponseEntity<String> unavailable(CommentIngestionQueue.StoppedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+}
@@ -0,0 +1,43 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.services.CommentStatisticsService;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.CommentStatistics;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.StatisticsRebuildResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.BasePathAwareController;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+
+/**
+ * Statistics are read from the aggregate tables and may trail the latest writes by one refresh interval.
+ */
+@BasePathAwareController
+@RequiredArgsConstructor
+public class CommentStatisticsController {
+
+    private final CommentStatisticsService commentStatisticsService;
+
+    @GetMapping("/posts/{id}/statistics")
+    public ResponseEntity<CommentStatistics> postStatistics(@PathVariable("id") Long id) {
+        return ResponseEntity.of(commentStatisticsService.forPost(id));
+    }
+
+    @GetMapping("/users/{id}/statistics")
+    public ResponseEntity<CommentStatistics> userStatistics(@PathVariable("id") Long id) {
+        return ResponseEntity.of(commentStatisticsService.forUser(id));
+    }
+
+    @PostMapping("/statistics/rebuild")
+    public ResponseEntity<StatisticsRebuildResult> rebuild() {
+        return ResponseEntity.ok(commentStatisticsService.rebuild());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> conflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
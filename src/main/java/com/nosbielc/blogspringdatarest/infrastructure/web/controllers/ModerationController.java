@@ -0,0 +1,39 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.services.ModerationService;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.ModerationBatch;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.StatusTransition;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.StatusTransitionResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Moderators claim batches of pending comments, then approve, reject or mark them as spam in bulk.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class ModerationController {
+
+    private final ModerationService moderationService;
+
+    @PostMapping("/postComments/moderation/claims")
+    public ResponseEntity<ModerationBatch> claim(@RequestParam String moderator,
+                                                 @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(moderationService.claim(moderator, size));
+    }
+
+    @PostMapping("/postComments/moderation/transitions")
+    public ResponseEntity<StatusTransitionResult> transition(@RequestBody StatusTransition transition) {
+        return ResponseEntity.ok(moderationService.transition(transition));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
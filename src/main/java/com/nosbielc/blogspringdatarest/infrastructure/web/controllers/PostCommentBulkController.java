@@ -0,0 +1,30 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentBulkService;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.BulkImportResult;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+
+import java.io.IOException;
+
+@RepositoryRestController
+@RequiredArgsConstructor
+public class PostCommentBulkController {
+
+    private final PostCommentBulkService postCommentBulkService;
+
+    @PostMapping(path = "/postComments/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkImportResult> importComments(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(postCommentBulkService.importNdjson(request.getInputStream()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,36 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentFilter;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RepositoryRestController
+@RequiredArgsConstructor
+public class PostCommentExportController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final PostCommentExportService postCommentExportService;
+
+    @GetMapping(path = "/postComments/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportNdjson(PostCommentFilter filter) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"postComments.ndjson\"")
+                .body(output -> postCommentExportService.exportNdjson(filter, output));
+    }
+
+    @GetMapping(path = "/postComments/export", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCsv(PostCommentFilter filter) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"postComments.csv\"")
+                .body(output -> postCommentExportService.exportCsv(filter, output));
+    }
+}
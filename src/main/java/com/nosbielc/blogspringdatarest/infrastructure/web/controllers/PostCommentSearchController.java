@@ -0,0 +1,56 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentSearch;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentSearchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.rest.webmvc.RepositorySearchesResource;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.RepresentationModelProcessor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * {@code /postComments/search/filter}: the comment filters as query parameters, answered through the
+ * per-shape plans of {@link PostCommentSearchRepository}. Listed with the repository's own searches.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class PostCommentSearchController implements RepresentationModelProcessor<RepositorySearchesResource> {
+
+    private static final String FILTER = "filter";
+    private static final String PARAMETERS = "{?postId,userId,status*,minVotes,review,createdFrom,createdTo,page,size,sort}";
+
+    private final PostCommentSearchRepository postCommentSearchRepository;
+
+    @GetMapping("/postComments/search/" + FILTER)
+    public ResponseEntity<PagedModel<?>> filter(PostCommentSearch search,
+                                                Pageable pageable,
+                                                PagedResourcesAssembler<Object> pagedAssembler,
+                                                PersistentEntityResourceAssembler assembler) {
+        var page = postCommentSearchRepository.search(search, pageable).map(Object.class::cast);
+        return ResponseEntity.ok(pagedAssembler.toModel(page, assembler));
+    }
+
+    @Override
+    public RepositorySearchesResource process(RepositorySearchesResource searches) {
+        if (PostComment.class.equals(searches.getDomainType())) {
+            var href = ServletUriComponentsBuilder.fromCurrentRequest().path("/" + FILTER).replaceQuery(null)
+                    .toUriString();
+            searches.add(Link.of(href + PARAMETERS, FILTER));
+        }
+        return searches;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,25 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentTreeService;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.CommentTree;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@RepositoryRestController
+@RequiredArgsConstructor
+public class PostCommentTreeController {
+
+    private final PostCommentTreeService postCommentTreeService;
+
+    @GetMapping("/posts/{id}/commentTree")
+    public ResponseEntity<CommentTree> commentTree(@PathVariable("id") Long id,
+                                                   @RequestParam(required = false) Long rootId,
+                                                   @RequestParam(required = false) Integer depth,
+                                                   @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(postCommentTreeService.loadTree(id, rootId, depth, limit));
+    }
+}
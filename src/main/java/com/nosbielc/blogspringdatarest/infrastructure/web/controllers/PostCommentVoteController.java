@@ -0,0 +1,42 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.VoteBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Votes are buffered and written in batches, so the response only acknowledges them.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class PostCommentVoteController {
+
+    private final PostCommentRepository postCommentRepository;
+    private final VoteBuffer voteBuffer;
+
+    @PostMapping("/postComments/{id}/votes")
+    public ResponseEntity<Void> vote(@PathVariable("id") Long id,
+                                     @RequestParam(defaultValue = "1") long delta) {
+        if (delta == 0) {
+            throw new IllegalArgumentException("delta deve ser diferente de zero");
+        }
+        if (postCommentRepository.findById(id).isEmpty()) {
+            throw new ResourceNotFoundException("Comentário não encontrado: " + id);
+        }
+
+        voteBuffer.add(id, delta);
+        return ResponseEntity.accepted().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,134 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.PostCommentResumeView;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.UsersResumeView;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.core.mapping.ResourceMappings;
+import org.springframework.data.rest.webmvc.ProfileController;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.rest.webmvc.mapping.LinkCollector;
+import org.springframework.data.rest.webmvc.support.RepositoryEntityLinks;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.Links;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Serves the {@code usersResume} and {@code postCommentResume} projections of the collection and item
+ * resources from constructor expression queries, instead of loading managed entities and wrapping
+ * them in projection proxies. Representations keep the links Spring Data REST renders for the entity;
+ * they are collected from a transient instance carrying only the id.
+ * <p>
+ * Enabled by {@code blog.projections.dto-queries}; without it the projections are rendered by Spring
+ * Data REST as before.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "blog.projections", name = "dto-queries", havingValue = "true")
+public class ProjectionQueryController {
+
+    private static final LinkRelation SEARCH = LinkRelation.of("search");
+
+    private final UserRepository userRepository;
+    private final PostCommentRepository postCommentRepository;
+    private final LinkCollector linkCollector;
+    private final RepositoryEntityLinks entityLinks;
+    private final ResourceMappings resourceMappings;
+    private final RepositoryRestConfiguration repositoryRestConfiguration;
+
+    @GetMapping(value = "/users", params = "projection=usersResume")
+    public ResponseEntity<PagedModel<?>> usersResume(Pageable pageable,
+                                                     PagedResourcesAssembler<UsersResumeView> assembler) {
+        return ResponseEntity.ok(toModel(User.class, UsersResumeView.class, userRepository.findUsersResumeBy(pageable),
+                view -> User.builder().withId(view.id()).build(), assembler));
+    }
+
+    @GetMapping(value = "/users/{id}", params = "projection=usersResume")
+    public ResponseEntity<EntityModel<UsersResumeView>> userResume(@PathVariable Long id) {
+        return toResponse(User.class, userRepository.findUsersResumeById(id),
+                view -> User.builder().withId(view.id()).build(), UsersResumeView::version, UsersResumeView::updatedAt);
+    }
+
+    @GetMapping(value = "/postComments", params = "projection=postCommentResume")
+    public ResponseEntity<PagedModel<?>> postCommentsResume(Pageable pageable,
+                                                            PagedResourcesAssembler<PostCommentResumeView> assembler) {
+        return ResponseEntity.ok(toModel(PostComment.class, PostCommentResumeView.class,
+                postCommentRepository.findPostCommentResumeBy(pageable),
+                view -> PostComment.builder().withId(view.id()).build(), assembler));
+    }
+
+    @GetMapping(value = "/postComments/{id}", params = "projection=postCommentResume")
+    public ResponseEntity<EntityModel<PostCommentResumeView>> postCommentResume(@PathVariable Long id) {
+        return toResponse(PostComment.class, postCommentRepository.findPostCommentResumeById(id),
+                view -> PostComment.builder().withId(view.id()).build(),
+                PostCommentResumeView::version, PostCommentResumeView::updatedAt);
+    }
+
+    private <T> PagedModel<?> toModel(Class<?> domainType, Class<T> viewType, Page<T> page,
+                                      Function<T, Object> entityOf, PagedResourcesAssembler<T> assembler) {
+        var model = page.isEmpty()
+                ? assembler.toEmptyModel(page, viewType)
+                : assembler.toModel(page, view -> EntityModel.of(view, linksOf(domainType, entityOf.apply(view))));
+
+        model.add(Link.of(ProfileController.getPath(repositoryRestConfiguration,
+                resourceMappings.getMetadataFor(domainType)), IanaLinkRelations.PROFILE));
+        if (resourceMappings.getSearchResourceMappings(domainType).isExported()) {
+            model.add(entityLinks.linkFor(domainType).slash("search").withRel(SEARCH));
+        }
+        return model;
+    }
+
+    /**
+     * Sets ETag and Last-Modified headers, so conditional requests are answered with 304 as well. The
+     * views expose counters, so the ETag pairs the version with {@code updatedAt}, which every write sets.
+     */
+    private <T> ResponseEntity<EntityModel<T>> toResponse(Class<?> domainType, Optional<T> found,
+                                                          Function<T, Object> entityOf, Function<T, Long> version,
+                                                          Function<T, LocalDateTime> updatedAt) {
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        var view = found.get();
+        var response = ResponseEntity.ok();
+        var modified = updatedAt.apply(view) == null ? null : updatedAt.apply(view).atZone(ZoneId.systemDefault());
+        if (version.apply(view) != null) {
+            response.eTag(modified == null ? String.valueOf(version.apply(view))
+                    : version.apply(view) + "-" + modified.toInstant().toEpochMilli());
+        }
+        if (modified != null) {
+            response.lastModified(modified);
+        }
+        return response.body(EntityModel.of(view, linksOf(domainType, entityOf.apply(view))));
+    }
+
+    /**
+     * The collector yields the item link templated with {@code projection} as self; like Spring Data
+     * REST, self is rendered expanded and the template goes under the item relation.
+     */
+    private Links linksOf(Class<?> domainType, Object entity) {
+        var links = linkCollector.getLinksFor(entity);
+        var item = links.getRequiredLink(IanaLinkRelations.SELF);
+        return Links.of(item.expand().withSelfRel(),
+                        item.withRel(resourceMappings.getMetadataFor(domainType).getItemResourceRel()))
+                .and(links.without(IanaLinkRelations.SELF));
+    }
+}
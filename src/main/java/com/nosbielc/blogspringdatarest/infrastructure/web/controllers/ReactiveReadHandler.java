@@ -0,0 +1,91 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ReactiveProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.PostCommentResumeView;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.UsersResumeView;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentFilter;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.ReactiveReadRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostRow;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Handlers of the reactive read API. Every resource is a stream in the shape of its projection, written
+ * as server-sent events when the client accepts {@code text/event-stream} and as NDJSON otherwise; the
+ * database is read as the client consumes it, {@code blog.reactive.prefetch} rows at a time.
+ */
+@Component
+@ConditionalOnProperty(prefix = "blog.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadHandler {
+
+    private final ReactiveReadRepository repository;
+    private final ReactiveProperties properties;
+
+    public ReactiveReadHandler(ReactiveReadRepository repository, ReactiveProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+    }
+
+    public Mono<ServerResponse> users(ServerRequest request) {
+        return stream(request, repository.users(), UsersResumeView.class);
+    }
+
+    public Mono<ServerResponse> posts(ServerRequest request) {
+        try {
+            return stream(request, repository.posts(param(request, "userId", Long::valueOf)), PostRow.class);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue(e.getMessage());
+        }
+    }
+
+    /**
+     * Accepts the parameters of {@link PostCommentFilter}, as the servlet resources do.
+     */
+    public Mono<ServerResponse> postComments(ServerRequest request) {
+        PostCommentFilter filter;
+        try {
+            filter = new PostCommentFilter(param(request, "postId", Long::valueOf),
+                    param(request, "userId", Long::valueOf),
+                    param(request, "status", CommentStatus::valueOf),
+                    param(request, "minVotes", Integer::valueOf),
+                    param(request, "review", Function.identity()),
+                    param(request, "createdFrom", LocalDateTime::parse),
+                    param(request, "createdTo", LocalDateTime::parse));
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue(e.getMessage());
+        }
+        return stream(request, repository.postComments(filter), PostCommentResumeView.class);
+    }
+
+    private <T> Mono<ServerResponse> stream(ServerRequest request, Flux<T> rows, Class<T> type) {
+        var events = request.headers().accept().stream()
+                .anyMatch(accepted -> accepted.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM));
+        return ServerResponse.ok()
+                .contentType(events ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_NDJSON)
+                .body(rows.limitRate(properties.prefetch()), type);
+    }
+
+    private static <T> T param(ServerRequest request, String name, Function<String, T> parser) {
+        var value = request.queryParam(name).filter(text -> !text.isBlank()).orElse(null);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException(format("Valor inválido para %s: %s", name, value), e);
+        }
+    }
+}
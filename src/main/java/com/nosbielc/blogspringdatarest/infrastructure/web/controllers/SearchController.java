@@ -0,0 +1,42 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.services.SearchIndex;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.ReindexResult;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.SearchResults;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.BasePathAwareController;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@BasePathAwareController
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchIndex searchIndex;
+
+    @GetMapping("/search")
+    public ResponseEntity<SearchResults> search(@RequestParam("q") String query,
+                                                @RequestParam(required = false) String type,
+                                                @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchIndex.search(query, type, limit));
+    }
+
+    @PostMapping("/search/reindex")
+    public ResponseEntity<ReindexResult> reindex() {
+        return ResponseEntity.ok(searchIndex.reindex());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> conflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
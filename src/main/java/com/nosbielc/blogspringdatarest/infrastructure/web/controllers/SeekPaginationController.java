@@ -0,0 +1,112 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.Keyset;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.KeysetQueryExecutor;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.KeysetWindow;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+
+/**
+ * Cursor based alternative to the paged collection resources: no OFFSET and no count query,
+ * so deep windows cost the same as the first one.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class SeekPaginationController {
+
+    private static final String AFTER = "after";
+    private static final String BEFORE = "before";
+
+    private final KeysetQueryExecutor keysetQueryExecutor;
+    private final RepositoryRestConfiguration repositoryRestConfiguration;
+
+    @GetMapping("/postComments/seek")
+    public ResponseEntity<CollectionModel<PersistentEntityResource>> seekComments(
+            @RequestParam(required = false) Long postId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer size,
+            PersistentEntityResourceAssembler assembler) {
+
+        var spec = PostCommentRepository.Specs.byPostId(postId);
+        var window = before != null
+                ? keysetQueryExecutor.findBefore(PostComment.class, spec, Keyset.decode(before), size(size), SeekPaginationController::keyOf)
+                : keysetQueryExecutor.findAfter(PostComment.class, spec, after == null ? null : Keyset.decode(after), size(size), SeekPaginationController::keyOf);
+
+        return ResponseEntity.ok(toModel(window, assembler));
+    }
+
+    @GetMapping("/posts/seek")
+    public ResponseEntity<CollectionModel<PersistentEntityResource>> seekPosts(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer size,
+            PersistentEntityResourceAssembler assembler) {
+
+        var spec = PostRepository.Specs.byUserId(userId);
+        var window = before != null
+                ? keysetQueryExecutor.findBefore(Post.class, spec, Keyset.decode(before), size(size), SeekPaginationController::keyOf)
+                : keysetQueryExecutor.findAfter(Post.class, spec, after == null ? null : Keyset.decode(after), size(size), SeekPaginationController::keyOf);
+
+        return ResponseEntity.ok(toModel(window, assembler));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private int size(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return repositoryRestConfiguration.getDefaultPageSize();
+        }
+        return Math.min(requested, repositoryRestConfiguration.getMaxPageSize());
+    }
+
+    private static CollectionModel<PersistentEntityResource> toModel(KeysetWindow<?> window,
+                                                                     PersistentEntityResourceAssembler assembler) {
+        var resources = new ArrayList<PersistentEntityResource>(window.content().size());
+        window.content().forEach(entity -> resources.add(assembler.toModel(entity)));
+
+        var model = CollectionModel.of(resources, Link.of(current().toUriString()));
+        if (window.next() != null) {
+            model.add(Link.of(current().replaceQueryParam(BEFORE).replaceQueryParam(AFTER, window.next().encode())
+                    .toUriString(), IanaLinkRelations.NEXT));
+        }
+        if (window.previous() != null) {
+            model.add(Link.of(current().replaceQueryParam(AFTER).replaceQueryParam(BEFORE, window.previous().encode())
+                    .toUriString(), IanaLinkRelations.PREV));
+        }
+        return model;
+    }
+
+    private static ServletUriComponentsBuilder current() {
+        return ServletUriComponentsBuilder.fromCurrentRequest();
+    }
+
+    private static Keyset keyOf(PostComment comment) {
+        return new Keyset(comment.getCreatedAt(), comment.getId());
+    }
+
+    private static Keyset keyOf(Post post) {
+        return new Keyset(post.getCreatedAt(), post.getId());
+    }
+}
@@ -0,0 +1,63 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.controllers;
+
+import com.nosbielc.blogspringdatarest.infrastructure.services.HalStreamWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Streaming mode of the posts and postComments collection resources, selected with {@code ?stream}:
+ * same page parameters and HAL document, written while the rows are read. Requests without the
+ * parameter fall through to Spring Data REST.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class StreamingCollectionController {
+
+    private static final String STREAM = "stream";
+
+    private final HalStreamWriter halStreamWriter;
+    private final RepositoryRestConfiguration repositoryRestConfiguration;
+
+    @GetMapping(path = "/posts", params = STREAM)
+    public ResponseEntity<StreamingResponseBody> posts(@RequestParam(required = false) Integer page,
+                                                       @RequestParam(required = false) Integer size,
+                                                       Sort sort) {
+        return stream("posts", page, size, sort);
+    }
+
+    @GetMapping(path = "/postComments", params = STREAM)
+    public ResponseEntity<StreamingResponseBody> postComments(@RequestParam(required = false) Integer page,
+                                                              @RequestParam(required = false) Integer size,
+                                                              Sort sort) {
+        return stream("postComments", page, size, sort);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * URIs are resolved here, on the request thread; the body is written later on an async one.
+     */
+    private ResponseEntity<StreamingResponseBody> stream(String collection, Integer page, Integer size,
+                                                         Sort sort) {
+        var streamedPage = halStreamWriter.page(collection, page, size, sort);
+        var baseUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(repositoryRestConfiguration.getBasePath().toString())
+                .build().toUriString();
+        var requestUri = ServletUriComponentsBuilder.fromCurrentRequest();
+        return ResponseEntity.ok()
+                .contentType(MediaTypes.HAL_JSON)
+                .body(output -> halStreamWriter.write(streamedPage, baseUri, requestUri, output));
+    }
+}
@@ -0,0 +1,7 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+/**
+ * @param archived comments moved to the archive by this run
+ */
+public record ArchiveResult(int batches, long archived, long elapsedMillis) {
+}
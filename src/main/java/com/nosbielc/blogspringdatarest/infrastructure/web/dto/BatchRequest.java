@@ -0,0 +1,23 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import java.util.List;
+
+/**
+ * Ids per resource type plus the relations to include, bound from
+ * {@code ?posts=1,2&users=3&include=user,comments,comments.user}.
+ * <ul>
+ *     <li>{@code user}: the authors of the posts and comments asked for</li>
+ *     <li>{@code post}: the posts of the comments asked for</li>
+ *     <li>{@code comments}: the newest comments of the posts asked for</li>
+ *     <li>{@code comments.user}: the authors of those comments</li>
+ * </ul>
+ */
+public record BatchRequest(List<Long> posts, List<Long> postComments, List<Long> users, List<String> include) {
+
+    public BatchRequest {
+        posts = posts == null ? List.of() : posts;
+        postComments = postComments == null ? List.of() : postComments;
+        users = users == null ? List.of() : users;
+        include = include == null ? List.of() : include;
+    }
+}
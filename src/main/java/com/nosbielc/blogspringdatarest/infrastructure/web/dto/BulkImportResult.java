@@ -0,0 +1,8 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+public record BulkImportResult(long inserted, int chunks, long elapsedMillis) {
+
+    public long rowsPerSecond() {
+        return elapsedMillis == 0 ? inserted : inserted * 1000 / elapsedMillis;
+    }
+}
@@ -0,0 +1,14 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+
+import java.time.LocalDateTime;
+
+public record BulkPostComment(Long postId,
+                              Long userId,
+                              Long parentPostCommentId,
+                              String review,
+                              Integer votes,
+                              LocalDateTime createdAt,
+                              CommentStatus status) {
+}
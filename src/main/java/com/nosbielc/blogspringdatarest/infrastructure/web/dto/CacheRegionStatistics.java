@@ -0,0 +1,9 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+public record CacheRegionStatistics(String region,
+                                    long size,
+                                    long hits,
+                                    long misses,
+                                    long evictions,
+                                    double hitRate) {
+}
@@ -0,0 +1,23 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.CommentTreeRow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public record CommentNode(long id,
+                          Long userId,
+                          String review,
+                          Integer votes,
+                          LocalDateTime createdAt,
+                          CommentStatus status,
+                          int depth,
+                          List<CommentNode> replies) {
+
+    public static CommentNode of(CommentTreeRow row) {
+        return new CommentNode(row.id(), row.userId(), row.review(), row.votes(), row.createdAt(), row.status(),
+                row.depth(), new ArrayList<>());
+    }
+}
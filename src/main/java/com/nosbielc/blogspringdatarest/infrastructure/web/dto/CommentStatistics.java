@@ -0,0 +1,20 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.StatisticsScope;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comment aggregates of a post, or of a user: the comments they wrote, and the users commenting on
+ * their posts. {@code comments} and {@code votes} also count comments stored without a status.
+ */
+public record CommentStatistics(StatisticsScope scope,
+                                long id,
+                                long comments,
+                                long votes,
+                                double averageVotes,
+                                Map<CommentStatus, Long> commentsByStatus,
+                                List<TopCommenter> topCommenters) {
+}
@@ -0,0 +1,15 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import java.util.List;
+
+/**
+ * @param truncated {@code true} when the thread has more comments than {@code limit} within {@code depth}
+ */
+public record CommentTree(long postId,
+                          Long rootId,
+                          int depth,
+                          int limit,
+                          int size,
+                          boolean truncated,
+                          List<CommentNode> comments) {
+}
@@ -0,0 +1,13 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import java.util.List;
+
+/**
+ * Resources asked for by id in {@code data}, in the order requested, and the related resources pulled
+ * in by {@code include} in {@code included}. A resource appears once in the whole document.
+ */
+public record CompoundDocument(Resources data, Resources included) {
+
+    public record Resources(List<PostRow> posts, List<PostCommentRow> postComments, List<UserRow> users) {
+    }
+}
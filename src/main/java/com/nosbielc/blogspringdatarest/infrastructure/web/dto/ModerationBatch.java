@@ -0,0 +1,11 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @param claimedUntil the comments return to the queue after this instant unless moved out of
+ *                     {@code PENDING_APPROVAL}
+ */
+public record ModerationBatch(String moderator, LocalDateTime claimedUntil, List<PostCommentRow> comments) {
+}
@@ -0,0 +1,18 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat representation of a comment; associations are reduced to their ids so nothing is loaded.
+ */
+public record PostCommentRow(Long id,
+                             Long postId,
+                             Long userId,
+                             Long parentPostCommentId,
+                             String review,
+                             Integer votes,
+                             LocalDateTime createdAt,
+                             CommentStatus status) {
+}
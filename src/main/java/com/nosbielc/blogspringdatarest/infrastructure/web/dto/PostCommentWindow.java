@@ -0,0 +1,10 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import java.util.List;
+
+/**
+ * @param next            cursor of the following window, {@code null} on the last one
+ * @param archiveIncluded whether the archive was read along with the live comments
+ */
+public record PostCommentWindow(List<PostCommentRow> comments, String next, boolean archiveIncluded) {
+}
@@ -0,0 +1,16 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat representation of a post; the author is reduced to its id.
+ */
+public record PostRow(Long id,
+                      Long userId,
+                      String title,
+                      String content,
+                      LocalDateTime createdAt,
+                      Long commentCount,
+                      Long totalVotes,
+                      LocalDateTime updatedAt) {
+}
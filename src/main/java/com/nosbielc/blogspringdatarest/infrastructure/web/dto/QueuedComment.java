@@ -0,0 +1,28 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a comment accepted by the write-behind queue.
+ *
+ * @param commentId set once the comment is {@link State#WRITTEN}
+ * @param error     why the comment could not be written, when {@link State#FAILED}
+ */
+public record QueuedComment(UUID trackingId, State state, Long commentId, String error) {
+
+    public enum State {
+        QUEUED, WRITTEN, FAILED
+    }
+
+    public static QueuedComment queued(UUID trackingId) {
+        return new QueuedComment(trackingId, State.QUEUED, null, null);
+    }
+
+    public QueuedComment written(Long commentId) {
+        return new QueuedComment(trackingId, State.WRITTEN, commentId, null);
+    }
+
+    public QueuedComment failed(String error) {
+        return new QueuedComment(trackingId, State.FAILED, null, error);
+    }
+}
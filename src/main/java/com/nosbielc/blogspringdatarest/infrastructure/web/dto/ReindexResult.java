@@ -0,0 +1,4 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+public record ReindexResult(long posts, long comments, long elapsedMillis) {
+}
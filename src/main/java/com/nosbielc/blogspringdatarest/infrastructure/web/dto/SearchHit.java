@@ -0,0 +1,11 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param type       {@code post} or {@code comment}
+ * @param highlights HTML escaped fragments per field, matched terms wrapped in {@code <em>}
+ */
+public record SearchHit(String type, long id, float score, Map<String, List<String>> highlights) {
+}
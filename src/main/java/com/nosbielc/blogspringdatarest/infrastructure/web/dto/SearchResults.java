@@ -0,0 +1,9 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import java.util.List;
+
+/**
+ * @param totalHits matches in the index, rows deleted since they were indexed included
+ */
+public record SearchResults(String query, long totalHits, List<SearchHit> hits) {
+}
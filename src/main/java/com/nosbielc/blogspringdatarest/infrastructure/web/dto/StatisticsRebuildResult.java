@@ -0,0 +1,4 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+public record StatisticsRebuildResult(int chunks, int parallelism, long elapsedMillis) {
+}
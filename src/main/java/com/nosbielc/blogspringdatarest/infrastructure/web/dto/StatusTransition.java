@@ -0,0 +1,8 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+
+import java.util.List;
+
+public record StatusTransition(List<Long> ids, CommentStatus status) {
+}
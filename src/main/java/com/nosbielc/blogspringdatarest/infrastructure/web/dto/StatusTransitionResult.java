@@ -0,0 +1,9 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+
+/**
+ * @param updated comments actually moved; deleted ones and those already in {@code status} are skipped
+ */
+public record StatusTransitionResult(CommentStatus status, int requested, int updated) {
+}
@@ -0,0 +1,4 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+public record TopCommenter(long userId, String fullName, long comments) {
+}
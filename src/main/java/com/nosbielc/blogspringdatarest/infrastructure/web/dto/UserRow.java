@@ -0,0 +1,11 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.dto;
+
+import java.time.LocalDateTime;
+
+public record UserRow(Long id,
+                      String firstName,
+                      String lastName,
+                      String email,
+                      Integer age,
+                      LocalDateTime updatedAt) {
+}
@@ -0,0 +1,168 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.filters;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.AdmissionProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.services.AdmissionControl;
+import com.nosbielc.blogspringdatarest.infrastructure.services.AdmissionControl.Admission;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.core.mapping.ResourceMappings;
+import org.springframework.data.rest.core.mapping.ResourceMetadata;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static java.lang.String.format;
+
+/**
+ * Puts {@link AdmissionControl} in front of {@code /api/v1/{repository}/**}. An item costs as one item;
+ * anything else under the repository is read as a page of {@code size} items, the default page size
+ * when absent, and is cheaper with a {@code projection}. Refused requests get 429 (the client's budget)
+ * or 503 (the resource is saturated) with {@code Retry-After}. Runs after the observation filter, so
+ * refusals show in {@code http.server.requests}; an admitted streaming response keeps its units until
+ * it has been written.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+@ConditionalOnProperty(prefix = "blog.admission", name = "enabled", havingValue = "true")
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admissionControl;
+    private final AdmissionProperties properties;
+    private final ResourceMappings resourceMappings;
+    private final RepositoryRestConfiguration restConfiguration;
+
+    private volatile Map<String, Class<?>> domainTypes;
+
+    public AdmissionFilter(AdmissionControl admissionControl,
+                           AdmissionProperties properties,
+                           ResourceMappings resourceMappings,
+                           RepositoryRestConfiguration restConfiguration) {
+        this.admissionControl = admissionControl;
+        this.properties = properties;
+        this.resourceMappings = resourceMappings;
+        this.restConfiguration = restConfiguration;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var prefix = request.getContextPath() + restConfiguration.getBasePath().getPath() + "/";
+        var uri = request.getRequestURI();
+        var segments = uri.startsWith(prefix) ? uri.substring(prefix.length()).split("/") : new String[0];
+        var type = segments.length == 0 ? null : domainTypes().get(segments[0]);
+        if (type == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        var cost = admissionControl.cost(type, item(segments) ? 1 : size(request),
+                StringUtils.hasText(request.getParameter("projection")));
+        Admission admission;
+        try {
+            admission = admissionControl.admit(client(request), segments[0], cost);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrompido aguardando admissão", e);
+        }
+        if (!admission.admitted()) {
+            reject(response, admission, segments[0], cost);
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(admission));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                admission.close();
+            }
+        }
+    }
+
+    private static boolean item(String[] segments) {
+        return segments.length == 2 && segments[1].chars().allMatch(Character::isDigit);
+    }
+
+    private int size(HttpServletRequest request) {
+        var size = request.getParameter(restConfiguration.getLimitParamName());
+        try {
+            return size == null ? restConfiguration.getDefaultPageSize() : Math.max(1, Integer.parseInt(size));
+        } catch (NumberFormatException e) {
+            return restConfiguration.getDefaultPageSize();
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        var header = StringUtils.hasText(properties.clientHeader()) ? request.getHeader(properties.clientHeader()) : null;
+        return StringUtils.hasText(header) ? header : request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, Admission admission, String resource, int cost)
+            throws IOException {
+        response.setStatus(admission.rejection().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(admission.rejection().value() == 429
+                ? format("Limite de requisições excedido para %s (custo %d); tente novamente em %d s", resource, cost,
+                admission.retryAfterSeconds())
+                : format("%s sobrecarregado; tente novamente em %d s", resource, admission.retryAfterSeconds()));
+    }
+
+    private Map<String, Class<?>> domainTypes() {
+        var types = domainTypes;
+        if (types == null) {
+            types = StreamSupport.stream(resourceMappings.spliterator(), false)
+                    .filter(ResourceMetadata::isExported)
+                    .collect(Collectors.toUnmodifiableMap(
+                            metadata -> metadata.getPath().toString().substring(1),
+                            ResourceMetadata::getDomainType,
+                            (first, second) -> first));
+            domainTypes = types;
+        }
+        return types;
+    }
+
+    private record ReleasingListener(Admission admission) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            admission.close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            admission.close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            admission.close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.filters;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ObservabilityProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements and entity loads each request needed, tagged like
+ * {@code http.server.requests}. Requests above {@code blog.observability.statements-warning} are logged,
+ * they usually hide an N+1 in a projection or an association serialized lazily.
+ */
+@Slf4j
+@Component
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+    private final ObservabilityProperties properties;
+
+    public QueryMetricsFilter(QueryCounter queryCounter, MeterRegistry meterRegistry,
+                              ObservabilityProperties properties) {
+        this.queryCounter = queryCounter;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var before = queryCounter.snapshot();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            var executed = queryCounter.snapshot().since(before);
+            var uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                    ? pattern : "UNKNOWN";
+
+            summary("blog.request.statements", "SQL statements executed per request", request, uri)
+                    .record(executed.statements());
+            summary("blog.request.entities", "Entities loaded per request", request, uri)
+                    .record(executed.entities());
+
+            if (executed.statements() > properties.statementsWarning()) {
+                log.warn("{} {} executou {} statements SQL e carregou {} entidades, possível N+1",
+                        request.getMethod(), request.getRequestURI(), executed.statements(), executed.entities());
+            }
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
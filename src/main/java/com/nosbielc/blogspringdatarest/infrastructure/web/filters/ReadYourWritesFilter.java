@@ -0,0 +1,70 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.filters;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ReplicaProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.ReplicaRoutingDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Read-your-writes with a replica: a POST, PUT, PATCH or DELETE runs on the primary and hands the client
+ * a cookie with the time of the write; the client's requests carrying it keep reading from the primary
+ * for {@code blog.replica.stickiness}, long enough for the replica to catch up with that write. Clients
+ * without the cookie may briefly read data older than their own writes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "blog.replica", name = "enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String LAST_WRITE_COOKIE = "blog-last-write";
+    private static final Set<String> WRITES = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final ReplicaProperties properties;
+
+    public ReadYourWritesFilter(ReplicaProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = WRITES.contains(request.getMethod());
+        if (write) {
+            // set before the body is written, the response may be committed by then
+            var cookie = new Cookie(LAST_WRITE_COOKIE, String.valueOf(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, properties.stickiness().toSeconds()));
+            response.addCookie(cookie);
+        }
+
+        try (var pin = write || wroteRecently(request, now) ? ReplicaRoutingDataSource.pinToPrimary() : null) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private boolean wroteRecently(HttpServletRequest request, long now) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (var cookie : request.getCookies()) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    return now - Long.parseLong(cookie.getValue()) < properties.stickiness().toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,192 @@
+package com.nosbielc.blogspringdatarest.infrastructure.web.filters;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.ReplicaRoutingDataSource;
+import com.nosbielc.blogspringdatarest.infrastructure.services.RepresentationCache;
+import com.nosbielc.blogspringdatarest.infrastructure.services.RepresentationCache.Representation;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.core.mapping.ResourceMappings;
+import org.springframework.data.rest.core.mapping.ResourceMetadata;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Serves {@code GET /api/v1/{repository}/{id}} from the {@link RepresentationCache}, answering
+ * {@code If-None-Match} / {@code If-Modified-Since} with 304 without touching the database. Misses go
+ * through Spring Data REST, which computes the {@code ETag} from {@code @Version}; versioned 200 responses
+ * are then cached; with a read replica, misses are read from the primary. Requests with a query string
+ * (projections) are never cached.
+ * <p>
+ * Entries are keyed by the media type the request negotiates, not by the raw {@code Accept} header: HAL
+ * for {@code *}{@code /*} and {@code application/hal+json}, plain JSON for {@code application/json}. Any
+ * other preference bypasses the cache.
+ */
+@Component
+public class RepresentationCacheFilter extends OncePerRequestFilter {
+
+    private final RepresentationCache representationCache;
+    private final ResourceMappings resourceMappings;
+    private final RepositoryRestConfiguration restConfiguration;
+
+    private volatile Map<String, Class<?>> domainTypes;
+
+    public RepresentationCacheFilter(RepresentationCache representationCache,
+                                     ResourceMappings resourceMappings,
+                                     RepositoryRestConfiguration restConfiguration) {
+        this.representationCache = representationCache;
+        this.resourceMappings = resourceMappings;
+        this.restConfiguration = restConfiguration;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || request.getQueryString() != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var item = itemResource(request);
+        if (item == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        var variant = variant(request.getHeader(HttpHeaders.ACCEPT));
+        if (variant == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var cached = representationCache.get(item.type(), item.id(), variant);
+        if (cached != null) {
+            write(cached, request, response);
+            return;
+        }
+
+        long generation = representationCache.generation();
+        var wrapper = new ContentCachingResponseWrapper(response);
+        // what gets cached is read from the primary, a replica could still serve an older version
+        try (var pin = ReplicaRoutingDataSource.pinToPrimary()) {
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpStatus.OK.value() && wrapper.getHeader(HttpHeaders.ETAG) != null) {
+                representationCache.put(item.type(), item.id(), variant,
+                        new Representation(headers(wrapper), wrapper.getContentAsByteArray()), generation);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * @return the media type a response to {@code accept} is rendered in, or {@code null} when it is not
+     * one of the cached variants
+     */
+    static String variant(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaTypes.HAL_JSON_VALUE;
+        }
+        List<MediaType> types;
+        try {
+            types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        types.removeIf(type -> type.getQualityValue() == 0);
+        types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        if (types.isEmpty()) {
+            return null;
+        }
+        var preferred = types.get(0);
+        if (preferred.isWildcardType() || preferred.equalsTypeAndSubtype(MediaTypes.HAL_JSON)) {
+            return MediaTypes.HAL_JSON_VALUE;
+        }
+        return preferred.equalsTypeAndSubtype(MediaType.APPLICATION_JSON) ? MediaType.APPLICATION_JSON_VALUE : null;
+    }
+
+    private static void write(Representation cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        var headers = cached.headers();
+        if (new ServletWebRequest(request, response).checkNotModified(headers.getETag(), headers.getLastModified())) {
+            return;
+        }
+        // checkNotModified already wrote ETag and Last-Modified
+        headers.forEach((name, values) -> {
+            if (!response.containsHeader(name)) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    private static HttpHeaders headers(ContentCachingResponseWrapper response) {
+        var headers = new HttpHeaders();
+        for (var name : response.getHeaderNames()) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                headers.addAll(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        if (response.getContentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, response.getContentType());
+        }
+        return headers;
+    }
+
+    private ItemResource itemResource(HttpServletRequest request) {
+        var prefix = request.getContextPath() + restConfiguration.getBasePath().getPath() + "/";
+        var uri = request.getRequestURI();
+        if (!uri.startsWith(prefix)) {
+            return null;
+        }
+
+        var segments = uri.substring(prefix.length()).split("/");
+        if (segments.length != 2) {
+            return null;
+        }
+        var type = domainTypes().get(segments[0]);
+        if (type == null) {
+            return null;
+        }
+        try {
+            return new ItemResource(type, Long.valueOf(segments[1]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Class<?>> domainTypes() {
+        var types = domainTypes;
+        if (types == null) {
+            types = StreamSupport.stream(resourceMappings.spliterator(), false)
+                    .filter(ResourceMetadata::isExported)
+                    .collect(Collectors.toUnmodifiableMap(
+                            metadata -> metadata.getPath().toString().substring(1),
+                            ResourceMetadata::getDomainType,
+                            (first, second) -> first));
+            domainTypes = types;
+        }
+        return types;
+    }
+
+    private record ItemResource(Class<?> type, Long id) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.services.AdmissionControl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:admission;DB_CLOSE_DELAY=-1",
+        "blog.admission.enabled=true",
+        "blog.admission.client-header=X-Client-Id",
+        "blog.admission.client-rate=1",
+        "blog.admission.client-burst=10",
+        "blog.admission.resource-capacity=10",
+        "blog.admission.queue-target=50ms",
+        "blog.admission.items-per-unit=20"
+})
+@AutoConfigureMockMvc
+class AdmissionTest {
+
+    private static final String CLIENT = "X-Client-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AdmissionControl admissionControl;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void costGrowsWithPageSizeAndAssociationDepth() {
+
+        // postComment -> post -> user
+        assertEquals(3, admissionControl.cost(PostComment.class, 20, false));
+        assertEquals(1, admissionControl.cost(PostComment.class, 20, true));
+        assertEquals(4, admissionControl.cost(Post.class, 40, false));
+        assertEquals(1, admissionControl.cost(User.class, 20, false));
+        // capped at the burst, so the largest page is still admissible
+        assertEquals(10, admissionControl.cost(PostComment.class, 2000, false));
+    }
+
+    @Test
+    void clientOverItsBudgetGets429WhileOthersAreServed() throws Exception {
+
+        mockMvc.perform(get("/api/v1/postComments").queryParam("size", "2000").header(CLIENT, "greedy"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/postComments").queryParam("size", "2000").header(CLIENT, "greedy"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+        mockMvc.perform(get("/api/v1/users").header(CLIENT, "greedy"))
+                .andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/api/v1/postComments").header(CLIENT, "polite"))
+                .andExpect(status().isOk());
+        // outside the repository resources nothing is counted
+        mockMvc.perform(get("/actuator/health").header(CLIENT, "greedy"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void saturatedResourceShedsWith503AfterTheQueueTarget() throws Exception {
+
+        double shed = shed("overload");
+        try (var holder = admissionControl.admit("holder", "posts", 10)) {
+            assertTrue(holder.admitted());
+
+            mockMvc.perform(get("/api/v1/posts").header(CLIENT, "waiting"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+            // other resources have their own capacity
+            mockMvc.perform(get("/api/v1/users").header(CLIENT, "waiting"))
+                    .andExpect(status().isOk());
+        }
+
+        // the shed request did not spend the client's tokens
+        mockMvc.perform(get("/api/v1/posts").queryParam("size", "60").header(CLIENT, "waiting"))
+                .andExpect(status().isOk());
+        assertEquals(shed + 1, shed("overload"));
+        assertTrue(meterRegistry.get("blog.admission.queued").tag("resource", "posts").counter().count() >= 1);
+        assertEquals(0, meterRegistry.get("blog.admission.in-flight").tag("resource", "posts").gauge().value());
+    }
+
+    private double shed(String reason) {
+        var counter = meterRegistry.find("blog.admission.shed").tag("resource", "posts").tag("reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
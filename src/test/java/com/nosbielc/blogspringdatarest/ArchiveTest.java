@@ -0,0 +1,207 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.jayway.jsonpath.JsonPath;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentFilter;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.TieredPostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.CommentArchiver;
+import com.nosbielc.blogspringdatarest.infrastructure.services.CommentStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Small batches, so threads and larger sets take several of them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1",
+        "blog.archive.batch-size=2",
+        "blog.archive.watermark-ttl=100ms",
+        "blog.statistics.refresh-interval=1h"
+})
+@AutoConfigureMockMvc
+class ArchiveTest {
+
+    private static final LocalDateTime RECENT = LocalDateTime.now().minusDays(1);
+    private static final LocalDateTime OLD = LocalDateTime.now().minusYears(2);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CommentArchiver commentArchiver;
+    @Autowired
+    private TieredPostCommentRepository tieredPostCommentRepository;
+    @Autowired
+    private CommentStatisticsService commentStatisticsService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void coldCommentsMoveLeavesFirstAndStayReadable() throws Exception {
+
+        var user = user("archive");
+        var post = newPost(user);
+        var oldApproved = comment(post, user, null, OLD, CommentStatus.APPROVED);
+        var oldPending = comment(post, user, null, OLD, CommentStatus.PENDING_APPROVAL);
+        var recentSpam = comment(post, user, null, RECENT, CommentStatus.SPAM);
+        var recentApproved = comment(post, user, null, RECENT, CommentStatus.APPROVED);
+        var oldRoot = comment(post, user, null, OLD, CommentStatus.APPROVED);
+        var oldReply = comment(post, user, oldRoot, OLD.plusDays(1), CommentStatus.APPROVED);
+        var oldNestedReply = comment(post, user, oldReply, OLD.plusDays(2), CommentStatus.REJECTED);
+        var answeredRoot = comment(post, user, null, OLD, CommentStatus.APPROVED);
+        var recentReply = comment(post, user, answeredRoot, RECENT, CommentStatus.APPROVED);
+
+        commentStatisticsService.refresh();
+        var before = commentStatisticsService.forPost(post.getId()).orElseThrow();
+
+        mockMvc.perform(post("/api/v1/postComments/archive"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.archived").value(5));
+
+        var archived = List.of(oldApproved, recentSpam, oldRoot, oldReply, oldNestedReply);
+        assertEquals(5, count("post_comment_archive", archived));
+        assertEquals(0, count("post_comment", archived));
+        assertEquals(4, count("post_comment", List.of(oldPending, recentApproved, answeredRoot, recentReply)));
+        mockMvc.perform(get("/api/v1/postComments/" + oldApproved.getId()))
+                .andExpect(status().isNotFound());
+
+        commentStatisticsService.rebuild();
+        assertEquals(before, commentStatisticsService.forPost(post.getId()).orElseThrow());
+
+        mockMvc.perform(get("/api/v1/postComments/history")
+                        .queryParam("postId", String.valueOf(post.getId()))
+                        .queryParam("status", "APPROVED")
+                        .queryParam("createdFrom", RECENT.minusHours(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.archiveIncluded").value(false))
+                .andExpect(jsonPath("$.comments.length()").value(2));
+        mockMvc.perform(get("/api/v1/postComments/history")
+                        .queryParam("postId", String.valueOf(post.getId()))
+                        .queryParam("status", "SPAM"))
+                .andExpect(jsonPath("$.archiveIncluded").value(true))
+                .andExpect(jsonPath("$.comments[0].id").value(recentSpam.getId()));
+
+        var first = mockMvc.perform(get("/api/v1/postComments/history")
+                        .queryParam("postId", String.valueOf(post.getId()))
+                        .queryParam("size", "5"))
+                .andExpect(jsonPath("$.archiveIncluded").value(true))
+                .andExpect(jsonPath("$.comments.length()").value(5))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/v1/postComments/history")
+                        .queryParam("postId", String.valueOf(post.getId()))
+                        .queryParam("size", "5")
+                        .queryParam("after", JsonPath.<String>read(first, "$.next")))
+                .andExpect(jsonPath("$.comments.length()").value(4))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        mockMvc.perform(delete(format("/api/v1/posts/%s", post.getId())))
+                .andExpect(status().is2xxSuccessful());
+        assertEquals(0, count("post_comment_archive", archived));
+    }
+
+    @Test
+    void queriesReadTheArchiveOnlyWhenTheyCanReachIt() {
+
+        var user = user("tiers");
+        var post = newPost(user);
+        comment(post, user, null, OLD.minusDays(10), CommentStatus.REJECTED);
+        comment(post, user, null, RECENT, CommentStatus.DELETED);
+        commentArchiver.archive();
+
+        assertTrue(tieredPostCommentRepository.includesArchive(filter(null, null)));
+        assertTrue(tieredPostCommentRepository.includesArchive(filter(CommentStatus.DELETED, RECENT.minusHours(1))));
+        assertTrue(tieredPostCommentRepository.includesArchive(filter(CommentStatus.REJECTED, OLD.minusYears(1))));
+        assertFalse(tieredPostCommentRepository.includesArchive(filter(CommentStatus.REJECTED, OLD.plusDays(3))));
+        assertFalse(tieredPostCommentRepository.includesArchive(filter(CommentStatus.PENDING_APPROVAL, null)));
+        assertFalse(tieredPostCommentRepository.includesArchive(filter(null, LocalDateTime.now())));
+    }
+
+    @Test
+    void commentsArchivedByAnotherInstanceAreSeenOnceTheWatermarkExpires() throws Exception {
+
+        var user = user("elsewhere");
+        var post = newPost(user);
+        var createdAt = LocalDateTime.now().plusDays(30).withNano(0);
+        assertFalse(tieredPostCommentRepository.includesArchive(filter(CommentStatus.SPAM, createdAt)));
+
+        jdbcTemplate.update("""
+                        INSERT INTO post_comment_archive (id, post_id, user_id, review, votes, created_at, status, archived_at)
+                        VALUES (?, ?, ?, 'Review', 0, ?, ?, ?)
+                        """, 9_000_000L, post.getId(), user.getId(), createdAt, CommentStatus.SPAM.getCode(),
+                LocalDateTime.now());
+        Thread.sleep(200);
+
+        assertTrue(tieredPostCommentRepository.includesArchive(filter(CommentStatus.SPAM, createdAt)));
+    }
+
+    private static PostCommentFilter filter(CommentStatus status, LocalDateTime createdFrom) {
+        return new PostCommentFilter(null, null, status, null, null, createdFrom, null);
+    }
+
+    private int count(String table, List<PostComment> comments) {
+        var ids = new ArrayList<String>();
+        comments.forEach(comment -> ids.add(String.valueOf(comment.getId())));
+        return jdbcTemplate.queryForObject(format("SELECT COUNT(*) FROM %s WHERE id IN (%s)", table,
+                String.join(",", ids)), Integer.class);
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder()
+                .withFirstName(name)
+                .withLastName("Archive")
+                .withEmail(name + "@email.com")
+                .withAge(40)
+                .build());
+    }
+
+    private Post newPost(User author) {
+        return postRepository.save(Post.builder()
+                .withTitle("Archive")
+                .withContent("Cold comments")
+                .withCreatedAt(OLD)
+                .withUser(author)
+                .build());
+    }
+
+    private PostComment comment(Post post, User user, PostComment parent, LocalDateTime createdAt,
+                                CommentStatus status) {
+        return postCommentRepository.save(PostComment.builder()
+                .withPost(post)
+                .withUser(user)
+                .withParentPostComment(parent)
+                .withReview("Review")
+                .withVotes(1)
+                .withCreatedAt(createdAt)
+                .withStatus(status)
+                .build());
+    }
+}
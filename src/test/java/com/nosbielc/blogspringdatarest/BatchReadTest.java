@@ -0,0 +1,138 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.QueryCounter;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch;DB_CLOSE_DELAY=-1",
+        "blog.batch.max-ids=10",
+        "blog.batch.comments-per-post=3"
+})
+@AutoConfigureMockMvc
+class BatchReadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private QueryCounter queryCounter;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+
+    @Test
+    void resolvesIdsAndIncludesInAFixedNumberOfStatements() throws Exception {
+
+        var author = user("author");
+        var reader = user("reader");
+        var other = user("other");
+        var first = post(author);
+        var second = post(author);
+        var elsewhere = post(other);
+        var comments = new ArrayList<PostComment>();
+        for (int i = 0; i < 5; i++) {
+            comments.add(comment(first, i % 2 == 0 ? reader : author, i));
+        }
+        var onlyOfSecond = comment(second, reader, 0);
+        var foreign = comment(elsewhere, other, 0);
+
+        var start = queryCounter.snapshot();
+        mockMvc.perform(get("/api/v1/batch")
+                        .queryParam("posts", ids(second, first))
+                        .queryParam("postComments", String.valueOf(foreign.getId()))
+                        .queryParam("users", String.valueOf(reader.getId()))
+                        .queryParam("include", "user,post,comments.user"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.posts[*].id").value(contains(second.getId().intValue(),
+                        first.getId().intValue())))
+                .andExpect(jsonPath("$.data.posts[0].userId").value(author.getId()))
+                .andExpect(jsonPath("$.data.postComments[0].id").value(foreign.getId()))
+                .andExpect(jsonPath("$.data.users[*].id").value(contains(reader.getId().intValue())))
+                .andExpect(jsonPath("$.included.posts[*].id").value(contains(elsewhere.getId().intValue())))
+                // newest three of the first post, the only one of the second
+                .andExpect(jsonPath("$.included.postComments[*].id").value(containsInAnyOrder(
+                        comments.get(4).getId().intValue(), comments.get(3).getId().intValue(),
+                        comments.get(2).getId().intValue(), onlyOfSecond.getId().intValue())))
+                // reader is in data, so only author and other are included, once each
+                .andExpect(jsonPath("$.included.users[*].id").value(containsInAnyOrder(
+                        author.getId().intValue(), other.getId().intValue())));
+        var cost = queryCounter.snapshot().since(start);
+
+        // the newest comments per post are read through JDBC, which the counter does not see
+        assertEquals(3, cost.statements());
+        assertEquals(0, cost.entities());
+    }
+
+    @Test
+    void rejectsUnknownIncludesAndTooManyIds() throws Exception {
+
+        mockMvc.perform(get("/api/v1/batch")
+                        .queryParam("users", "1")
+                        .queryParam("include", "followers"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/batch")
+                        .queryParam("posts", "1,2,3,4,5,6")
+                        .queryParam("users", "1,2,3,4,5"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/batch"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String ids(Post... posts) {
+        return List.of(posts).stream().map(post -> String.valueOf(post.getId())).collect(Collectors.joining(","));
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder()
+                .withFirstName(name)
+                .withLastName("Batch")
+                .withEmail(name + "@email.com")
+                .withAge(30)
+                .build());
+    }
+
+    private Post post(User author) {
+        return postRepository.save(Post.builder()
+                .withTitle("Batch")
+                .withContent("Compound document")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(author)
+                .build());
+    }
+
+    private PostComment comment(Post post, User user, int minutes) {
+        return postCommentRepository.save(PostComment.builder()
+                .withPost(post)
+                .withUser(user)
+                .withReview("Review")
+                .withVotes(0)
+                .withCreatedAt(LocalDateTime.now().minusHours(1).plusMinutes(minutes))
+                .withStatus(CommentStatus.APPROVED)
+                .build());
+    }
+}
@@ -0,0 +1,162 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.jayway.jsonpath.JsonPath;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.CommentIngestionQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The writer only wakes up on a full batch or after an hour here, so comments stay queued until the
+ * test flushes them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ingestion;DB_CLOSE_DELAY=-1",
+        "blog.ingestion.enabled=true",
+        "blog.ingestion.queue-capacity=3",
+        "blog.ingestion.batch-size=100",
+        "blog.ingestion.flush-interval=1h"
+})
+@AutoConfigureMockMvc
+class CommentIngestionTest {
+
+    private static final String URL_QUEUE = "/api/v1/postComments/queue";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CommentIngestionQueue commentIngestionQueue;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+
+    private Long userId;
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+
+        commentIngestionQueue.flush();
+        if (postRepository.count() == 0) {
+            var user = userRepository.save(User.builder()
+                    .withFirstName("John")
+                    .withLastName("Snow")
+                    .withEmail("j_snow@email.com")
+                    .withAge(76)
+                    .build());
+            postRepository.save(Post.builder()
+                    .withTitle("Post title")
+                    .withContent("Post Content")
+                    .withCreatedAt(LocalDateTime.now())
+                    .withUser(user)
+                    .build());
+        }
+        userId = userRepository.findAll().get(0).getId();
+        postId = postRepository.findAll().get(0).getId();
+    }
+
+    @Test
+    void queuedCommentIsWrittenOnFlush() throws Exception {
+
+        long comments = postRepository.findById(postId).orElseThrow().getCommentCount();
+
+        var trackingId = trackingId(enqueue(postId, userId, "Queued review")
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andExpect(jsonPath("$.state").value("QUEUED")));
+
+        mockMvc.perform(get(URL_QUEUE + "/" + trackingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+        assertEquals(1, commentIngestionQueue.depth());
+
+        commentIngestionQueue.flush();
+
+        var commentId = JsonPath.parse(mockMvc.perform(get(URL_QUEUE + "/" + trackingId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.state").value("WRITTEN"))
+                        .andReturn().getResponse().getContentAsString())
+                .read("$.commentId", Long.class);
+        assertEquals("Queued review", postCommentRepository.findById(commentId).orElseThrow().getReview());
+        assertEquals(comments + 1, postRepository.findById(postId).orElseThrow().getCommentCount());
+        assertTrue(meterRegistry.get("blog.ingestion.flush").timer().count() > 0);
+    }
+
+    @Test
+    void fullQueueAnswersTooManyRequests() throws Exception {
+
+        for (int i = 0; i < 3; i++) {
+            enqueue(postId, userId, format("Review %s", i)).andExpect(status().isAccepted());
+        }
+
+        enqueue(postId, userId, "Overflow")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        assertEquals(3.0, meterRegistry.get("blog.ingestion.queue.depth").gauge().value());
+
+        commentIngestionQueue.flush();
+        enqueue(postId, userId, "After flush").andExpect(status().isAccepted());
+    }
+
+    @Test
+    void unknownPostFailsOnlyItsOwnComment() throws Exception {
+
+        var written = trackingId(enqueue(postId, userId, "Valid").andExpect(status().isAccepted()));
+        var failed = trackingId(enqueue(Long.MAX_VALUE, userId, "Orphan").andExpect(status().isAccepted()));
+
+        commentIngestionQueue.flush();
+
+        mockMvc.perform(get(URL_QUEUE + "/" + written))
+                .andExpect(jsonPath("$.state").value("WRITTEN"));
+        mockMvc.perform(get(URL_QUEUE + "/" + failed))
+                .andExpect(jsonPath("$.state").value("FAILED"))
+                .andExpect(jsonPath("$.error").value("Post, usuário ou comentário pai inexistente"));
+    }
+
+    @Test
+    void incompleteCommentIsRejected() throws Exception {
+
+        enqueue(postId, null, "No user").andExpect(status().isBadRequest());
+        enqueue(postId, userId, " ").andExpect(status().isBadRequest());
+        assertEquals(0, commentIngestionQueue.depth());
+    }
+
+    private ResultActions enqueue(Long postId, Long userId, String review) throws Exception {
+        return mockMvc.perform(post(URL_QUEUE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(format("{\"postId\": %s, \"userId\": %s, \"review\": \"%s\", \"votes\": 2}",
+                        postId, userId, review)));
+    }
+
+    private static String trackingId(ResultActions result) throws Exception {
+        return JsonPath.read(result.andReturn().getResponse().getContentAsString(), "$.trackingId");
+    }
+}
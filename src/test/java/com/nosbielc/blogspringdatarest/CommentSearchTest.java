@@ -0,0 +1,130 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentSearch;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentSearchRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:comment-search;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class CommentSearchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+    @Autowired
+    private PostCommentSearchRepository postCommentSearchRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void filterResourceAnswersAsTheSpecs() throws Exception {
+
+        var post = seed("filter");
+        var search = new PostCommentSearch(post.getId(), null, List.of(CommentStatus.APPROVED, CommentStatus.SPAM),
+                2, null, null, null);
+        var expected = postCommentRepository.findAll(search.toSpecification(),
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "votes").and(Sort.by("id"))));
+
+        mockMvc.perform(get("/api/v1/postComments/search/filter")
+                        .queryParam("postId", String.valueOf(post.getId()))
+                        .queryParam("status", "APPROVED", "SPAM")
+                        .queryParam("minVotes", "2")
+                        .queryParam("sort", "votes,desc")
+                        .queryParam("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.postComments[*].votes").value(contains(
+                        expected.getContent().stream().map(PostComment::getVotes).toArray())))
+                .andExpect(jsonPath("$.page.totalElements").value(expected.getTotalElements()))
+                .andExpect(jsonPath("$._links.next.href").exists());
+
+        mockMvc.perform(get("/api/v1/postComments/search"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.filter.href").value(startsWith(
+                        "http://localhost/api/v1/postComments/search/filter{?postId")));
+        mockMvc.perform(get("/api/v1/postComments/search/filter").queryParam("sort", "review"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchesOfTheSameShapeReuseTheCompiledPlan() {
+
+        var first = seed("first");
+        var second = seed("second");
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        var pageable = PageRequest.of(0, 5);
+
+        postCommentSearchRepository.search(new PostCommentSearch(first.getId(), null,
+                List.of(CommentStatus.APPROVED), 1, null, null, null), pageable);
+        long plans = postCommentSearchRepository.planCount();
+        long hits = statistics.getQueryPlanCacheHitCount();
+
+        var page = postCommentSearchRepository.search(new PostCommentSearch(second.getId(), null,
+                List.of(CommentStatus.SPAM), 3, null, null, null), pageable);
+
+        assertEquals(plans, postCommentSearchRepository.planCount());
+        assertTrue(statistics.getQueryPlanCacheHitCount() > hits);
+        assertTrue(page.getContent().stream().allMatch(comment -> comment.getPost().getId().equals(second.getId())
+                && comment.getStatus() == CommentStatus.SPAM && comment.getVotes() >= 3));
+    }
+
+    private Post seed(String name) {
+        var user = userRepository.save(User.builder()
+                .withFirstName(name)
+                .withLastName("Search")
+                .withEmail(name + "@email.com")
+                .withAge(30)
+                .build());
+        var post = postRepository.save(Post.builder()
+                .withTitle("Search")
+                .withContent("Filters")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(user)
+                .build());
+        var statuses = CommentStatus.values();
+        for (int i = 0; i < 20; i++) {
+            postCommentRepository.save(PostComment.builder()
+                    .withPost(post)
+                    .withUser(user)
+                    .withReview("Review " + i)
+                    .withVotes(i % 7)
+                    .withCreatedAt(LocalDateTime.now().minusMinutes(i))
+                    .withStatus(statuses[i % statuses.length])
+                    .build());
+        }
+        return post;
+    }
+}
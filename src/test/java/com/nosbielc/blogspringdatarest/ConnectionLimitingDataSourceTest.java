@@ -0,0 +1,93 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ExecutionProperties;
+import com.nosbielc.blogspringdatarest.infrastructure.config.VirtualThreadConfig;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.ConnectionLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConnectionLimitingDataSourceTest {
+
+    private HikariDataSource hikari;
+
+    @BeforeEach
+    void setUp() {
+        hikari = new HikariDataSource();
+        hikari.setJdbcUrl("jdbc:h2:mem:limiting;DB_CLOSE_DELAY=-1");
+        hikari.setMaximumPoolSize(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hikari.close();
+    }
+
+    @Test
+    void onlyThePrimaryPoolIsLimited() {
+
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("executionProperties", new ExecutionProperties(true, Duration.ofSeconds(1)));
+        var processor = VirtualThreadConfig.connectionLimitingDataSourcePostProcessor(
+                beanFactory.getBeanProvider(ExecutionProperties.class));
+
+        assertInstanceOf(ConnectionLimitingDataSource.class, processor.postProcessAfterInitialization(hikari, "dataSource"));
+        assertInstanceOf(ConnectionLimitingDataSource.class,
+                processor.postProcessAfterInitialization(hikari, "primaryDataSource"));
+        assertSame(hikari, processor.postProcessAfterInitialization(hikari, "replicaDataSource"));
+    }
+
+    @Test
+    void connectionsBeyondPoolSizeWaitInLine() throws Exception {
+
+        var dataSource = new ConnectionLimitingDataSource(hikari, 2, Duration.ofMillis(200));
+
+        try (var first = dataSource.getConnection(); var second = dataSource.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        }
+
+        try (var connection = dataSource.getConnection()) {
+            assertEquals(0, dataSource.waiting());
+        }
+    }
+
+    @Test
+    void aReleasedConnectionGoesToTheCallerWaitingInLine() throws Exception {
+
+        var dataSource = new ConnectionLimitingDataSource(hikari, 2, Duration.ofSeconds(10));
+        var first = dataSource.getConnection();
+        var second = dataSource.getConnection();
+
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (dataSource.waiting() == 0) {
+            Thread.sleep(10);
+        }
+        assertFalse(waiting.isDone());
+
+        first.close();
+        try (var third = waiting.get(5, TimeUnit.SECONDS)) {
+            assertEquals(0, dataSource.waiting());
+        }
+        second.close();
+    }
+}
@@ -2,6 +2,7 @@ package com.nosbielc.blogspringdatarest;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
@@ -9,14 +10,19 @@ import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentS
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
 import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.VoteBuffer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -29,8 +35,17 @@ import java.util.List;
 import java.util.Random;
 
 import static java.lang.String.format;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -46,6 +61,8 @@ class DataRestTest {
     private PostRepository postRepository;
     @Autowired
     private PostCommentRepository postCommentRepository;
+    @Autowired
+    private VoteBuffer voteBuffer;
 
     private List<User> userList = new ArrayList<>();
     private List<Post> postList = new ArrayList<>();
@@ -276,6 +293,58 @@ class DataRestTest {
 
     }
 
+    @Test
+    void findUsersWithProjectionUserResume() throws Exception {
+
+        var user = userRepository.findAll(Sort.by("id")).get(0);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL_BASE_USER)
+                        .queryParam("projection", "usersResume")
+                        .queryParam("sort", "id")
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.users[0].id").value(user.getId()))
+                .andExpect(jsonPath("$._embedded.users[0].fullName")
+                        .value(user.getFirstName().concat(" ").concat(user.getLastName())))
+                .andExpect(jsonPath("$._embedded.users[0].firstName").doesNotExist())
+                .andExpect(jsonPath("$._embedded.users[0].version").doesNotExist())
+                .andExpect(jsonPath("$._embedded.users[0]._links.self.href")
+                        .value(endsWith(URL_BASE_USER.concat("/").concat(String.valueOf(user.getId())))))
+                .andExpect(jsonPath("$._embedded.users[0]._links.user.templated").value(true))
+                .andExpect(jsonPath("$._embedded.users[0]._links.posts").exists())
+                .andExpect(jsonPath("$._embedded.users[0]._links.comments").exists())
+                .andExpect(jsonPath("$._links.profile").exists())
+                .andExpect(jsonPath("$.page.totalElements").value(userRepository.count()));
+
+    }
+
+    @Test
+    void findCommentsWithProjectionPostCommentResume() throws Exception {
+
+        var comment = postCommentRepository.findAll(PageRequest.of(0, 1, Sort.by("id"))).getContent().get(0);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL_BASE_POST_COMMENT)
+                        .queryParam("projection", "postCommentResume")
+                        .queryParam("sort", "id")
+                        .queryParam("size", "5")
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.postComments", hasSize(5)))
+                .andExpect(jsonPath("$._embedded.postComments[0].id").value(comment.getId()))
+                .andExpect(jsonPath("$._embedded.postComments[0].review").value(comment.getReview()))
+                .andExpect(jsonPath("$._embedded.postComments[0].status").value(comment.getStatus().name()))
+                .andExpect(jsonPath("$._embedded.postComments[0].createdAt").doesNotExist())
+                .andExpect(jsonPath("$._embedded.postComments[0]._links.post").exists())
+                .andExpect(jsonPath("$._links.next").exists())
+                .andExpect(jsonPath("$._links.search").exists())
+                .andExpect(jsonPath("$.page.size").value(5));
+
+    }
+
     @ParameterizedTest
     @CsvSource({"5", "10", "20", "30"})
     void findCommentsWithSize(Integer size) throws Exception {
@@ -293,6 +362,778 @@ class DataRestTest {
 
     }
 
+    @ParameterizedTest
+    @CsvSource({"1", "25"})
+    void createCommentsInBulk(Integer rows) throws Exception {
+
+        var post = postList.get(0);
+        var body = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            body.append(format("{\"postId\":%s,\"userId\":%s,\"review\":\"Bulk review %s\",\"votes\":%s,\"status\":\"APPROVED\"}%n",
+                    post.getId(), userList.get(0).getId(), i, i));
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.post(URL_BASE_POST_COMMENT.concat("/bulk"))
+                        .principal(mockPrincipal)
+                        .content(body.toString())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(rows))
+                .andExpect(jsonPath("$.chunks").value(1));
+
+    }
+
+    @Test
+    void createCommentsInBulkRejectsMissingPost() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.post(URL_BASE_POST_COMMENT.concat("/bulk"))
+                        .principal(mockPrincipal)
+                        .content("{\"review\":\"Orphan\"}\n")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isBadRequest());
+
+    }
+
+    @ParameterizedTest
+    @CsvSource({"5", "30"})
+    void seekCommentsWithSize(Integer size) throws Exception {
+
+        var firstWindow = mockMvc.perform(MockMvcRequestBuilders.get(URL_BASE_POST_COMMENT.concat("/seek"))
+                        .queryParam("size", String.valueOf(size))
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.postComments", hasSize(size)))
+                .andExpect(jsonPath("$.page").doesNotExist())
+                .andExpect(jsonPath("$._links.next").exists())
+                .andExpect(jsonPath("$._links.prev").doesNotExist())
+                .andReturn();
+
+        String next = JsonPath.read(firstWindow.getResponse().getContentAsString(), "$._links.next.href");
+
+        var secondWindow = mockMvc.perform(MockMvcRequestBuilders.get(next)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.postComments", hasSize(size)))
+                .andExpect(jsonPath("$._links.prev").exists())
+                .andReturn();
+
+        String prev = JsonPath.read(secondWindow.getResponse().getContentAsString(), "$._links.prev.href");
+
+        mockMvc.perform(MockMvcRequestBuilders.get(prev)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.postComments[0]._links.self.href")
+                        .value(JsonPath.<String>read(firstWindow.getResponse().getContentAsString(),
+                                "$._embedded.postComments[0]._links.self.href")));
+
+    }
+
+    @Test
+    void seekCommentsByPost() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL_BASE_POST_COMMENT.concat("/seek"))
+                        .queryParam("postId", String.valueOf(postList.get(1).getId()))
+                        .queryParam("size", "20")
+                        .queryParam("projection", "postCommentResume")
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.postComments", hasSize(10)))
+                .andExpect(jsonPath("$._embedded.postComments[0].review").exists())
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+
+    }
+
+    @Test
+    void seekWalksUndatedCommentsFirstAndOnlyOnce() throws Exception {
+
+        var post = postRepository.save(Post.builder()
+                .withTitle("Undated")
+                .withContent("Comments without a date")
+                .withUser(userList.get(0))
+                .build());
+        var expected = new ArrayList<String>();
+        for (int i = 0; i < 5; i++) {
+            var comment = postCommentRepository.save(PostComment.builder()
+                    .withPost(post)
+                    .withUser(userList.get(1))
+                    .withReview(format("Undated %s", i))
+                    .withVotes(0)
+                    .withCreatedAt(i < 3 ? null : LocalDateTime.now().plusSeconds(i))
+                    .withStatus(CommentStatus.APPROVED)
+                    .build());
+            expected.add(String.valueOf(comment.getId()));
+        }
+
+        var seen = new ArrayList<String>();
+        var windows = new ArrayList<String>();
+        String next = URL_BASE_POST_COMMENT.concat(format("/seek?postId=%s&size=2", post.getId()));
+        while (next != null) {
+            var window = mockMvc.perform(MockMvcRequestBuilders.get(next)
+                            .principal(mockPrincipal)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            windows.add(window);
+            JsonPath.<List<String>>read(window, "$._embedded.postComments[*]._links.self.href")
+                    .forEach(href -> seen.add(href.substring(href.lastIndexOf('/') + 1)));
+            next = JsonPath.<List<String>>read(window, "$._links[?(@.next)].next.href").stream().findFirst().orElse(null);
+        }
+        assertEquals(expected, seen);
+
+        // back from a dated cursor into the undated rows, then from an undated cursor
+        assertPrev(windows.get(2), expected.get(2), expected.get(3));
+        assertPrev(windows.get(1), expected.get(0), expected.get(1));
+
+        var history = new ArrayList<String>();
+        String after = null;
+        do {
+            var request = MockMvcRequestBuilders.get(URL_BASE_POST_COMMENT.concat("/history"))
+                    .queryParam("postId", String.valueOf(post.getId()))
+                    .queryParam("size", "2");
+            if (after != null) {
+                request.queryParam("after", after);
+            }
+            var window = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonPath.<List<Integer>>read(window, "$.comments[*].id").forEach(id -> history.add(String.valueOf(id)));
+            after = JsonPath.read(window, "$.next");
+        } while (after != null);
+        assertEquals(expected, history);
+
+    }
+
+    @Test
+    void seekPostsRejectsInvalidCursor() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL_BASE_POST.concat("/seek"))
+                        .queryParam("after", "not-a-cursor")
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isBadRequest());
+
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1", "2"})
+    void patchUserInvalidatesCachedUser(Long id) throws Exception {
+
+        var url = URL_BASE_USER.concat("/").concat(String.valueOf(id));
+        var age = userRepository.findById(id).orElseThrow().getAge() + 10;
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.patch(url)
+                        .principal(mockPrincipal)
+                        .content(format("{\"age\":%s}", age))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.age").value(age));
+
+    }
+
+    @Test
+    void cacheStatisticsPerRegion() throws Exception {
+
+        var url = URL_BASE_POST.concat("/").concat(String.valueOf(postList.get(0).getId()));
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get(url)
+                            .principal(mockPrincipal)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/cacheStatistics")
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.region == 'post')].hits").isNotEmpty())
+                .andExpect(jsonPath("$[?(@.region == 'post' && @.hits > 0)]").isNotEmpty())
+                .andExpect(jsonPath("$[?(@.region == 'user.posts')]").isNotEmpty())
+                .andExpect(jsonPath("$[?(@.region == 'postComment.specs')]").isNotEmpty());
+
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/api/v1/posts, 1, 7, createdAt;desc",
+            "/api/v1/postComments, 2, 25, votes;desc|id",
+            "/api/v1/postComments, 0, 1000, ''"
+    })
+    void streamedPageMatchesTheCollectionResource(String url, int page, int size, String sort) throws Exception {
+
+        var query = format("page=%s&size=%s", page, size) + (sort.isEmpty() ? ""
+                : "&sort=" + sort.replace(';', ',').replace("|", "&sort="));
+        var expected = new ObjectMapper().readTree(mockMvc.perform(MockMvcRequestBuilders.get(url + "?" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.get(url + "?stream&" + query))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var streamed = new ObjectMapper().readTree(mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/hal+json"))
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(expected.get("_embedded"), streamed.get("_embedded"));
+        assertEquals(expected.get("page"), streamed.get("page"));
+        var expectedRels = new ArrayList<String>();
+        expected.get("_links").fieldNames().forEachRemaining(expectedRels::add);
+        var streamedRels = new ArrayList<String>();
+        streamed.get("_links").fieldNames().forEachRemaining(streamedRels::add);
+        assertEquals(expectedRels, streamedRels);
+        assertTrue(streamed.at("/_links/self/href").asText().contains("stream"));
+
+    }
+
+    @Test
+    void streamedPageRejectsUnknownSort() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL_BASE_POST)
+                        .queryParam("stream", "")
+                        .queryParam("sort", "content"))
+                .andExpect(status().isBadRequest());
+
+    }
+
+    @Test
+    void exportCommentsByPostAsNdjson() throws Exception {
+
+        var post = postList.get(1);
+        var result = mockMvc.perform(MockMvcRequestBuilders.get(URL_BASE_POST_COMMENT.concat("/export"))
+                        .queryParam("postId", String.valueOf(post.getId()))
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        var lines = body.lines().toList();
+        assertEquals(10, lines.size());
+        lines.forEach(line -> assertEquals(post.getId().intValue(), JsonPath.<Integer>read(line, "$.postId")));
+
+    }
+
+    @Test
+    void exportCommentsByStatusAsCsv() throws Exception {
+
+        var expected = postCommentRepository.findAll(PostCommentRepository.Specs.byStatus(CommentStatus.SPAM)).size();
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.get(URL_BASE_POST_COMMENT.concat("/export"))
+                        .queryParam("status", CommentStatus.SPAM.name())
+                        .principal(mockPrincipal)
+                        .accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().lines().toList();
+
+        assertEquals("id,postId,userId,parentPostCommentId,review,votes,createdAt,status", lines.get(0));
+        assertEquals(expected, lines.size() - 1);
+        lines.stream().skip(1).forEach(line -> assertTrue(line.endsWith(",SPAM")));
+
+    }
+
+    @Test
+    void findCommentTreeOfPost() throws Exception {
+
+        var post = postRepository.save(Post.builder()
+                .withTitle("Thread")
+                .withContent("Thread")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(userList.get(0))
+                .build());
+        var root = saveReply(post, null, "root");
+        var first = saveReply(post, root, "first");
+        saveReply(post, root, "second");
+        saveReply(post, first, "nested");
+
+        var url = URL_BASE_POST.concat("/").concat(String.valueOf(post.getId())).concat("/commentTree");
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(4))
+                .andExpect(jsonPath("$.truncated").value(false))
+                .andExpect(jsonPath("$.comments", hasSize(1)))
+                .andExpect(jsonPath("$.comments[0].review").value("root"))
+                .andExpect(jsonPath("$.comments[0].replies", hasSize(2)))
+                .andExpect(jsonPath("$.comments[0].replies[0].review").value("first"))
+                .andExpect(jsonPath("$.comments[0].replies[0].replies[0].review").value("nested"))
+                .andExpect(jsonPath("$.comments[0].replies[0].replies[0].depth").value(2));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .queryParam("depth", "1")
+                        .queryParam("limit", "2")
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.truncated").value(true))
+                .andExpect(jsonPath("$.comments[0].replies", hasSize(1)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .queryParam("rootId", String.valueOf(first.getId()))
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].review").value("first"))
+                .andExpect(jsonPath("$.comments[0].replies[0].review").value("nested"));
+
+    }
+
+    @Test
+    void findCommentTreeOfUnknownPost() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL_BASE_POST.concat("/0/commentTree"))
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isNotFound());
+
+    }
+
+    @Test
+    void voteCommentIsAppliedOnFlush() throws Exception {
+
+        var post = postRepository.save(Post.builder()
+                .withTitle("Votes")
+                .withContent("Votes")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(userList.get(0))
+                .build());
+        var comment = saveReply(post, null, "vote me");
+        var url = URL_BASE_POST_COMMENT.concat("/").concat(String.valueOf(comment.getId()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.votes").value(0));
+        var resumeETag = mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .queryParam("projection", "postCommentResume")
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        for (var delta : List.of("3", "3", "-1")) {
+            mockMvc.perform(MockMvcRequestBuilders.post(url.concat("/votes"))
+                            .queryParam("delta", delta)
+                            .principal(mockPrincipal))
+                    .andExpect(status().isAccepted());
+        }
+
+        voteBuffer.flush();
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.votes").value(5));
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .queryParam("projection", "postCommentResume")
+                        .principal(mockPrincipal)
+                        .header(HttpHeaders.IF_NONE_MATCH, resumeETag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(resumeETag)))
+                .andExpect(jsonPath("$.votes").value(5));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL_BASE_POST.concat("/").concat(String.valueOf(post.getId())))
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalVotes").value(5));
+
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0, 0, 400", "-1, 1, 404"})
+    void voteCommentRejectsInvalidRequest(Long id, Long delta, Integer status) throws Exception {
+
+        var commentId = id == 0 ? postCommentList.get(0).getId() : id;
+
+        mockMvc.perform(MockMvcRequestBuilders.post(URL_BASE_POST_COMMENT.concat("/" + commentId + "/votes"))
+                        .queryParam("delta", String.valueOf(delta))
+                        .principal(mockPrincipal))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().is(status));
+
+    }
+
+    @Test
+    void createCommentUpdatesPostCounters() throws Exception {
+
+        var post = postRepository.save(Post.builder()
+                .withTitle("Counters")
+                .withContent("Counters")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(userList.get(0))
+                .build());
+        var postUrl = URL_BASE_POST.concat("/").concat(String.valueOf(post.getId()));
+
+        mockMvc.perform(MockMvcRequestBuilders.post(URL_BASE_POST_COMMENT)
+                        .principal(mockPrincipal)
+                        .content(format("{\"review\":\"Counted\",\"votes\":4,\"status\":\"APPROVED\",\"createdAt\":\"%s\",\"post\":\"%s\",\"user\":\"%s\"}",
+                                LocalDateTime.now(), postUrl, URL_BASE_USER.concat("/").concat(String.valueOf(userList.get(0).getId()))))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(MockMvcRequestBuilders.put(postUrl)
+                        .principal(mockPrincipal)
+                        .content("{\"title\":\"Counters\",\"content\":\"Edited\",\"commentCount\":99}")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(postUrl)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value("Edited"))
+                .andExpect(jsonPath("$.commentCount").value(1))
+                .andExpect(jsonPath("$.totalVotes").value(4));
+
+    }
+
+    @Test
+    void movingOrDeletingCommentsRecountsEveryPostInvolved() throws Exception {
+
+        var first = postRepository.save(Post.builder()
+                .withTitle("Moved from")
+                .withContent("Counters")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(userList.get(0))
+                .build());
+        var second = postRepository.save(Post.builder()
+                .withTitle("Moved to")
+                .withContent("Counters")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(userList.get(0))
+                .build());
+        var firstUrl = URL_BASE_POST.concat("/").concat(String.valueOf(first.getId()));
+        var secondUrl = URL_BASE_POST.concat("/").concat(String.valueOf(second.getId()));
+        var userUrl = URL_BASE_USER.concat("/").concat(String.valueOf(userList.get(0).getId()));
+
+        var parentUrl = createComment(firstUrl, userUrl, 4, null);
+        createComment(firstUrl, userUrl, 2, parentUrl);
+        assertCounters(firstUrl, 2, 6);
+
+        mockMvc.perform(MockMvcRequestBuilders.put(parentUrl.concat("/post"))
+                        .principal(mockPrincipal)
+                        .content(secondUrl)
+                        .contentType("text/uri-list"))
+                .andExpect(status().is2xxSuccessful());
+        assertCounters(firstUrl, 1, 2);
+        assertCounters(secondUrl, 1, 4);
+
+        // the reply on the first post goes with its parent
+        mockMvc.perform(MockMvcRequestBuilders.delete(parentUrl)
+                        .principal(mockPrincipal))
+                .andExpect(status().is2xxSuccessful());
+        assertCounters(firstUrl, 0, 0);
+        assertCounters(secondUrl, 0, 0);
+
+    }
+
+    private String createComment(String postUrl, String userUrl, int votes, String parentUrl) throws Exception {
+        var parent = parentUrl == null ? "" : format(",\"parentPostComment\":\"%s\"", parentUrl);
+        var location = mockMvc.perform(MockMvcRequestBuilders.post(URL_BASE_POST_COMMENT)
+                        .principal(mockPrincipal)
+                        .content(format("{\"review\":\"Counted\",\"votes\":%d,\"status\":\"APPROVED\",\"createdAt\":\"%s\",\"post\":\"%s\",\"user\":\"%s\"%s}",
+                                votes, LocalDateTime.now(), postUrl, userUrl, parent))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        return location.substring(location.indexOf(URL_BASE_POST_COMMENT));
+    }
+
+    private void assertCounters(String postUrl, long comments, long votes) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(postUrl)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.commentCount").value(comments))
+                .andExpect(jsonPath("$.totalVotes").value(votes));
+    }
+
+    @Test
+    void findPostAnswersIfNoneMatchWithNotModified() throws Exception {
+
+        var url = URL_BASE_POST.concat("/").concat(String.valueOf(postList.get(0).getId()));
+
+        var eTag = mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get(url)
+                            .principal(mockPrincipal)
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andDo(MockMvcResultHandlers.print())
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        }
+
+    }
+
+    @Test
+    void updatePostChangesETag() throws Exception {
+
+        var post = postRepository.save(Post.builder()
+                .withTitle("Versioned")
+                .withContent("Versioned")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(userList.get(0))
+                .build());
+        var url = URL_BASE_POST.concat("/").concat(String.valueOf(post.getId()));
+
+        var eTag = mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch(url)
+                        .principal(mockPrincipal)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content("{\"title\":\"Versioned again\"}")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .principal(mockPrincipal)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.title").value("Versioned again"));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch(url)
+                        .principal(mockPrincipal)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content("{\"title\":\"Lost update\"}")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+
+    }
+
+    @Test
+    void counterUpdatesChangeTheETag() throws Exception {
+
+        var post = postRepository.save(Post.builder()
+                .withTitle("Counted")
+                .withContent("Counted")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(userList.get(0))
+                .build());
+        var url = URL_BASE_POST.concat("/").concat(String.valueOf(post.getId()));
+        var userUrl = URL_BASE_USER.concat("/").concat(String.valueOf(userList.get(0).getId()));
+
+        var eTag = mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        createComment(url, userUrl, 3, null);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .principal(mockPrincipal)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.commentCount").value(1))
+                .andExpect(jsonPath("$.totalVotes").value(3));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch(url)
+                        .principal(mockPrincipal)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content("{\"title\":\"Counted again\"}")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+        assertCounters(url, 1, 3);
+
+    }
+
+    @Test
+    void searchFindsPostsAndCommentsWrittenThroughTheApi() throws Exception {
+
+        var userUrl = URL_BASE_USER.concat("/").concat(String.valueOf(userList.get(0).getId()));
+        var postUrl = mockMvc.perform(MockMvcRequestBuilders.post(URL_BASE_POST)
+                        .principal(mockPrincipal)
+                        .content(format("{\"title\":\"Zeppelin\",\"content\":\"The zeppelin landed <safely>\",\"createdAt\":\"%s\",\"user\":\"%s\"}",
+                                LocalDateTime.now(), userUrl))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        var commentUrl = mockMvc.perform(MockMvcRequestBuilders.post(URL_BASE_POST_COMMENT)
+                        .principal(mockPrincipal)
+                        .content(format("{\"review\":\"Nice zeppelin\",\"votes\":0,\"status\":\"APPROVED\",\"createdAt\":\"%s\",\"post\":\"%s\",\"user\":\"%s\"}",
+                                LocalDateTime.now(), postUrl, userUrl))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/search")
+                        .principal(mockPrincipal)
+                        .queryParam("q", "zeppelin")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", hasSize(2)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/search")
+                        .principal(mockPrincipal)
+                        .queryParam("q", "zeppelin")
+                        .queryParam("type", "post")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", hasSize(1)))
+                .andExpect(jsonPath("$.hits[0].id").value(Long.valueOf(postUrl.substring(postUrl.lastIndexOf('/') + 1))))
+                .andExpect(jsonPath("$.hits[0].highlights.title[0]").value("<em>Zeppelin</em>"))
+                .andExpect(jsonPath("$.hits[0].highlights.content[0]").value("The <em>zeppelin</em> landed &lt;safely&gt;"));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete(commentUrl)
+                        .principal(mockPrincipal))
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/search")
+                        .principal(mockPrincipal)
+                        .queryParam("q", "zeppelin")
+                        .queryParam("type", "comment")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", hasSize(0)));
+
+    }
+
+    @Test
+    void reindexPicksUpRowsWrittenOutsideTheApi() throws Exception {
+
+        postRepository.save(Post.builder()
+                .withTitle("Marsupials")
+                .withContent("A quokka smiles")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(userList.get(0))
+                .build());
+        var search = MockMvcRequestBuilders.get("/api/v1/search")
+                .principal(mockPrincipal)
+                .queryParam("q", "quokka")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(search)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", hasSize(0)));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/search/reindex")
+                        .principal(mockPrincipal))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.posts").value(postRepository.count()))
+                .andExpect(jsonPath("$.comments").value(postCommentRepository.count()));
+
+        mockMvc.perform(search)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", hasSize(1)))
+                .andExpect(jsonPath("$.hits[0].type").value("post"));
+
+    }
+
+    @ParameterizedTest
+    @CsvSource({"'title:(', ", "review, user"})
+    void searchRejectsInvalidRequest(String query, String type) throws Exception {
+
+        var request = MockMvcRequestBuilders.get("/api/v1/search")
+                .principal(mockPrincipal)
+                .queryParam("q", query)
+                .accept(MediaType.APPLICATION_JSON);
+        if (type != null) {
+            request.queryParam("type", type);
+        }
+
+        mockMvc.perform(request)
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isBadRequest());
+
+    }
+
+    private void assertPrev(String window, String firstId, String secondId) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(JsonPath.<String>read(window, "$._links.prev.href"))
+                        .principal(mockPrincipal)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.postComments[*]._links.self.href").value(contains(
+                        endsWith("/" + firstId), endsWith("/" + secondId))));
+    }
+
+    private PostComment saveReply(Post post, PostComment parent, String review) {
+        return postCommentRepository.save(PostComment.builder()
+                .withPost(post)
+                .withUser(userList.get(0))
+                .withParentPostComment(parent)
+                .withReview(review)
+                .withVotes(0)
+                .withCreatedAt(LocalDateTime.now())
+                .withStatus(CommentStatus.APPROVED)
+                .build());
+    }
+
     private String getJsonUser(User user) throws JsonProcessingException {
         return new ObjectMapper().writeValueAsString(user);
     }
@@ -0,0 +1,186 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.ModerationService;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentBulkService;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.BulkPostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.PostCommentRow;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.StatusTransition;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:moderation;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class ModerationTest {
+
+    private static final String URL_MODERATION = "/api/v1/postComments/moderation";
+    private static final int COMMENTS = 2500;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ModerationService moderationService;
+    @Autowired
+    private PostCommentBulkService postCommentBulkService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+
+        if (postRepository.count() == 0) {
+            var user = userRepository.save(User.builder()
+                    .withFirstName("John")
+                    .withLastName("Snow")
+                    .withEmail("j_snow@email.com")
+                    .withAge(76)
+                    .build());
+            var post = postRepository.save(Post.builder()
+                    .withTitle("Post title")
+                    .withContent("Post Content")
+                    .withCreatedAt(LocalDateTime.now())
+                    .withUser(user)
+                    .build());
+
+            var rows = new ArrayList<BulkPostComment>(COMMENTS);
+            var createdAt = LocalDateTime.now();
+            for (int i = 0; i < COMMENTS; i++) {
+                rows.add(new BulkPostComment(post.getId(), user.getId(), null, format("Review %s", i), 0,
+                        createdAt.plusSeconds(i), CommentStatus.PENDING_APPROVAL));
+            }
+            postCommentBulkService.write(rows);
+        }
+
+        jdbcTemplate.update("UPDATE post_comment SET status = 0, claimed_by = NULL, claimed_until = NULL");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void concurrentClaimsAreDisjoint() throws Exception {
+
+        var moderators = new ArrayList<Callable<List<PostCommentRow>>>();
+        for (int m = 0; m < 8; m++) {
+            var moderator = format("moderator-%s", m);
+            moderators.add(() -> {
+                var claimed = new ArrayList<PostCommentRow>();
+                for (int i = 0; i < 5; i++) {
+                    claimed.addAll(moderationService.claim(moderator, 40).comments());
+                }
+                return claimed;
+            });
+        }
+
+        var executor = Executors.newFixedThreadPool(moderators.size());
+        var claimed = new ArrayList<PostCommentRow>();
+        try {
+            for (var result : executor.invokeAll(moderators)) {
+                claimed.addAll(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        var ids = new HashSet<Long>();
+        claimed.forEach(row -> assertTrue(ids.add(row.id()), "Comentário reservado duas vezes: " + row.id()));
+        assertTrue(claimed.stream().allMatch(row -> row.status() == CommentStatus.PENDING_APPROVAL));
+        assertEquals(ids.size(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM post_comment WHERE claimed_by IS NOT NULL", Integer.class));
+    }
+
+    @Test
+    void claimSkipsLeasedCommentsUntilTheLeaseExpires() throws Exception {
+
+        var first = moderationService.claim("alice", 10).comments();
+        var second = moderationService.claim("bob", 10).comments();
+
+        assertEquals(10, first.size());
+        assertEquals(10, second.size());
+        assertTrue(first.get(9).createdAt().isBefore(second.get(0).createdAt()));
+
+        jdbcTemplate.update("UPDATE post_comment SET claimed_until = ? WHERE claimed_by = 'alice'",
+                LocalDateTime.now().minusSeconds(1));
+
+        mockMvc.perform(post(URL_MODERATION + "/claims")
+                        .queryParam("moderator", "carol")
+                        .queryParam("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.moderator").value("carol"))
+                .andExpect(jsonPath("$.comments.length()").value(10))
+                .andExpect(jsonPath("$.comments[0].id").value(first.get(0).id()))
+                .andExpect(jsonPath("$.comments[0].status").value("PENDING_APPROVAL"));
+    }
+
+    @Test
+    void transitionMovesThousandsOfCommentsAtOnce() throws Exception {
+
+        var ids = jdbcTemplate.queryForList("SELECT id FROM post_comment", Long.class);
+        var sample = ids.get(0);
+        mockMvc.perform(get("/api/v1/postComments/" + sample))
+                .andExpect(jsonPath("$.status").value("PENDING_APPROVAL"));
+
+        mockMvc.perform(post(URL_MODERATION + "/transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StatusTransition(ids, CommentStatus.APPROVED))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(COMMENTS))
+                .andExpect(jsonPath("$.updated").value(COMMENTS));
+
+        mockMvc.perform(get("/api/v1/postComments/" + sample))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+        assertTrue(moderationService.claim("alice", 10).comments().isEmpty());
+
+        var repeated = moderationService.transition(new StatusTransition(ids.subList(0, 10), CommentStatus.APPROVED));
+        assertEquals(0, repeated.updated());
+    }
+
+    @Test
+    void transitionRejectsInvalidRequests() throws Exception {
+
+        mockMvc.perform(post(URL_MODERATION + "/transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1], \"status\": \"PENDING_APPROVAL\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(URL_MODERATION + "/transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [], \"status\": \"SPAM\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(URL_MODERATION + "/claims")
+                        .queryParam("moderator", " "))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,96 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:observability;DB_CLOSE_DELAY=-1",
+        "blog.observability.slow-query-threshold=0ms",
+        "blog.observability.statements-warning=0"
+})
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class ObservabilityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+
+        if (postRepository.count() == 0) {
+            var user = userRepository.save(User.builder()
+                    .withFirstName("John")
+                    .withLastName("Snow")
+                    .withEmail("j_snow@email.com")
+                    .withAge(76)
+                    .build());
+            postRepository.save(Post.builder()
+                    .withTitle("Post title")
+                    .withContent("Post Content")
+                    .withCreatedAt(LocalDateTime.now())
+                    .withUser(user)
+                    .build());
+        }
+        postId = postRepository.findAll().get(0).getId();
+    }
+
+    @Test
+    void slowQueryLogShowsBoundSpecification(CapturedOutput output) {
+
+        postCommentRepository.findAll(PostCommentRepository.Specs.byPostId(postId)
+                .and(PostCommentRepository.Specs.byVotesGreaterThanEqual(3)));
+
+        assertTrue(output.getOut().contains(
+                "PostCommentRepository.findAll(byPostId(" + postId + ") and byVotesGreaterThanEqual(3))"));
+        assertTrue(meterRegistry.get("blog.repository.slow.invocations")
+                .tags("repository", "PostCommentRepository", "method", "findAll")
+                .counter().count() > 0);
+    }
+
+    @Test
+    void repositoryAndRequestMetricsArePublished(CapturedOutput output) throws Exception {
+
+        mockMvc.perform(get("/api/v1/posts")).andExpect(status().isOk());
+
+        assertTrue(output.getOut().contains("N+1"));
+        mockMvc.perform(get("/actuator/metrics/blog.request.statements"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTags[?(@.tag == 'uri')]").exists());
+        mockMvc.perform(get("/actuator/metrics/blog.request.entities"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/spring.data.repository.invocations")
+                        .queryParam("tag", "repository:PostRepository"))
+                .andExpect(status().isOk());
+    }
+}
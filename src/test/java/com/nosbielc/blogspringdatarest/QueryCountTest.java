@@ -0,0 +1,285 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.EntityInterceptor;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.QueryCounter;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentSearch;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentSearchRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCounterRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class QueryCountTest {
+
+    private static final String URL_BASE_USER = "/api/v1/users";
+    private static final String URL_BASE_POST = "/api/v1/posts";
+    private static final String URL_BASE_POST_COMMENT = "/api/v1/postComments";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+    @Autowired
+    private PostCommentSearchRepository postCommentSearchRepository;
+    @Autowired
+    private PostCounterRepository postCounterRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+
+        if (userRepository.count() == 0) {
+            var user = userRepository.save(User.builder()
+                    .withFirstName("John")
+                    .withLastName("Snow")
+                    .withEmail("j_snow@email.com")
+                    .withAge(76)
+                    .build());
+
+            for (int i = 0; i < 10; i++) {
+                var post = postRepository.save(Post.builder()
+                        .withTitle(format("Post title %s", i))
+                        .withContent(format("Post Content %s", i))
+                        .withCreatedAt(LocalDateTime.now().plusSeconds(i))
+                        .withUser(user)
+                        .build());
+
+                PostComment parent = null;
+                for (int j = 0; j < 10; j++) {
+                    parent = postCommentRepository.save(PostComment.builder()
+                            .withPost(post)
+                            .withUser(user)
+                            .withParentPostComment(parent)
+                            .withReview(format("Review %s", j))
+                            .withVotes(j)
+                            .withCreatedAt(LocalDateTime.now().plusSeconds(j))
+                            .withStatus(CommentStatus.APPROVED)
+                            .build());
+                }
+            }
+        }
+
+        userId = userRepository.findAll().get(0).getId();
+        postId = postRepository.findAll().get(0).getId();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"''", "usersResume"})
+    void findUserByIdDoesNotLoadCollections(String projection) throws Exception {
+
+        assertStatements(1, () -> get(URL_BASE_USER + "/" + userId, projection));
+    }
+
+    @Test
+    void findUserByIdTwiceHitsSecondLevelCache() throws Exception {
+
+        get(URL_BASE_USER + "/" + userId, "");
+        assertStatements(0, () -> get(URL_BASE_USER + "/" + userId, ""));
+    }
+
+    @Test
+    void searchingCommentsHitsQueryCache() {
+
+        var search = new PostCommentSearch(postId, userId, List.of(CommentStatus.APPROVED, CommentStatus.SPAM), 5,
+                "Review%", null, null);
+        var expected = postCommentSearchRepository.search(search, Pageable.unpaged()).getNumberOfElements();
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // named parameters key the cached results the same way on every call
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected, postCommentSearchRepository.search(search, Pageable.unpaged()).getNumberOfElements());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(10, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void entityGraphLoadsCacheTheOwnerAlongWithItsFetchedAssociations() {
+
+        var cache = entityManagerFactory.getCache();
+        cache.evictAll();
+
+        var comments = postCommentRepository.findAll(PostCommentRepository.Specs.byPostId(postId));
+
+        assertFalse(comments.isEmpty());
+        assertTrue(cache.contains(PostComment.class, comments.get(0).getId()));
+        assertTrue(cache.contains(User.class, userId));
+    }
+
+    @Test
+    void interceptorOnlyVouchesForIdentifiedInstancesNotYetVersioned() {
+
+        var interceptor = new EntityInterceptor(new QueryCounter(),
+                () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class));
+        var hydrating = User.builder().withId(userId).build();
+        var loaded = userRepository.findById(userId).orElseThrow();
+        var created = User.builder().withFirstName("New").build();
+
+        assertEquals(Boolean.FALSE, interceptor.isTransient(hydrating));
+        assertNull(interceptor.isTransient(loaded));
+        assertNull(interceptor.isTransient(created));
+    }
+
+    @Test
+    void counterUpdatesEvictCachedEntitiesOnlyAfterCommit() {
+
+        var cache = entityManagerFactory.getCache();
+        var commentId = postCommentRepository.findAll(PostCommentRepository.Specs.byPostId(postId)).get(0).getId();
+        postCommentRepository.findById(commentId);
+        postRepository.findById(postId);
+        assertTrue(cache.contains(PostComment.class, commentId));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            postCounterRepository.addVotes(Map.of(commentId, 1L));
+            assertTrue(cache.contains(PostComment.class, commentId));
+            assertTrue(cache.contains(Post.class, postId));
+        });
+
+        assertFalse(cache.contains(PostComment.class, commentId));
+        assertFalse(cache.contains(Post.class, postId));
+    }
+
+    @Test
+    void findPostByIdDoesNotLoadComments() throws Exception {
+
+        assertStatements(1, () -> get(URL_BASE_POST + "/" + postId, ""));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"''", "postCommentResume"})
+    void findCommentsPageHasNoFanOut(String projection) throws Exception {
+
+        // one select for the page content and one for the total count
+        assertStatements(2, () -> get(URL_BASE_POST_COMMENT + "?size=30", projection));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"''", "postCommentResume"})
+    void seekCommentsHasNoCountQuery(String projection) throws Exception {
+
+        assertStatements(1, () -> get(URL_BASE_POST_COMMENT + "/seek?size=30", projection));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"/users, usersResume", "/postComments, postCommentResume"})
+    void projectionPagesDoNotLoadEntities(String path, String projection) throws Exception {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        get("/api/v1" + path + "?size=30", projection);
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void conditionalGetOfCachedPostDoesNotQuery() throws Exception {
+
+        var url = URL_BASE_POST + "/" + postId;
+        var eTag = mockMvc.perform(MockMvcRequestBuilders.get(url).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertStatements(0, () -> mockMvc.perform(MockMvcRequestBuilders.get(url)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified()));
+    }
+
+    @Test
+    void equivalentAcceptHeadersShareTheCachedRepresentation() throws Exception {
+
+        var url = URL_BASE_POST + "/" + postId;
+        mockMvc.perform(MockMvcRequestBuilders.get(url).accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk());
+        // a miss would have to read the post from the database again
+        entityManagerFactory.getCache().evict(Post.class, postId);
+
+        for (var accept : new String[]{"application/hal+json;charset=UTF-8", "*/*", "text/html;q=0, */*;q=0.8"}) {
+            assertStatements(0, () -> mockMvc.perform(MockMvcRequestBuilders.get(url)
+                            .header(HttpHeaders.ACCEPT, accept))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON)));
+        }
+        assertStatements(0, () -> mockMvc.perform(MockMvcRequestBuilders.get(url))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON)));
+    }
+
+    private void get(String url, String projection) throws Exception {
+        var request = MockMvcRequestBuilders.get(url)
+                .accept(MediaType.APPLICATION_JSON);
+        if (!projection.isEmpty()) {
+            request.queryParam("projection", projection);
+        }
+        mockMvc.perform(request).andExpect(status().isOk());
+    }
+
+    private void assertStatements(long expected, RequestCall call) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        call.perform();
+
+        long executed = statistics.getPrepareStatementCount();
+        assertTrue(executed <= expected,
+                format("Esperado no máximo %s statements SQL, executados %s", expected, executed));
+    }
+
+    @FunctionalInterface
+    private interface RequestCall {
+        void perform() throws Exception;
+    }
+}
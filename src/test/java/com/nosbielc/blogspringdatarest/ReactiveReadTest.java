@@ -0,0 +1,159 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ReactiveReadServer;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentFilter;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "blog.reactive.enabled=true",
+        "blog.reactive.port=0",
+        "blog.reactive.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+        "blog.reactive.prefetch=2"
+})
+class ReactiveReadTest {
+
+    @Autowired
+    private ReactiveReadServer server;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort() + "/api/v1").build();
+    }
+
+    @Test
+    void postCommentsStreamTheRowsTheSpecsMatch() {
+
+        var author = user("reactive-author");
+        var post = post(author);
+        var start = LocalDateTime.now().minusHours(1);
+        for (int i = 0; i < 10; i++) {
+            postCommentRepository.save(PostComment.builder()
+                    .withPost(post)
+                    .withUser(author)
+                    .withReview(i % 3 == 0 ? "Great post " + i : "Meh " + i)
+                    .withVotes(i)
+                    .withCreatedAt(start.plusMinutes(i))
+                    .withStatus(i % 2 == 0 ? CommentStatus.APPROVED : CommentStatus.PENDING_APPROVAL)
+                    .build());
+        }
+        var filter = new PostCommentFilter(post.getId(), null, CommentStatus.APPROVED, 2, "Great%",
+                start, start.plusMinutes(9));
+        var expected = postCommentRepository.findAll(filter.toSpecification()).stream()
+                .map(PostComment::getId)
+                .sorted()
+                .toList();
+
+        var streamed = client.get()
+                .uri(uri -> uri.path("/postComments")
+                        .queryParam("postId", post.getId())
+                        .queryParam("status", "APPROVED")
+                        .queryParam("minVotes", 2)
+                        .queryParam("review", "Great%")
+                        .queryParam("createdFrom", start)
+                        .queryParam("createdTo", start.plusMinutes(9))
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, streamed.stream().map(row -> ((Number) row.get("id")).longValue()).toList());
+        // postCommentResume shape
+        assertEquals(Map.of("id", streamed.get(0).get("id"), "review", "Great post 6", "votes", 6,
+                "status", "APPROVED"), streamed.get(0));
+    }
+
+    @Test
+    void usersStreamAsServerSentEventsInTheUsersResumeShape() {
+
+        var first = user("sse-first");
+        var second = user("sse-second");
+
+        var events = client.get()
+                .uri("/users")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>>() {})
+                .getResponseBody()
+                .map(ServerSentEvent::data)
+                .filter(Objects::nonNull)
+                .collectList()
+                .block();
+
+        var users = events.stream()
+                .filter(user -> user.get("email").toString().startsWith("sse-"))
+                .sorted(Comparator.comparing(user -> ((Number) user.get("id")).longValue()))
+                .toList();
+        assertEquals(List.of(first.getId(), second.getId()),
+                users.stream().map(user -> ((Number) user.get("id")).longValue()).toList());
+        assertEquals("sse-first Reactive", users.get(0).get("fullName"));
+        assertEquals(List.of("age", "email", "fullName", "id"), users.get(0).keySet().stream().sorted().toList());
+    }
+
+    @Test
+    void invalidFiltersAreRejected() {
+
+        client.get().uri("/postComments?status=LOST").exchange().expectStatus().isBadRequest();
+        client.get().uri("/postComments?createdFrom=yesterday").exchange().expectStatus().isBadRequest();
+        client.get().uri("/posts?userId=abc").exchange().expectStatus().isBadRequest();
+        assertTrue(server.isRunning());
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder()
+                .withFirstName(name)
+                .withLastName("Reactive")
+                .withEmail(name + "@email.com")
+                .withAge(30)
+                .build());
+    }
+
+    private Post post(User author) {
+        return postRepository.save(Post.builder()
+                .withTitle("Reactive")
+                .withContent("Read without blocking")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(author)
+                .build());
+    }
+}
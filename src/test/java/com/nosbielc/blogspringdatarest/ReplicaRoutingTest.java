@@ -0,0 +1,159 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.ReplicaLagMonitor;
+import com.nosbielc.blogspringdatarest.infrastructure.web.filters.ReadYourWritesFilter;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.DriverManager;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two H2 databases stand in for the primary and the replica; replication is a script copy of the
+ * primary run on demand, so the replica trails exactly as far as each test wants.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1",
+        "blog.replica.enabled=true",
+        "blog.replica.url=jdbc:h2:mem:replica-replica;DB_CLOSE_DELAY=-1",
+        "blog.replica.heartbeat-interval=1h",
+        "blog.replica.max-lag=2h",
+        "blog.replica.stickiness=10s"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @BeforeEach
+    void replicaInSync() throws Exception {
+        replicaLagMonitor.refresh();
+        replicate();
+        replicaLagMonitor.refresh();
+        assertTrue(replicaLagMonitor.replicaUsable());
+    }
+
+    @Test
+    void readsGoToTheReplicaExceptForClientsThatJustWrote() throws Exception {
+
+        var response = mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Sticky\",\"lastName\":\"Writer\",\"email\":\"sticky@email.com\",\"age\":30}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse();
+        Cookie lastWrite = response.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE);
+        assertNotNull(lastWrite);
+
+        mockMvc.perform(get("/api/v1/users").queryParam("size", "1000"))
+                .andExpect(jsonPath("$._embedded.users[*].email", not(hasItem("sticky@email.com"))));
+        mockMvc.perform(get("/api/v1/users").queryParam("size", "1000").cookie(lastWrite))
+                .andExpect(jsonPath("$._embedded.users[*].email", hasItem("sticky@email.com")));
+
+        replicate();
+        mockMvc.perform(get("/api/v1/users").queryParam("size", "1000"))
+                .andExpect(jsonPath("$._embedded.users[*].email", hasItem("sticky@email.com")));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLags() throws Exception {
+
+        userRepository.save(User.builder()
+                .withFirstName("Lagging")
+                .withLastName("Replica")
+                .withEmail("lagging@email.com")
+                .withAge(40)
+                .build());
+        mockMvc.perform(get("/api/v1/users").queryParam("size", "1000"))
+                .andExpect(jsonPath("$._embedded.users[*].email", not(hasItem("lagging@email.com"))));
+
+        new JdbcTemplate(replicaDataSource()).update("UPDATE replica_heartbeat SET beat_at = ?",
+                LocalDateTime.now().minusHours(3));
+        replicaLagMonitor.refresh();
+
+        assertFalse(replicaLagMonitor.replicaUsable());
+        mockMvc.perform(get("/api/v1/users").queryParam("size", "1000"))
+                .andExpect(jsonPath("$._embedded.users[*].email", hasItem("lagging@email.com")));
+    }
+
+    @Test
+    void replicaReadsDoNotPopulateTheCaches() throws Exception {
+
+        var user = userRepository.save(User.builder()
+                .withFirstName("Before")
+                .withLastName("Replica")
+                .withEmail("cached@email.com")
+                .withAge(50)
+                .build());
+        replicate();
+        userRepository.save(user.toBuilder().withFirstName("After").build());
+        // as if the entry had expired: the next read has to go to a database
+        entityManagerFactory.getCache().evictAll();
+
+        mockMvc.perform(get("/api/v1/users").queryParam("size", "1000"))
+                .andExpect(jsonPath("$._embedded.users[?(@.email == 'cached@email.com')].firstName", hasItem("Before")));
+        assertFalse(entityManagerFactory.getCache().contains(User.class, user.getId()));
+
+        var lastWrite = new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE, String.valueOf(System.currentTimeMillis()));
+        mockMvc.perform(get("/api/v1/users/{id}", user.getId()).cookie(lastWrite))
+                .andExpect(jsonPath("$.firstName", is("After")));
+        mockMvc.perform(get("/api/v1/users/{id}", user.getId()))
+                .andExpect(jsonPath("$.firstName", is("After")));
+        mockMvc.perform(get("/api/v1/users/{id}", user.getId()))
+                .andExpect(jsonPath("$.firstName", is("After")));
+    }
+
+    /**
+     * Replaces the replica's content with a copy of the primary.
+     */
+    private void replicate() throws Exception {
+        var script = File.createTempFile("replica", ".sql");
+        script.deleteOnExit();
+        new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script.getAbsolutePath() + "'");
+        try (var connection = DriverManager.getConnection(REPLICA_URL, "sa", "sa");
+             var statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("RUNSCRIPT FROM '" + script.getAbsolutePath() + "'");
+        }
+    }
+
+    private static DataSource replicaDataSource() {
+        return new DriverManagerDataSource(REPLICA_URL, "sa", "sa");
+    }
+}
@@ -0,0 +1,43 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ApplicationRuntimeHints;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.UsersResume;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.UsersResumeView;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.events.SearchIndexEventHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The hints are only exercised by a native image, which the regular build does not produce.
+ */
+class RuntimeHintsTest {
+
+    @Test
+    void projectionsAndReflectiveTargetsAreRegistered() throws Exception {
+
+        var hints = new RuntimeHints();
+        new ApplicationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.proxies()
+                .forInterfaces(UsersResume.class, TargetAware.class, SpringProxy.class, DecoratingProxy.class)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(UsersResume.class, "getFullName")
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(UsersResumeView.class.getConstructors()[0])
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(SearchIndexEventHandler.class)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("reference.conf")
+                .test(hints));
+    }
+}
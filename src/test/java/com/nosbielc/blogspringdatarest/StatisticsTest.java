@@ -0,0 +1,267 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.CommentStatisticsService;
+import com.nosbielc.blogspringdatarest.infrastructure.services.ModerationService;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentBulkService;
+import com.nosbielc.blogspringdatarest.infrastructure.services.VoteBuffer;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.BulkPostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.CommentStatistics;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.StatusTransition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The scheduled refresh only runs every hour here; tests refresh the statistics themselves.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statistics;DB_CLOSE_DELAY=-1",
+        "blog.statistics.refresh-interval=1h",
+        "blog.statistics.rebuild-chunk-size=2"
+})
+@AutoConfigureMockMvc
+class StatisticsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CommentStatisticsService commentStatisticsService;
+    @Autowired
+    private PostCommentBulkService postCommentBulkService;
+    @Autowired
+    private ModerationService moderationService;
+    @Autowired
+    private VoteBuffer voteBuffer;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void statisticsFollowCommentWrites() throws Exception {
+
+        var author = user("Arya");
+        var frequent = user("Bran");
+        var occasional = user("Sansa");
+        var post = newPost(author);
+
+        var rows = new ArrayList<BulkPostComment>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(comment(post, frequent, 2, CommentStatus.PENDING_APPROVAL));
+        }
+        rows.add(comment(post, occasional, 5, CommentStatus.APPROVED));
+        var ids = postCommentBulkService.write(rows);
+
+        mockMvc.perform(post("/api/v1/postComments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(format("{\"review\":\"Rest\",\"votes\":1,\"status\":\"APPROVED\",\"post\":\"/api/v1/posts/%s\",\"user\":\"/api/v1/users/%s\"}",
+                                post.getId(), occasional.getId())))
+                .andExpect(status().isCreated());
+
+        commentStatisticsService.refresh();
+
+        mockMvc.perform(get(format("/api/v1/posts/%s/statistics", post.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scope").value("POST"))
+                .andExpect(jsonPath("$.comments").value(5))
+                .andExpect(jsonPath("$.votes").value(12))
+                .andExpect(jsonPath("$.averageVotes").value(2.4))
+                .andExpect(jsonPath("$.commentsByStatus.PENDING_APPROVAL").value(3))
+                .andExpect(jsonPath("$.commentsByStatus.APPROVED").value(2))
+                .andExpect(jsonPath("$.commentsByStatus.SPAM").value(0))
+                .andExpect(jsonPath("$.topCommenters[0].userId").value(frequent.getId()))
+                .andExpect(jsonPath("$.topCommenters[0].fullName").value("Bran Stark"))
+                .andExpect(jsonPath("$.topCommenters[0].comments").value(3))
+                .andExpect(jsonPath("$.topCommenters[1].userId").value(occasional.getId()))
+                .andExpect(jsonPath("$.topCommenters[1].comments").value(2));
+
+        moderationService.transition(new StatusTransition(ids.subList(0, 3), CommentStatus.SPAM));
+        voteBuffer.add(ids.get(3), 10);
+        voteBuffer.flush();
+        commentStatisticsService.refresh();
+
+        mockMvc.perform(get(format("/api/v1/posts/%s/statistics", post.getId())))
+                .andExpect(jsonPath("$.votes").value(22))
+                .andExpect(jsonPath("$.commentsByStatus.PENDING_APPROVAL").value(0))
+                .andExpect(jsonPath("$.commentsByStatus.SPAM").value(3));
+        mockMvc.perform(get(format("/api/v1/users/%s/statistics", frequent.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments").value(3))
+                .andExpect(jsonPath("$.commentsByStatus.SPAM").value(3))
+                .andExpect(jsonPath("$.topCommenters.length()").value(0));
+        mockMvc.perform(get(format("/api/v1/users/%s/statistics", author.getId())))
+                .andExpect(jsonPath("$.comments").value(0))
+                .andExpect(jsonPath("$.topCommenters.length()").value(2))
+                .andExpect(jsonPath("$.topCommenters[0].userId").value(frequent.getId()));
+
+        mockMvc.perform(delete(format("/api/v1/posts/%s", post.getId())))
+                .andExpect(status().is2xxSuccessful());
+        commentStatisticsService.refresh();
+
+        mockMvc.perform(get(format("/api/v1/posts/%s/statistics", post.getId())))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get(format("/api/v1/users/%s/statistics", author.getId())))
+                .andExpect(jsonPath("$.topCommenters.length()").value(0));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM comment_status_count WHERE scope = 'POST' AND owner_id = ?",
+                Integer.class, post.getId()));
+    }
+
+    @Test
+    void rebuildMatchesIncrementalRefresh() throws Exception {
+
+        var users = List.of(user("Jon"), user("Robb"), user("Rickon"));
+        var rows = new ArrayList<BulkPostComment>();
+        var posts = new ArrayList<Post>();
+        for (int p = 0; p < 5; p++) {
+            var post = newPost(users.get(p % users.size()));
+            posts.add(post);
+            for (int c = 0; c <= p; c++) {
+                rows.add(comment(post, users.get(c % users.size()), c,
+                        CommentStatus.values()[c % CommentStatus.values().length]));
+            }
+        }
+        postCommentBulkService.write(rows);
+        commentStatisticsService.refresh();
+
+        var incremental = new ArrayList<CommentStatistics>();
+        posts.forEach(post -> incremental.add(commentStatisticsService.forPost(post.getId()).orElseThrow()));
+        users.forEach(user -> incremental.add(commentStatisticsService.forUser(user.getId()).orElseThrow()));
+
+        jdbcTemplate.update("DELETE FROM comment_status_count");
+        jdbcTemplate.update("UPDATE commenter_count SET comments = comments + 100");
+        jdbcTemplate.update("INSERT INTO commenter_count (scope, owner_id, user_id, comments) VALUES ('POST', ?, 1, 1)",
+                Long.MAX_VALUE);
+
+        mockMvc.perform(post("/api/v1/statistics/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.parallelism").value(4));
+
+        var rebuilt = new ArrayList<CommentStatistics>();
+        posts.forEach(post -> rebuilt.add(commentStatisticsService.forPost(post.getId()).orElseThrow()));
+        users.forEach(user -> rebuilt.add(commentStatisticsService.forUser(user.getId()).orElseThrow()));
+        assertEquals(incremental, rebuilt);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM commenter_count WHERE owner_id = ?", Integer.class, Long.MAX_VALUE));
+    }
+
+    @Test
+    void deltasOfEditedMovedAndDeletedCommentsMatchARebuild() throws Exception {
+
+        var author = user("Ned");
+        var reader = user("Catelyn");
+        var other = user("Benjen");
+        var from = newPost(author);
+        var to = newPost(reader);
+        var moved = createComment(from, reader, 2, CommentStatus.APPROVED);
+        var edited = createComment(from, other, 3, CommentStatus.PENDING_APPROVAL);
+        var deleted = createComment(to, other, 1, CommentStatus.APPROVED);
+        createComment(to, other, 4, CommentStatus.SPAM);
+        commentStatisticsService.refresh();
+
+        mockMvc.perform(patch(edited)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"APPROVED\",\"votes\":7}"))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(put(moved + "/post")
+                        .contentType("text/uri-list")
+                        .content("/api/v1/posts/" + to.getId()))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(delete(deleted))
+                .andExpect(status().is2xxSuccessful());
+        commentStatisticsService.refresh();
+
+        mockMvc.perform(get(format("/api/v1/posts/%s/statistics", from.getId())))
+                .andExpect(jsonPath("$.comments").value(1))
+                .andExpect(jsonPath("$.votes").value(7))
+                .andExpect(jsonPath("$.commentsByStatus.PENDING_APPROVAL").value(0))
+                .andExpect(jsonPath("$.commentsByStatus.APPROVED").value(1));
+        mockMvc.perform(get(format("/api/v1/users/%s/statistics", reader.getId())))
+                .andExpect(jsonPath("$.comments").value(1))
+                .andExpect(jsonPath("$.topCommenters[0].userId").value(reader.getId()))
+                .andExpect(jsonPath("$.topCommenters[0].comments").value(1))
+                .andExpect(jsonPath("$.topCommenters[1].userId").value(other.getId()))
+                .andExpect(jsonPath("$.topCommenters[1].comments").value(1));
+
+        var owners = List.of(from.getId(), to.getId());
+        var users = List.of(author.getId(), reader.getId(), other.getId());
+        var incremental = new ArrayList<CommentStatistics>();
+        owners.forEach(id -> incremental.add(commentStatisticsService.forPost(id).orElseThrow()));
+        users.forEach(id -> incremental.add(commentStatisticsService.forUser(id).orElseThrow()));
+        commentStatisticsService.rebuild();
+        var rebuilt = new ArrayList<CommentStatistics>();
+        owners.forEach(id -> rebuilt.add(commentStatisticsService.forPost(id).orElseThrow()));
+        users.forEach(id -> rebuilt.add(commentStatisticsService.forUser(id).orElseThrow()));
+        assertEquals(rebuilt, incremental);
+    }
+
+    @Test
+    void unknownOwnerIsNotFound() throws Exception {
+
+        mockMvc.perform(get("/api/v1/posts/" + Long.MAX_VALUE + "/statistics"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/users/" + Long.MAX_VALUE + "/statistics"))
+                .andExpect(status().isNotFound());
+    }
+
+    private User user(String firstName) {
+        return userRepository.save(User.builder()
+                .withFirstName(firstName)
+                .withLastName("Stark")
+                .withEmail(firstName.toLowerCase() + "@email.com")
+                .withAge(20)
+                .build());
+    }
+
+    private Post newPost(User author) {
+        return postRepository.save(Post.builder()
+                .withTitle("Winterfell")
+                .withContent("Winter is coming")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(author)
+                .build());
+    }
+
+    /**
+     * @return the comment's path
+     */
+    private String createComment(Post post, User user, int votes, CommentStatus status) throws Exception {
+        var location = mockMvc.perform(post("/api/v1/postComments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(format("{\"review\":\"Rest\",\"votes\":%d,\"status\":\"%s\",\"post\":\"/api/v1/posts/%s\",\"user\":\"/api/v1/users/%s\"}",
+                                votes, status, post.getId(), user.getId())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        return location.substring(location.indexOf("/api/v1/postComments"));
+    }
+
+    private static BulkPostComment comment(Post post, User user, int votes, CommentStatus status) {
+        return new BulkPostComment(post.getId(), user.getId(), null, "Review", votes, LocalDateTime.now(), status);
+    }
+}
@@ -0,0 +1,54 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.ConnectionLimitingDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpStatus;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:virtual;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "blog.execution.virtual-threads=true",
+        "blog.execution.connection-acquire-timeout=200ms"
+})
+class VirtualThreadExecutionTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+    @Autowired
+    private ExecutorService virtualThreadExecutor;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void tomcatRunsRequestsOnVirtualThreads() throws Exception {
+
+        var tomcat = ((TomcatWebServer) context.getWebServer()).getTomcat();
+        assertSame(virtualThreadExecutor, tomcat.getConnector().getProtocolHandler().getExecutor());
+        assertEquals(Boolean.TRUE, virtualThreadExecutor.submit(() -> Thread.currentThread().toString().startsWith("VirtualThread")).get());
+
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/api/v1/users", String.class).getStatusCode());
+    }
+
+    @Test
+    void connectionsAreQueuedInFrontOfThePool() {
+
+        assertInstanceOf(ConnectionLimitingDataSource.class, dataSource);
+    }
+}
@@ -0,0 +1,105 @@
+package com.nosbielc.blogspringdatarest;
+
+import com.nosbielc.blogspringdatarest.benchmark.workload.LoadTest;
+import com.nosbielc.blogspringdatarest.benchmark.workload.SkewedDataset;
+import com.nosbielc.blogspringdatarest.benchmark.workload.Workload;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.CommentStatisticsService;
+import com.nosbielc.blogspringdatarest.infrastructure.services.SearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:workload;DB_CLOSE_DELAY=-1")
+class WorkloadTest {
+
+    private static final SkewedDataset.Shape SHAPE = new SkewedDataset.Shape(200, 1_000, 20_000, 1.0, 1.1, 0.6, 8,
+            1.5, 365, 7);
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SearchIndex searchIndex;
+    @Autowired
+    private CommentStatisticsService commentStatisticsService;
+
+    @Test
+    void generatesSkewedThreadsAndReplaysTheMixAgainstThem() throws Exception {
+
+        var dataset = new SkewedDataset(SHAPE).insert(dataSource, entityManagerFactory);
+
+        assertEquals(200L, count("SELECT COUNT(*) FROM users"));
+        assertEquals(1_000L, count("SELECT COUNT(*) FROM post"));
+        assertEquals(20_000L, count("SELECT COUNT(*) FROM post_comment"));
+        // the busiest 1% of the posts hold a large share of the comments, the median post few of them
+        assertTrue(count("SELECT SUM(comment_count) FROM (SELECT comment_count FROM post ORDER BY comment_count DESC LIMIT 10)") > 4_000);
+        assertTrue(count("SELECT comment_count FROM post ORDER BY comment_count LIMIT 1 OFFSET 500") < 10);
+        assertEquals(dataset.commentCount(dataset.postId(0)),
+                count("SELECT COUNT(*) FROM post_comment WHERE post_id = " + dataset.postId(0)));
+        assertEquals(0L, count("SELECT COUNT(*) FROM post p WHERE comment_count <> (SELECT COUNT(*) FROM post_comment c WHERE c.post_id = p.id) "
+                + "OR total_votes <> (SELECT COALESCE(SUM(votes), 0) FROM post_comment c WHERE c.post_id = p.id)"));
+
+        // replies stay in their post, under the depth limit, and a few comments draw many of them
+        assertEquals(0L, count("SELECT COUNT(*) FROM post_comment c JOIN post_comment p ON c.parent_post_comment_id = p.id "
+                + "WHERE c.post_id <> p.post_id OR c.created_at < p.created_at"));
+        long replies = count("SELECT COUNT(*) FROM post_comment WHERE parent_post_comment_id IS NOT NULL");
+        assertTrue(replies > 8_000 && replies < 13_000, "replies: " + replies);
+        assertTrue(count("SELECT MAX(n) FROM (SELECT COUNT(*) n FROM post_comment GROUP BY parent_post_comment_id "
+                + "HAVING parent_post_comment_id IS NOT NULL)") >= 20);
+        assertTrue(count("WITH RECURSIVE tree(id, depth) AS (SELECT id, 0 FROM post_comment WHERE parent_post_comment_id IS NULL "
+                + "UNION ALL SELECT c.id, t.depth + 1 FROM post_comment c JOIN tree t ON c.parent_post_comment_id = t.id) "
+                + "SELECT MAX(depth) FROM tree") <= SHAPE.maxDepth());
+
+        // Hibernate keeps allocating after the reserved ids
+        var user = userRepository.save(User.builder()
+                .withFirstName("After")
+                .withLastName("Dataset")
+                .withEmail("after@email.com")
+                .withAge(30)
+                .build());
+        assertTrue(user.getId() > dataset.userId(0));
+
+        searchIndex.reindex();
+        commentStatisticsService.rebuild();
+        var workload = Workload.blog(URI.create("http://localhost:" + port + "/api/v1"), dataset);
+        var client = HttpClient.newHttpClient();
+        var random = new SplittableRandom(SHAPE.seed());
+        for (var operation : workload.operations()) {
+            var response = client.send(operation.request().apply(random), HttpResponse.BodyHandlers.ofString());
+            assertTrue(response.statusCode() < 300, operation.name() + ": " + response.body());
+        }
+
+        var report = new LoadTest().run(workload, 2, Duration.ofSeconds(1), Duration.ofSeconds(2), SHAPE.seed());
+        assertTrue(report.total().requests() > 0);
+        assertEquals(0, report.total().errors());
+        assertTrue(report.total().p99() >= report.total().p50());
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count == null ? 0 : count;
+    }
+}
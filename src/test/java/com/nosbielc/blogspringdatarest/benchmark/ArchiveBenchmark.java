@@ -0,0 +1,129 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentFilter;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.TieredPostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.CommentArchiver;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentBulkService;
+import com.nosbielc.blogspringdatarest.infrastructure.web.dto.BulkPostComment;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository.Specs;
+import static java.lang.String.format;
+
+/**
+ * Latency of the usual live-table queries with every comment still live, then after 90% of them, the
+ * ones older than {@code blog.archive.max-age}, moved to the archive; a query that has to read the archive
+ * is reported after archiving for comparison.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ArchiveBenchmark -Dbench.rows=500000}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench-archive;DB_CLOSE_DELAY=-1",
+        "blog.archive.max-age=365d",
+        "blog.archive.batch-size=5000"
+})
+class ArchiveBenchmark {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 200_000);
+    private static final int POSTS = Integer.getInteger("bench.posts", 100);
+    private static final double COLD_SHARE = 0.9;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+    @Autowired
+    private PostCommentBulkService postCommentBulkService;
+    @Autowired
+    private TieredPostCommentRepository tieredPostCommentRepository;
+    @Autowired
+    private CommentArchiver commentArchiver;
+
+    @Test
+    void liveQueriesBeforeAndAfterArchiving() throws Exception {
+
+        var now = LocalDateTime.now();
+        var postId = seed(now);
+        var recent = new PostCommentFilter(postId, null, CommentStatus.APPROVED, null, null, now.minusDays(180), null);
+        var recentByStatus = new PostCommentFilter(null, null, CommentStatus.APPROVED, 3, null, now.minusDays(180), null);
+        var wholePost = new PostCommentFilter(postId, null, null, null, null, null, null);
+
+        report("before", recent, recentByStatus);
+
+        var result = commentArchiver.archive();
+        System.out.println(format("archive: %d of %d comments moved in %d batches, %d ms",
+                result.archived(), ROWS, result.batches(), result.elapsedMillis()));
+
+        report("after", recent, recentByStatus);
+        System.out.println(format("archive %-6s %-28s %8.2f ms median (archive read: %s)", "after", "whole post, first window",
+                BenchmarkSupport.medianMillis(() -> tieredPostCommentRepository.findAfter(wholePost, null, PAGE_SIZE)),
+                tieredPostCommentRepository.includesArchive(wholePost)));
+    }
+
+    private void report(String phase, PostCommentFilter recent, PostCommentFilter recentByStatus) throws Exception {
+        print(phase, "recent approved of a post", () -> tieredPostCommentRepository.findAfter(recent, null, PAGE_SIZE));
+        print(phase, "recent approved, min votes", () -> tieredPostCommentRepository.findAfter(recentByStatus, null, PAGE_SIZE));
+        print(phase, "Specs count by status", () -> postCommentRepository.count(Specs.byStatus(CommentStatus.APPROVED)));
+        print(phase, "Specs count by review", () -> postCommentRepository.count(Specs.byReviewLike("%7%")));
+    }
+
+    private static void print(String phase, String query, BenchmarkSupport.Action action) throws Exception {
+        System.out.println(format("archive %-6s %-28s %8.2f ms median", phase, query, BenchmarkSupport.medianMillis(action)));
+    }
+
+    /**
+     * Spreads the comments over {@code bench.posts} posts; {@code COLD_SHARE} of them are one to ten
+     * years old, the others from the last six months.
+     *
+     * @return id of one of the posts
+     */
+    private Long seed(LocalDateTime now) {
+        var user = userRepository.save(User.builder()
+                .withFirstName("Bench")
+                .withLastName("Mark")
+                .withEmail("bench@email.com")
+                .withAge(30)
+                .build());
+        var postIds = new ArrayList<Long>(POSTS);
+        for (int p = 0; p < POSTS; p++) {
+            postIds.add(postRepository.save(Post.builder()
+                    .withTitle("Bench " + p)
+                    .withContent("Bench")
+                    .withCreatedAt(now.minusYears(10))
+                    .withUser(user)
+                    .build()).getId());
+        }
+
+        var random = new Random(42);
+        var rows = new ArrayList<BulkPostComment>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            var createdAt = random.nextDouble() < COLD_SHARE
+                    ? now.minusDays(366 + random.nextInt(9 * 365))
+                    : now.minusDays(random.nextInt(180)).minusSeconds(random.nextInt(86_400));
+            rows.add(new BulkPostComment(postIds.get(i % POSTS), user.getId(), null, "Review " + i,
+                    random.nextInt(10), createdAt, CommentStatus.APPROVED));
+            if (rows.size() == 10_000) {
+                postCommentBulkService.write(rows);
+                rows.clear();
+            }
+        }
+        postCommentBulkService.write(rows);
+        return postIds.get(0);
+    }
+}
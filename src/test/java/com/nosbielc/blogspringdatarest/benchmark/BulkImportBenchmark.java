@@ -0,0 +1,114 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentBulkService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Run with {@code mvn test -Pbenchmark -Dtest=BulkImportBenchmark -Dbench.rows=1000000}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:bench-bulk;DB_CLOSE_DELAY=-1")
+class BulkImportBenchmark {
+
+    private static final long ROWS = Long.getLong("bench.rows", 200_000);
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+    @Autowired
+    private PostCommentBulkService postCommentBulkService;
+
+    @Test
+    void importNdjson() throws Exception {
+
+        var user = userRepository.save(User.builder()
+                .withFirstName("Bench")
+                .withLastName("Mark")
+                .withEmail("bench@email.com")
+                .withAge(30)
+                .build());
+        var post = postRepository.save(Post.builder()
+                .withTitle("Bench")
+                .withContent("Bench")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(user)
+                .build());
+
+        BenchmarkSupport.resetPeakHeap();
+
+        var result = postCommentBulkService.importNdjson(new NdjsonRows(ROWS, post.getId(), user.getId()));
+
+        System.out.println(format("bulk import: %d rows, %d chunks, %d ms, %d rows/s, peak heap %d MB",
+                result.inserted(), result.chunks(), result.elapsedMillis(), result.rowsPerSecond(),
+                BenchmarkSupport.peakHeapMb()));
+
+        assertEquals(ROWS, result.inserted());
+        assertEquals(ROWS, postCommentRepository.count());
+    }
+
+    /**
+     * Generates NDJSON lazily so the input itself does not weigh on the heap measurement.
+     */
+    static class NdjsonRows extends InputStream {
+
+        private static final LocalDateTime CREATED_AT = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+        private final long rows;
+        private final long postId;
+        private final long userId;
+        private long next;
+        private byte[] line = new byte[0];
+        private int position;
+
+        NdjsonRows(long rows, long postId, long userId) {
+            this.rows = rows;
+            this.postId = postId;
+            this.userId = userId;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (next == rows) {
+                    return -1;
+                }
+                line = format("{\"postId\":%d,\"userId\":%d,\"review\":\"Review %d\",\"votes\":%d,\"createdAt\":\"%s\",\"status\":\"APPROVED\"}%n",
+                        postId, userId, next, next % 21, CREATED_AT.plusSeconds(next / 3)).getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                next++;
+            }
+            return line[position++];
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int count = 0;
+            while (count < length) {
+                int b = read();
+                if (b == -1) {
+                    return count == 0 ? -1 : count;
+                }
+                buffer[offset + count++] = (byte) b;
+            }
+            return count;
+        }
+    }
+}
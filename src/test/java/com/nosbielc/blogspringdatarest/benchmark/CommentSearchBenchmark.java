@@ -0,0 +1,148 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentSearch;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentSearchRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentBulkService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+
+/**
+ * CPU time per comment search, built from the {@code Specs} as a Criteria query on every call and run
+ * through the per-shape plans of {@link PostCommentSearchRepository}, over the moderation screen mix of
+ * filter shapes with changing values. The query result cache is off, so both sides reach the database.
+ * Run with {@code mvn test -Pbenchmark -Dtest=CommentSearchBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench-search;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+class CommentSearchBenchmark {
+
+    private static final int POSTS = 50;
+    private static final int COMMENTS_PER_POST = 200;
+    private static final int QUERIES = Integer.getInteger("bench.queries", 5_000);
+    private static final Sort BY_CREATED_AT = Sort.by("createdAt", "id");
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+    @Autowired
+    private PostCommentSearchRepository postCommentSearchRepository;
+    @Autowired
+    private PostCommentBulkService postCommentBulkService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void specificationsAgainstCachedPlans() throws Exception {
+
+        var postIds = seed();
+        var searches = searches(postIds);
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        report("specs", searches, statistics, search -> postCommentRepository.findAll(search.toSpecification(),
+                pageable(search)));
+        report("plans", searches, statistics, search -> postCommentSearchRepository.search(search, pageable(search)));
+    }
+
+    private void report(String mode, List<PostCommentSearch> searches, Statistics statistics,
+                        Consumer<PostCommentSearch> query) {
+        // warm up the JIT and, for the plans, the shapes
+        searches.subList(0, QUERIES / 5).forEach(query);
+
+        var threads = ManagementFactory.getThreadMXBean();
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        long cpu = threads.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        searches.forEach(query);
+        long wall = System.nanoTime() - start;
+        cpu = threads.getCurrentThreadCpuTime() - cpu;
+        hits = statistics.getQueryPlanCacheHitCount() - hits;
+        misses = statistics.getQueryPlanCacheMissCount() - misses;
+
+        System.out.println(format("search %-5s %6d queries: cpu %7.1f us/query, wall %7.1f us/query,"
+                        + " plan cache hit rate %5.1f%% (%d hits, %d misses)", mode, searches.size(),
+                cpu / 1e3 / searches.size(), wall / 1e3 / searches.size(),
+                hits + misses == 0 ? 0.0 : 100.0 * hits / (hits + misses), hits, misses));
+    }
+
+    private static Pageable pageable(PostCommentSearch search) {
+        return PageRequest.of(0, 20, search.minVotes() == null ? BY_CREATED_AT
+                : Sort.by(Sort.Direction.DESC, "votes").and(Sort.by("id")));
+    }
+
+    /**
+     * Eight shapes, as a moderation screen combines them, each with values that change from call to call.
+     */
+    private static List<PostCommentSearch> searches(List<Long> postIds) {
+        var statuses = CommentStatus.values();
+        var searches = new ArrayList<PostCommentSearch>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            long postId = postIds.get(i % postIds.size());
+            var status = statuses[i % statuses.length];
+            var other = statuses[(i + 1) % statuses.length];
+            var since = LocalDateTime.now().minusHours(1 + i % 24);
+            searches.add(switch (i % 8) {
+                case 0 -> new PostCommentSearch(postId, null, null, null, null, null, null);
+                case 1 -> new PostCommentSearch(postId, null, List.of(status), null, null, null, null);
+                case 2 -> new PostCommentSearch(postId, null, null, i % 10, null, null, null);
+                case 3 -> new PostCommentSearch(postId, null, List.of(status), i % 10, null, null, null);
+                case 4 -> new PostCommentSearch(null, null, List.of(status, other), null, null, since, null);
+                case 5 -> new PostCommentSearch(postId, null, List.of(status, other), i % 10, null, null, null);
+                case 6 -> new PostCommentSearch(postId, null, null, null, "Review %" + i % 10, null, null);
+                default -> new PostCommentSearch(null, null, List.of(status), null, null, since, since.plusMinutes(30));
+            });
+        }
+        return searches;
+    }
+
+    private List<Long> seed() throws Exception {
+        var user = userRepository.save(User.builder()
+                .withFirstName("Bench")
+                .withLastName("Mark")
+                .withEmail("bench@email.com")
+                .withAge(30)
+                .build());
+        var postIds = new ArrayList<Long>(POSTS);
+        for (int i = 0; i < POSTS; i++) {
+            var post = postRepository.save(Post.builder()
+                    .withTitle("Bench " + i)
+                    .withContent("Bench")
+                    .withCreatedAt(LocalDateTime.now())
+                    .withUser(user)
+                    .build());
+            postCommentBulkService.importNdjson(new BulkImportBenchmark.NdjsonRows(COMMENTS_PER_POST, post.getId(),
+                    user.getId()));
+            postIds.add(post.getId());
+        }
+        return postIds;
+    }
+}
@@ -0,0 +1,124 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentTreeService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Recursive CTE versus walking {@code childPostComments} level by level, on a 1,000 deep chain and on a
+ * root with 100,000 direct replies. Run with {@code mvn test -Pbenchmark -Dtest=CommentTreeBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench-tree;DB_CLOSE_DELAY=-1",
+        "blog.comment-tree.max-nodes=200000"
+})
+class CommentTreeBenchmark {
+
+    private static final int DEEP = Integer.getInteger("bench.deep", 1_000);
+    private static final int WIDE = Integer.getInteger("bench.wide", 100_000);
+    private static final long FIRST_ID = 10_000_000L;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+    @Autowired
+    private PostCommentTreeService postCommentTreeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deepAndWideThreads() throws Exception {
+
+        var user = userRepository.save(User.builder()
+                .withFirstName("Bench")
+                .withLastName("Mark")
+                .withEmail("bench@email.com")
+                .withAge(30)
+                .build());
+
+        var deep = post(user);
+        insertThread(deep.getId(), user.getId(), FIRST_ID, DEEP, true);
+        var wide = post(user);
+        insertThread(wide.getId(), user.getId(), FIRST_ID + DEEP, WIDE + 1, false);
+
+        assertEquals(DEEP, postCommentTreeService.loadTree(deep.getId(), null, DEEP, DEEP).size());
+        assertEquals(WIDE + 1, postCommentTreeService.loadTree(wide.getId(), null, 1, WIDE + 1).size());
+
+        report("deep " + DEEP, "cte", () -> postCommentTreeService.loadTree(deep.getId(), null, DEEP, DEEP));
+        report("deep " + DEEP, "walk", () -> walk(FIRST_ID));
+        report("wide " + WIDE, "cte", () -> postCommentTreeService.loadTree(wide.getId(), null, 1, WIDE + 1));
+        report("wide " + WIDE, "walk", () -> walk(FIRST_ID + DEEP));
+    }
+
+    private Post post(User user) {
+        return postRepository.save(Post.builder()
+                .withTitle("Thread")
+                .withContent("Thread")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(user)
+                .build());
+    }
+
+    /**
+     * A chain where every comment replies to the previous one, or a root followed by direct replies.
+     */
+    private void insertThread(long postId, long userId, long firstId, int size, boolean chain) {
+        var createdAt = Timestamp.valueOf(LocalDateTime.now());
+        var rows = new ArrayList<Object[]>(size);
+        for (int i = 0; i < size; i++) {
+            Long parent = i == 0 ? null : chain ? firstId + i - 1 : firstId;
+            rows.add(new Object[]{firstId + i, postId, userId, parent, "Reply " + i, i % 21, createdAt, 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO post_comment (id, post_id, user_id, parent_post_comment_id, review, "
+                + "votes, created_at, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private int walk(long rootId) {
+        // read-only, so the commit does not cascade a flush through the whole thread
+        var readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Integer visited = readOnly.execute(status -> {
+            int count = 0;
+            List<PostComment> level = List.of(postCommentRepository.getReferenceById(rootId));
+            while (!level.isEmpty()) {
+                count += level.size();
+                var next = new ArrayList<PostComment>();
+                level.forEach(comment -> next.addAll(comment.getChildPostComments()));
+                level = next;
+            }
+            return count;
+        });
+        return visited == null ? 0 : visited;
+    }
+
+    private static void report(String thread, String mode, BenchmarkSupport.Action action) throws Exception {
+        System.out.println(format("comment tree %-12s %-4s: %.2f ms median", thread, mode,
+                BenchmarkSupport.medianMillis(action)));
+    }
+}
@@ -0,0 +1,129 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import com.nosbielc.blogspringdatarest.Application;
+import com.nosbielc.blogspringdatarest.benchmark.jmh.SyntheticDataset;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * Drives the same closed-loop load against the platform-thread and the virtual-thread mode and
+ * reports throughput and p50/p99 latency. Run with
+ * {@code mvn test -Pbenchmark -Dtest=ExecutionModeBenchmark -Dbench.clients=400 -Dbench.seconds=30};
+ * the virtual-thread mode is skipped below Java 21.
+ */
+@Tag("benchmark")
+class ExecutionModeBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 400);
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 20);
+    private static final int POOL_SIZE = Integer.getInteger("bench.poolSize", 25);
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+
+        report("platform", run(false));
+        if (Runtime.version().feature() >= 21) {
+            report("virtual", run(true));
+        }
+    }
+
+    private long[] run(boolean virtualThreads) throws Exception {
+        var context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(Application.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-execution-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "blog.execution.virtual-threads=" + virtualThreads,
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            var dataset = new SyntheticDataset(20, 50, 10, 42)
+                    .insert(context.getBean(EntityManager.class), context.getBean(TransactionTemplate.class));
+            var base = "http://localhost:" + context.getWebServer().getPort() + "/api/v1";
+
+            load(base, dataset, Duration.ofSeconds(Math.max(1, SECONDS / 4)));
+            return load(base, dataset, Duration.ofSeconds(SECONDS));
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Every client sends its next request as soon as the previous one returns, alternating a comment
+     * page and a single post.
+     *
+     * @return latencies in nanoseconds of the requests that completed with 200
+     */
+    private long[] load(String base, SyntheticDataset dataset, Duration duration) throws Exception {
+        var http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        var deadline = System.nanoTime() + duration.toNanos();
+        var failures = new AtomicLong();
+
+        var clients = new ArrayList<Callable<List<Long>>>(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            int client = c;
+            clients.add(() -> {
+                var latencies = new ArrayList<Long>();
+                for (int i = client; System.nanoTime() < deadline; i++) {
+                    var uri = i % 2 == 0
+                            ? format("%s/postComments?page=%d&size=20", base, i % 50)
+                            : format("%s/posts/%d", base, dataset.postIds().get(i % dataset.postIds().size()));
+                    long start = System.nanoTime();
+                    var response = http.send(HttpRequest.newBuilder(URI.create(uri)).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        latencies.add(System.nanoTime() - start);
+                    } else {
+                        failures.incrementAndGet();
+                    }
+                }
+                return latencies;
+            });
+        }
+
+        var executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            var samples = new ArrayList<Long>();
+            for (var result : executor.invokeAll(clients)) {
+                samples.addAll(result.get());
+            }
+            if (failures.get() > 0) {
+                System.out.println(format("%d requests failed", failures.get()));
+            }
+            return samples.stream().mapToLong(Long::longValue).sorted().toArray();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void report(String mode, long[] latencies) {
+        System.out.println(format("%s threads: %d clients, %.0f req/s, p50 %.1f ms, p99 %.1f ms",
+                mode, CLIENTS, latencies.length / (double) SECONDS,
+                percentile(latencies, 0.50), percentile(latencies, 0.99)));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1_000_000.0;
+    }
+}
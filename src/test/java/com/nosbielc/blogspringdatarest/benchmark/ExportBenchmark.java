@@ -0,0 +1,87 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentFilter;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentBulkService;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentExportService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+import static java.lang.String.format;
+
+/**
+ * Peak heap while exporting a small and a large post. The rows themselves live in the in-memory H2
+ * database, so the interesting figure is how much the peak grows between the two exports; running
+ * with a capped heap ({@code -DargLine=-Xmx256m}) shows the large export does not need more memory.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ExportBenchmark -Dbench.rows=1000000}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:bench-export;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1")
+class ExportBenchmark {
+
+    private static final long SMALL = 10_000;
+    private static final long LARGE = Long.getLong("bench.rows", 200_000);
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentBulkService postCommentBulkService;
+    @Autowired
+    private PostCommentExportService postCommentExportService;
+
+    @Test
+    void exportSmallAndLargePost() throws Exception {
+
+        var user = userRepository.save(User.builder()
+                .withFirstName("Bench")
+                .withLastName("Mark")
+                .withEmail("bench@email.com")
+                .withAge(30)
+                .build());
+        var small = seed(user, SMALL);
+        var large = seed(user, LARGE);
+
+        for (var format : new String[]{"ndjson", "csv"}) {
+            report(format, SMALL, small);
+            report(format, LARGE, large);
+        }
+    }
+
+    private Long seed(User user, long rows) throws Exception {
+        var post = postRepository.save(Post.builder()
+                .withTitle("Bench")
+                .withContent("Bench")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(user)
+                .build());
+        postCommentBulkService.importNdjson(new BulkImportBenchmark.NdjsonRows(rows, post.getId(), user.getId()));
+        return post.getId();
+    }
+
+    private void report(String format, long rows, Long postId) throws Exception {
+        var filter = new PostCommentFilter(postId, null, null, null, null, null, null);
+        var output = OutputStream.nullOutputStream();
+
+        BenchmarkSupport.resetPeakHeap();
+        long start = System.nanoTime();
+        if (format.equals("csv")) {
+            postCommentExportService.exportCsv(filter, output);
+        } else {
+            postCommentExportService.exportNdjson(filter, output);
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println(format("export %-6s %8d rows: %6d ms, peak heap %d MB",
+                format, rows, elapsed, BenchmarkSupport.peakHeapMb()));
+    }
+}
@@ -0,0 +1,125 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentBulkService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static java.lang.String.format;
+
+/**
+ * Peak heap, time to first byte and total time of large {@code /postComments} pages, rendered by Spring
+ * Data REST and in streaming mode, over a real HTTP connection. Client and server share the JVM, but the
+ * client only drains the body, so the peak is the server's. Run with
+ * {@code mvn test -Pbenchmark -Dtest=HalStreamingBenchmark}, optionally with {@code -DargLine=-Xmx512m}
+ * to see which mode still fits.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench-hal;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1",
+        "spring.data.rest.max-page-size=100000"
+})
+class HalStreamingBenchmark {
+
+    private static final int[] PAGE_SIZES = {1_000, 10_000, 100_000};
+    private static final int RUNS = Integer.getInteger("bench.iterations", 3);
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentBulkService postCommentBulkService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void collectionPagesWithAndWithoutStreaming() throws Exception {
+
+        seed(Arrays.stream(PAGE_SIZES).max().orElseThrow());
+
+        for (int size : PAGE_SIZES) {
+            report("collection", size, "/api/v1/postComments?size=" + size);
+            report("stream", size, "/api/v1/postComments?stream&size=" + size);
+        }
+    }
+
+    private void report(String mode, int size, String path) throws Exception {
+        fetch(path);
+
+        var firstByte = new long[RUNS];
+        var total = new long[RUNS];
+        long peak = 0;
+        long bytes = 0;
+        for (int i = 0; i < RUNS; i++) {
+            BenchmarkSupport.resetPeakHeap();
+            var sample = fetch(path);
+            peak = Math.max(peak, BenchmarkSupport.peakHeapMb());
+            firstByte[i] = sample.firstByteNanos();
+            total[i] = sample.totalNanos();
+            bytes = sample.bytes();
+        }
+        Arrays.sort(firstByte);
+        Arrays.sort(total);
+
+        System.out.println(format("hal %-10s %7d items: first byte %8.1f ms, total %8.1f ms, %6d KB, peak heap %5d MB",
+                mode, size, firstByte[RUNS / 2] / 1e6, total[RUNS / 2] / 1e6, bytes / 1024, peak));
+    }
+
+    private Sample fetch(String path) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", "application/hal+json")
+                .build();
+        long start = System.nanoTime();
+        var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " answered " + response.statusCode());
+        }
+        try (InputStream body = response.body()) {
+            var buffer = new byte[8192];
+            int read = body.read(buffer);
+            long firstByte = System.nanoTime() - start;
+            long bytes = 0;
+            while (read >= 0) {
+                bytes += read;
+                read = body.read(buffer);
+            }
+            return new Sample(firstByte, System.nanoTime() - start, bytes);
+        }
+    }
+
+    private void seed(int rows) throws Exception {
+        var user = userRepository.save(User.builder()
+                .withFirstName("Bench")
+                .withLastName("Mark")
+                .withEmail("bench@email.com")
+                .withAge(30)
+                .build());
+        var post = postRepository.save(Post.builder()
+                .withTitle("Bench")
+                .withContent("Bench")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(user)
+                .build());
+        postCommentBulkService.importNdjson(new BulkImportBenchmark.NdjsonRows(rows, post.getId(), user.getId()));
+    }
+
+    private record Sample(long firstByteNanos, long totalNanos, long bytes) {
+    }
+}
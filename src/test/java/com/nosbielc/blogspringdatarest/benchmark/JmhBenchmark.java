@@ -0,0 +1,54 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the JMH benchmarks of the {@code jmh} package, e.g.
+ * {@code mvn test -Pbenchmark -Dtest=JmhBenchmark -Djmh.include=Projection -Djmh.params=users=100;secondLevelCache=true,false}.
+ * {@code -Djmh.profilers=gc} adds the allocation rate per operation. Results are written to
+ * {@code target/jmh-result.json}.
+ */
+@Tag("benchmark")
+class JmhBenchmark {
+
+    @Test
+    void run() throws Exception {
+
+        var options = new OptionsBuilder()
+                .include(getClass().getPackageName() + ".jmh.*" + System.getProperty("jmh.include", ""))
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .warmupIterations(Integer.getInteger("jmh.warmup", 5))
+                .warmupTime(TimeValue.seconds(Integer.getInteger("jmh.time", 2)))
+                .measurementIterations(Integer.getInteger("jmh.iterations", 5))
+                .measurementTime(TimeValue.seconds(Integer.getInteger("jmh.time", 2)))
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .result("target/jmh-result.json")
+                .resultFormat(ResultFormatType.JSON);
+
+        for (var profiler : System.getProperty("jmh.profilers", "").split(",")) {
+            if (!profiler.isBlank()) {
+                options.addProfiler(profiler.trim());
+            }
+        }
+
+        for (var param : System.getProperty("jmh.params", "").split(";")) {
+            var pair = param.split("=", 2);
+            if (pair.length == 2) {
+                options.param(pair[0].trim(), pair[1].trim().split(","));
+            }
+        }
+
+        assertFalse(new Runner(options.build()).run().isEmpty());
+    }
+}
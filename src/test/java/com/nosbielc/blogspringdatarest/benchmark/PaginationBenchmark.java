@@ -0,0 +1,105 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.Keyset;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentBulkService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDateTime;
+
+import static java.lang.String.format;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares OFFSET/LIMIT paging with seek paging on the first and on a deep page.
+ * Run with {@code mvn test -Pbenchmark -Dtest=PaginationBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:bench-pagination;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class PaginationBenchmark {
+
+    private static final int PAGE_SIZE = Integer.getInteger("bench.pageSize", 20);
+    private static final int DEEP_PAGE = Integer.getInteger("bench.deepPage", 10_000);
+
+    private static final String URL_BASE_POST_COMMENT = "/api/v1/postComments";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+    @Autowired
+    private PostCommentBulkService postCommentBulkService;
+
+    @Test
+    void firstPageVersusDeepPage() throws Exception {
+
+        var user = userRepository.save(User.builder()
+                .withFirstName("Bench")
+                .withLastName("Mark")
+                .withEmail("bench@email.com")
+                .withAge(30)
+                .build());
+        var post = postRepository.save(Post.builder()
+                .withTitle("Bench")
+                .withContent("Bench")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(user)
+                .build());
+        postCommentBulkService.importNdjson(new BulkImportBenchmark.NdjsonRows(
+                (long) PAGE_SIZE * (DEEP_PAGE + 1), post.getId(), user.getId()));
+
+        var lastOfPreviousPage = postCommentRepository.findAll(
+                PageRequest.of((DEEP_PAGE - 1) * PAGE_SIZE + PAGE_SIZE - 1, 1, Sort.by("createdAt", "id")))
+                .getContent().get(0);
+        var deepCursor = new Keyset(lastOfPreviousPage.getCreatedAt(), lastOfPreviousPage.getId()).encode();
+
+        report("offset", 1, offset(0));
+        report("offset", DEEP_PAGE, offset(DEEP_PAGE - 1));
+        report("seek", 1, seek(null));
+        report("seek", DEEP_PAGE, seek(deepCursor));
+    }
+
+    private BenchmarkSupport.Action offset(int page) {
+        return () -> mockMvc.perform(MockMvcRequestBuilders.get(URL_BASE_POST_COMMENT)
+                        .queryParam("page", String.valueOf(page))
+                        .queryParam("size", String.valueOf(PAGE_SIZE))
+                        .queryParam("sort", "createdAt,asc", "id,asc")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    private BenchmarkSupport.Action seek(String after) {
+        return () -> {
+            var request = MockMvcRequestBuilders.get(URL_BASE_POST_COMMENT.concat("/seek"))
+                    .queryParam("size", String.valueOf(PAGE_SIZE))
+                    .accept(MediaType.APPLICATION_JSON);
+            if (after != null) {
+                request.queryParam("after", after);
+            }
+            mockMvc.perform(request).andExpect(status().isOk());
+        };
+    }
+
+    private static void report(String mode, int page, BenchmarkSupport.Action action) throws Exception {
+        System.out.println(format("pagination %-6s page %6d (size %d): %.2f ms median",
+                mode, page, PAGE_SIZE, BenchmarkSupport.medianMillis(action)));
+    }
+}
@@ -0,0 +1,151 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import com.nosbielc.blogspringdatarest.infrastructure.config.ReactiveReadServer;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.services.PostCommentBulkService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Concurrent clients that request a 100k comment stream and then stop reading, held open against the
+ * servlet stream ({@code /postComments?stream} on Tomcat) and the reactive one ({@code /postComments} on
+ * Netty). Both sides get 25 database connections; on the servlet side every other client waits on a
+ * thread of its own, on the reactive side in the pool's queue. Heap retained and threads alive are read
+ * once the clients have settled. Run with {@code mvn test -Pbenchmark -Dtest=ReactiveConnectionsBenchmark},
+ * optionally with {@code -Dbench.connections=100,1000}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench-reactive;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1",
+        "spring.task.execution.pool.core-size=2000",
+        "server.tomcat.threads.max=2000",
+        "blog.reactive.enabled=true",
+        "blog.reactive.port=0",
+        "blog.reactive.url=r2dbc:h2:mem:///bench-reactive;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1",
+        "blog.reactive.max-pool-size=25"
+})
+class ReactiveConnectionsBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final long SETTLE_MILLIS = 3_000;
+
+    @LocalServerPort
+    private int servletPort;
+    @Autowired
+    private ReactiveReadServer reactiveReadServer;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCommentBulkService postCommentBulkService;
+
+    @Test
+    void heldConnectionsPerMegabyteOfHeap() throws Exception {
+
+        seed();
+
+        for (var connections : System.getProperty("bench.connections", "100,500").split(",")) {
+            int count = Integer.parseInt(connections.trim());
+            report("servlet", count, servletPort, "/api/v1/postComments?stream&size=" + ROWS);
+            report("reactive", count, reactiveReadServer.getPort(), "/api/v1/postComments");
+        }
+    }
+
+    private void report(String mode, int count, int port, String path) throws Exception {
+        var threads = ManagementFactory.getThreadMXBean();
+        long heapBefore = BenchmarkSupport.retainedHeapBytes();
+        int threadsBefore = threads.getThreadCount();
+
+        var sockets = new ArrayList<Socket>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                sockets.add(open(port, path));
+            }
+            Thread.sleep(SETTLE_MILLIS);
+
+            long heap = BenchmarkSupport.retainedHeapBytes() - heapBefore;
+            int threadsHeld = threads.getThreadCount() - threadsBefore;
+            int answering = answering(sockets);
+            double megabytes = Math.max(heap, 1) / (1024.0 * 1024.0);
+            System.out.println(format("%-8s %5d connections (%4d answering): heap %7.1f MB, %6.1f connections/MB,"
+                    + " %5d threads", mode, count, answering, megabytes, count / megabytes, threadsHeld));
+        } finally {
+            close(sockets);
+        }
+        awaitThreads(threadsBefore);
+    }
+
+    private static Socket open(int port, String path) throws IOException {
+        var socket = new Socket("localhost", port);
+        // a small receive window, so the server soon has to stop writing
+        socket.setReceiveBufferSize(4096);
+        socket.getOutputStream().write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n"
+                + "Accept: application/x-ndjson, application/hal+json\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+        return socket;
+    }
+
+    private static int answering(List<Socket> sockets) throws IOException {
+        int answering = 0;
+        for (var socket : sockets) {
+            if (socket.getInputStream().available() > 0) {
+                answering++;
+            }
+        }
+        return answering;
+    }
+
+    private static void close(List<Socket> sockets) {
+        for (var socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // the next measurement only needs the server side released
+            }
+        }
+    }
+
+    /**
+     * Lets abandoned streams fail and their threads finish before the next measurement.
+     */
+    private static void awaitThreads(int threadCount) throws InterruptedException {
+        var threads = ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 60 && threads.getThreadCount() > threadCount; i++) {
+            Thread.sleep(500);
+        }
+        Thread.sleep(SETTLE_MILLIS);
+    }
+
+    private void seed() throws Exception {
+        var user = userRepository.save(User.builder()
+                .withFirstName("Bench")
+                .withLastName("Mark")
+                .withEmail("bench@email.com")
+                .withAge(30)
+                .build());
+        var post = postRepository.save(Post.builder()
+                .withTitle("Bench")
+                .withContent("Bench")
+                .withCreatedAt(LocalDateTime.now())
+                .withUser(user)
+                .build());
+        postCommentBulkService.importNdjson(new BulkImportBenchmark.NdjsonRows(ROWS, post.getId(), user.getId()));
+    }
+}
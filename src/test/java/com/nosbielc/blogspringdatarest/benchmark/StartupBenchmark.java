@@ -0,0 +1,223 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Time from process start to a healthy {@code /actuator/health} and resident memory at that point, per
+ * startup mode:
+ * <ul>
+ *     <li>{@code jvm}: the exploded application on the class path</li>
+ *     <li>{@code cds}: the same with a dynamic AppCDS archive recorded by a training run</li>
+ *     <li>{@code aot} and {@code aot-cds}: the above with {@code -Dspring.aot.enabled=true}</li>
+ *     <li>{@code native}: the GraalVM executable</li>
+ * </ul>
+ * Build first with {@code mvn -Pnative -DskipTests package} (and {@code mvn -Pnative -DskipTests native:compile}
+ * for the native mode), then run {@code mvn test -Pbenchmark -Dtest=StartupBenchmark -Dbench.modes=jvm,cds,aot,aot-cds,native}.
+ * Modes whose artifact is missing are skipped. Linux only: memory is read from {@code /proc}.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path EXPLODED = TARGET.resolve("startup/exploded");
+    private static final String MAIN_CLASS = "com.nosbielc.blogspringdatarest.Application";
+    private static final int RUNS = Integer.getInteger("bench.iterations", 5);
+    private static final Duration TIMEOUT = Duration.ofSeconds(Integer.getInteger("bench.timeout", 120));
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void startup() throws Exception {
+
+        var modes = System.getProperty("bench.modes", "jvm,cds,aot,aot-cds,native").split(",");
+        var measured = 0;
+        for (var mode : modes) {
+            var command = command(mode.trim());
+            if (command == null) {
+                System.out.println(format("%s: skipped, artifact not built", mode));
+                continue;
+            }
+
+            var millis = new long[RUNS];
+            var rssMb = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                var sample = start(command);
+                millis[i] = sample[0];
+                rssMb[i] = sample[1];
+            }
+            Arrays.sort(millis);
+            Arrays.sort(rssMb);
+            System.out.println(format("%s: ready in %d ms (min %d, max %d), RSS %d MB",
+                    mode, millis[RUNS / 2], millis[0], millis[RUNS - 1], rssMb[RUNS / 2]));
+            measured++;
+        }
+        assertTrue(measured > 0, "Nenhum modo de inicialização disponível; execute mvn -Pnative -DskipTests package");
+    }
+
+    private List<String> command(String mode) throws Exception {
+        var javaCommand = ProcessHandle.current().info().command().orElse("java");
+        return switch (mode) {
+            case "jvm" -> jvm(javaCommand, List.of());
+            case "aot" -> aotAvailable() ? jvm(javaCommand, List.of("-Dspring.aot.enabled=true")) : null;
+            case "cds" -> cds(javaCommand, "app.jsa", List.of());
+            case "aot-cds" -> aotAvailable() ? cds(javaCommand, "app-aot.jsa", List.of("-Dspring.aot.enabled=true")) : null;
+            case "native" -> {
+                var executable = TARGET.resolve("blog-spring-data-rest");
+                yield Files.isExecutable(executable) ? new ArrayList<>(List.of(executable.toString())) : null;
+            }
+            default -> throw new IllegalArgumentException("Modo desconhecido: " + mode);
+        };
+    }
+
+    private List<String> jvm(String javaCommand, List<String> options) throws IOException {
+        if (!explode()) {
+            return null;
+        }
+        var command = new ArrayList<String>();
+        command.add(javaCommand);
+        command.addAll(options);
+        command.add("-cp");
+        command.add(EXPLODED.resolve("BOOT-INF/classes") + java.io.File.pathSeparator + EXPLODED.resolve("BOOT-INF/lib/*"));
+        command.add(MAIN_CLASS);
+        return command;
+    }
+
+    /**
+     * Records the archive with one training run the first time, then starts from it. AppCDS cannot archive
+     * classes loaded from nested jars, hence the exploded class path.
+     */
+    private List<String> cds(String javaCommand, String archiveName, List<String> options) throws Exception {
+        var archive = TARGET.resolve("startup").resolve(archiveName);
+        if (!Files.exists(archive)) {
+            var training = new ArrayList<>(options);
+            training.add("-XX:ArchiveClassesAtExit=" + archive);
+            var command = jvm(javaCommand, training);
+            if (command == null) {
+                return null;
+            }
+            start(command);
+        }
+        var shared = new ArrayList<>(options);
+        shared.add("-XX:SharedArchiveFile=" + archive);
+        return jvm(javaCommand, shared);
+    }
+
+    /**
+     * @return {@code [milliseconds until healthy, resident set size in MB]}
+     */
+    private long[] start(List<String> command) throws Exception {
+        int port = freePort();
+        Files.createDirectories(TARGET.resolve("startup"));
+        var process = new ProcessBuilder(withArguments(command, port))
+                .redirectErrorStream(true)
+                .redirectOutput(TARGET.resolve("startup/last-run.log").toFile())
+                .start();
+        long start = System.nanoTime();
+        try {
+            var health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                    .timeout(Duration.ofSeconds(1))
+                    .build();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Aplicação encerrou na inicialização; veja target/startup/last-run.log");
+                }
+                if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("Aplicação não ficou pronta em " + TIMEOUT);
+                }
+                try {
+                    if (http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            return new long[]{millis, residentMb(process.pid())};
+        } finally {
+            // SIGTERM rather than SIGKILL: a training run only writes its CDS archive on a normal exit
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static List<String> withArguments(List<String> command, int port) {
+        var arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        arguments.add("--spring.main.banner-mode=off");
+        arguments.add("--spring.devtools.restart.enabled=false");
+        return arguments;
+    }
+
+    private static boolean explode() throws IOException {
+        if (Files.isDirectory(EXPLODED.resolve("BOOT-INF"))) {
+            return true;
+        }
+        try (var jars = Files.list(TARGET)) {
+            var jar = jars.filter(path -> path.toString().endsWith("-SNAPSHOT.jar")).findFirst();
+            if (jar.isEmpty()) {
+                return false;
+            }
+            try (var zip = new ZipFile(jar.get().toFile())) {
+                for (var entries = zip.entries(); entries.hasMoreElements(); ) {
+                    var entry = entries.nextElement();
+                    var destination = EXPLODED.resolve(entry.getName()).normalize();
+                    if (!destination.startsWith(EXPLODED)) {
+                        throw new IOException("Entrada fora do diretório de destino: " + entry.getName());
+                    }
+                    if (entry.isDirectory()) {
+                        Files.createDirectories(destination);
+                    } else {
+                        Files.createDirectories(destination.getParent());
+                        try (var in = zip.getInputStream(entry)) {
+                            Files.copy(in, destination);
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    private static boolean aotAvailable() throws IOException {
+        return explode() && Files.exists(EXPLODED.resolve(
+                "BOOT-INF/classes/com/nosbielc/blogspringdatarest/Application__ApplicationContextInitializer.class"));
+    }
+
+    private static long residentMb(long pid) throws IOException {
+        for (var line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+            }
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.nosbielc.blogspringdatarest.benchmark;
+
+import com.nosbielc.blogspringdatarest.benchmark.workload.LoadTest;
+import com.nosbielc.blogspringdatarest.benchmark.workload.SkewedDataset;
+import com.nosbielc.blogspringdatarest.benchmark.workload.Workload;
+import com.nosbielc.blogspringdatarest.infrastructure.services.CommentStatisticsService;
+import com.nosbielc.blogspringdatarest.infrastructure.services.SearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.time.Duration;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Seeds a production-like {@link SkewedDataset} (1M comments by default) and replays the mixed
+ * {@link Workload#blog} against the REST API over real HTTP, printing throughput and latency
+ * percentiles per operation. Run with {@code mvn test -Pbenchmark -Dtest=WorkloadBenchmark}; the data
+ * takes {@code -Dbench.dataset.*} (see {@link SkewedDataset.Shape#fromSystemProperties}), the load
+ * {@code -Dbench.load.clients=16 -Dbench.load.warmup=10 -Dbench.load.duration=30} (seconds) and
+ * {@code -Dbench.workload.mix}. Compare runs made with the same shape and seed.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:bench-workload;DB_CLOSE_DELAY=-1")
+class WorkloadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.load.clients", 16);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("bench.load.warmup", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("bench.load.duration", 30));
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private SearchIndex searchIndex;
+    @Autowired
+    private CommentStatisticsService commentStatisticsService;
+
+    @Test
+    void mixedWorkloadOnSkewedData() throws Exception {
+
+        var shape = SkewedDataset.Shape.fromSystemProperties(SkewedDataset.Shape.DEFAULT);
+        var dataset = new SkewedDataset(shape).insert(dataSource, entityManagerFactory);
+        System.out.println(format("dataset: %d users, %d posts, %d comments in %d ms, %d rows/s, busiest post %d comments",
+                shape.users(), shape.posts(), shape.comments(), dataset.elapsedMillis(), dataset.rowsPerSecond(),
+                dataset.commentCount(dataset.postId(0))));
+
+        var reindex = searchIndex.reindex();
+        var statistics = commentStatisticsService.rebuild();
+        System.out.println(format("dataset: search index %d ms, comment statistics %d ms",
+                reindex.elapsedMillis(), statistics.elapsedMillis()));
+
+        var workload = Workload.blog(URI.create("http://localhost:" + port + "/api/v1"), dataset);
+        var report = new LoadTest().run(workload, CLIENTS, WARMUP, DURATION, shape.seed());
+        report.lines().forEach(System.out::println);
+
+        assertEquals(0, report.total().errors());
+    }
+}
@@ -0,0 +1,94 @@
+package com.nosbielc.blogspringdatarest.benchmark.jmh;
+
+import com.nosbielc.blogspringdatarest.Application;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Boots the application once per fork against its own in-memory H2 and seeds it with a
+ * {@link SyntheticDataset}. Sizes and seed are JMH parameters, see {@code JmhBenchmark}.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    @Param("20")
+    public int users;
+
+    @Param("50")
+    public int postsPerUser;
+
+    @Param("10")
+    public int commentsPerPost;
+
+    @Param("42")
+    public long seed;
+
+    @Param("true")
+    public boolean secondLevelCache;
+
+    @Param("true")
+    public boolean dtoProjections;
+
+    private ConfigurableApplicationContext context;
+    private SyntheticDataset dataset;
+    private int next;
+
+    @Setup
+    public void start() {
+        context = new SpringApplicationBuilder(Application.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-jmh;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                        "blog.projections.dto-queries=" + dtoProjections,
+                        "spring.main.banner-mode=off",
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+
+        dataset = new SyntheticDataset(users, postsPerUser, commentsPerPost, seed)
+                .insert(bean(EntityManager.class), bean(TransactionTemplate.class));
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    public long nextUserId() {
+        return next(dataset.userIds());
+    }
+
+    public long nextPostId() {
+        return next(dataset.postIds());
+    }
+
+    public long nextCommentId() {
+        return next(dataset.commentIds());
+    }
+
+    /**
+     * Cycles through the seeded ids so every invocation reads a different row.
+     */
+    private long next(List<Long> ids) {
+        next = (next + 1) % ids.size();
+        return ids.get(next);
+    }
+}
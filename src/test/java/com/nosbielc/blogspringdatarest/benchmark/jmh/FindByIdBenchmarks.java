@@ -0,0 +1,45 @@
+package com.nosbielc.blogspringdatarest.benchmark.jmh;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@code findById} through each repository proxy, cycling over the seeded ids.
+ */
+@State(Scope.Benchmark)
+public class FindByIdBenchmarks {
+
+    private UserRepository userRepository;
+    private PostRepository postRepository;
+    private PostCommentRepository postCommentRepository;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        userRepository = state.bean(UserRepository.class);
+        postRepository = state.bean(PostRepository.class);
+        postCommentRepository = state.bean(PostCommentRepository.class);
+    }
+
+    @Benchmark
+    public User user(ApplicationState state) {
+        return userRepository.findById(state.nextUserId()).orElseThrow();
+    }
+
+    @Benchmark
+    public Post post(ApplicationState state) {
+        return postRepository.findById(state.nextPostId()).orElseThrow();
+    }
+
+    @Benchmark
+    public PostComment postComment(ApplicationState state) {
+        return postCommentRepository.findById(state.nextCommentId()).orElseThrow();
+    }
+}
@@ -0,0 +1,81 @@
+package com.nosbielc.blogspringdatarest.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Renders HAL pages of posts, comments and users through the Spring Data REST controllers, from the
+ * repository query to the serialized response body. With {@code dtoProjections=false} the projections
+ * are rendered from managed entities instead of constructor expression queries.
+ */
+@State(Scope.Benchmark)
+public class HalSerializationBenchmarks {
+
+    @Param("20")
+    public int size;
+
+    private MockMvc mockMvc;
+    private int pages;
+    private int userPages;
+    private int page;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) state.context()).build();
+        pages = Math.max(1, state.users * state.postsPerUser / size);
+        userPages = Math.max(1, state.users / size);
+    }
+
+    @Benchmark
+    public String posts() throws Exception {
+        return get("/api/v1/posts", "");
+    }
+
+    @Benchmark
+    public String postComments(CommentProjection projection) throws Exception {
+        return get("/api/v1/postComments", projection.name);
+    }
+
+    @Benchmark
+    public String users(UserProjection projection) throws Exception {
+        return get("/api/v1/users", projection.name, userPages);
+    }
+
+    private String get(String url, String projection) throws Exception {
+        return get(url, projection, pages);
+    }
+
+    private String get(String url, String projection, int pages) throws Exception {
+        page = (page + 1) % pages;
+        var request = MockMvcRequestBuilders.get(url)
+                .queryParam("page", String.valueOf(page))
+                .queryParam("size", String.valueOf(size))
+                .accept(MediaTypes.HAL_JSON);
+        if (!projection.isEmpty()) {
+            request.queryParam("projection", projection);
+        }
+        return mockMvc.perform(request).andReturn().getResponse().getContentAsString();
+    }
+
+    @State(Scope.Benchmark)
+    public static class CommentProjection {
+
+        @Param({"", "postCommentResume"})
+        public String name;
+    }
+
+    @State(Scope.Benchmark)
+    public static class UserProjection {
+
+        @Param({"", "usersResume"})
+        public String name;
+    }
+}
@@ -0,0 +1,88 @@
+package com.nosbielc.blogspringdatarest.benchmark.jmh;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.projections.UsersResume;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+/**
+ * Cost of rendering {@link UsersResume}, whose {@code getFullName} is a SpEL expression, against a
+ * closed projection exposing the same data. Each invocation creates the proxy, as Spring Data REST
+ * does for every rendered item. The page benchmarks compare loading entities and projecting them with
+ * the constructor expression query behind {@code UserRepository.findUsersResumeBy}.
+ */
+@State(Scope.Benchmark)
+public class ProjectionBenchmarks {
+
+    @Param("20")
+    public int size;
+
+    private SpelAwareProxyProjectionFactory projectionFactory;
+    private UserRepository userRepository;
+    private User user;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        projectionFactory = new SpelAwareProxyProjectionFactory();
+        projectionFactory.setBeanFactory(state.context().getBeanFactory());
+        projectionFactory.setBeanClassLoader(getClass().getClassLoader());
+        userRepository = state.bean(UserRepository.class);
+        user = userRepository.findById(state.nextUserId()).orElseThrow();
+    }
+
+    @Benchmark
+    public void openProjection(Blackhole blackhole) {
+        var resume = projectionFactory.createProjection(UsersResume.class, user);
+        blackhole.consume(resume.getId());
+        blackhole.consume(resume.getFullName());
+        blackhole.consume(resume.getEmail());
+        blackhole.consume(resume.getAge());
+    }
+
+    @Benchmark
+    public void closedProjection(Blackhole blackhole) {
+        var resume = projectionFactory.createProjection(ClosedUsersResume.class, user);
+        blackhole.consume(resume.getId());
+        blackhole.consume(resume.getFirstName() + " " + resume.getLastName());
+        blackhole.consume(resume.getEmail());
+        blackhole.consume(resume.getAge());
+    }
+
+    @Benchmark
+    public void entityPage(Blackhole blackhole) {
+        for (var entity : userRepository.findAll(PageRequest.of(0, size))) {
+            var resume = projectionFactory.createProjection(UsersResume.class, entity);
+            blackhole.consume(resume.getId());
+            blackhole.consume(resume.getFullName());
+            blackhole.consume(resume.getEmail());
+            blackhole.consume(resume.getAge());
+        }
+    }
+
+    @Benchmark
+    public void dtoPage(Blackhole blackhole) {
+        for (var resume : userRepository.findUsersResumeBy(PageRequest.of(0, size))) {
+            blackhole.consume(resume.id());
+            blackhole.consume(resume.fullName());
+            blackhole.consume(resume.email());
+            blackhole.consume(resume.age());
+        }
+    }
+
+    public interface ClosedUsersResume {
+
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+        Integer getAge();
+
+    }
+}
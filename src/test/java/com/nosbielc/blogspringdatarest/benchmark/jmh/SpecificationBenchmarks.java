@@ -0,0 +1,50 @@
+package com.nosbielc.blogspringdatarest.benchmark.jmh;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.repositories.PostCommentRepository.Specs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * {@link PostCommentRepository#findAll(Specification)} with the {@link Specs} combinations used by the
+ * API. The post changes on every invocation, so the query cache only helps once the ids wrap around.
+ */
+@State(Scope.Benchmark)
+public class SpecificationBenchmarks {
+
+    @Param({"post", "postAndStatus", "postAndVotes", "postStatusAndVotes", "postAndReviewLike"})
+    public String combination;
+
+    private PostCommentRepository postCommentRepository;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        postCommentRepository = state.bean(PostCommentRepository.class);
+    }
+
+    @Benchmark
+    public List<PostComment> findAll(ApplicationState state) {
+        return postCommentRepository.findAll(specification(state.nextPostId()));
+    }
+
+    private Specification<PostComment> specification(long postId) {
+        var byPost = Specs.byPostId(postId);
+        return switch (combination) {
+            case "post" -> byPost;
+            case "postAndStatus" -> byPost.and(Specs.byStatus(CommentStatus.APPROVED));
+            case "postAndVotes" -> byPost.and(Specs.byVotesGreaterThanEqual(10));
+            case "postStatusAndVotes" -> byPost.and(Specs.byStatus(CommentStatus.APPROVED))
+                    .and(Specs.byVotesGreaterThanEqual(10));
+            case "postAndReviewLike" -> byPost.and(Specs.byReviewLike("Review %-1"));
+            default -> throw new IllegalArgumentException("Combinação desconhecida: " + combination);
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.nosbielc.blogspringdatarest.benchmark.jmh;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.Post;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.PostComment;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.entities.User;
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static java.lang.String.format;
+
+/**
+ * Deterministic blog data: the same sizes and seed always produce the same rows, so runs on a fresh
+ * in-memory H2 are comparable.
+ */
+public class SyntheticDataset {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final int BATCH_SIZE = 50;
+
+    private final int users;
+    private final int postsPerUser;
+    private final int commentsPerPost;
+    private final long seed;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> postIds = new ArrayList<>();
+    private final List<Long> commentIds = new ArrayList<>();
+
+    public SyntheticDataset(int users, int postsPerUser, int commentsPerPost, long seed) {
+        this.users = users;
+        this.postsPerUser = postsPerUser;
+        this.commentsPerPost = commentsPerPost;
+        this.seed = seed;
+    }
+
+    public SyntheticDataset insert(EntityManager entityManager, TransactionTemplate transactionTemplate) {
+        var random = new SplittableRandom(seed);
+        for (int u = 0; u < users; u++) {
+            int userIndex = u;
+            transactionTemplate.executeWithoutResult(status -> insertUser(entityManager, random, userIndex));
+        }
+        return this;
+    }
+
+    private void insertUser(EntityManager entityManager, SplittableRandom random, int u) {
+        var user = User.builder()
+                .withFirstName(format("First %s", u))
+                .withLastName(format("Last %s", u))
+                .withEmail(format("user_%s@email.com", u))
+                .withAge(18 + random.nextInt(60))
+                .build();
+        entityManager.persist(user);
+        userIds.add(user.getId());
+
+        int pending = 0;
+        for (int p = 0; p < postsPerUser; p++) {
+            var votes = new int[commentsPerPost];
+            long totalVotes = 0;
+            for (int c = 0; c < commentsPerPost; c++) {
+                votes[c] = random.nextInt(21);
+                totalVotes += votes[c];
+            }
+
+            var createdAt = CREATED_AT.plusMinutes((long) u * postsPerUser + p);
+            var post = Post.builder()
+                    .withTitle(format("Post title %s-%s", u, p))
+                    .withContent(format("Post content %s-%s", u, p))
+                    .withCreatedAt(createdAt)
+                    .withCommentCount((long) commentsPerPost)
+                    .withTotalVotes(totalVotes)
+                    .withUser(user)
+                    .build();
+            entityManager.persist(post);
+            postIds.add(post.getId());
+
+            for (int c = 0; c < commentsPerPost; c++) {
+                var comment = PostComment.builder()
+                        .withPost(post)
+                        .withUser(user)
+                        .withReview(format("Review %s-%s-%s", u, p, c))
+                        .withVotes(votes[c])
+                        .withCreatedAt(createdAt.plusSeconds(c))
+                        .withStatus(CommentStatus.values()[random.nextInt(CommentStatus.values().length)])
+                        .build();
+                entityManager.persist(comment);
+                commentIds.add(comment.getId());
+
+                if (++pending % BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    user = entityManager.getReference(User.class, user.getId());
+                    post = entityManager.getReference(Post.class, post.getId());
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    public List<Long> userIds() {
+        return userIds;
+    }
+
+    public List<Long> postIds() {
+        return postIds;
+    }
+
+    public List<Long> commentIds() {
+        return commentIds;
+    }
+}
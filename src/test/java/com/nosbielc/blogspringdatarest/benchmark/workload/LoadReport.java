@@ -0,0 +1,59 @@
+package com.nosbielc.blogspringdatarest.benchmark.workload;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Throughput and latency percentiles per operation of a {@link LoadTest} run, measured by the clients
+ * from sending the request to reading the whole body. Client errors (4xx) are answers, such as the
+ * statistics of a user without comments; errors are 5xx and failed connections.
+ */
+public record LoadReport(int clients, Duration measured, List<Endpoint> endpoints, Endpoint total) {
+
+    public Endpoint endpoint(String name) {
+        return endpoints.stream()
+                .filter(endpoint -> endpoint.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Operação sem amostras: " + name));
+    }
+
+    public List<String> lines() {
+        var lines = new ArrayList<String>();
+        lines.add(format("load %d clients for %d s", clients, measured.toSeconds()));
+        endpoints.forEach(endpoint -> lines.add(endpoint.line()));
+        lines.add(total.line());
+        return lines;
+    }
+
+    static Endpoint endpoint(String name, long[] latencies, long clientErrors, long errors, Duration measured) {
+        var sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return new Endpoint(name, sorted.length, clientErrors, errors, sorted.length / (measured.toNanos() / 1e9),
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Latencies in milliseconds, throughput in requests per second.
+     */
+    public record Endpoint(String name, long requests, long clientErrors, long errors, double throughput,
+                           double p50, double p90, double p99, double max) {
+
+        String line() {
+            return format("load %-20s %8d req %8.1f req/s  p50 %7.2f ms  p90 %7.2f ms  p99 %8.2f ms  max %8.2f ms  4xx %5d  errors %5d",
+                    name, requests, throughput, p50, p90, p99, max, clientErrors, errors);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.nosbielc.blogspringdatarest.benchmark.workload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Closed-loop clients, each on its own thread, sending the next operation of a {@link Workload} as soon
+ * as the previous answer is read. Operations that start during the warmup are sent but not recorded.
+ * Every client keeps its own samples, so recording never synchronizes clients with each other.
+ */
+public class LoadTest {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public LoadReport run(Workload workload, int clients, Duration warmup, Duration duration, long seed)
+            throws InterruptedException {
+        var random = new SplittableRandom(seed);
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        var recorders = new ArrayList<Recorder>();
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < clients; i++) {
+            var recorder = new Recorder(workload, random.split(), measureFrom, end);
+            recorders.add(recorder);
+            var thread = new Thread(recorder, "load-client-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        threads.forEach(Thread::start);
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        var endpoints = new ArrayList<LoadReport.Endpoint>();
+        var all = new Samples();
+        for (var name : workload.names()) {
+            var merged = new Samples();
+            recorders.forEach(recorder -> merged.addAll(recorder.samples.get(name)));
+            all.addAll(merged);
+            if (merged.size > 0) {
+                endpoints.add(merged.toEndpoint(name, duration));
+            }
+        }
+        return new LoadReport(clients, duration, endpoints, all.toEndpoint("total", duration));
+    }
+
+    private final class Recorder implements Runnable {
+
+        private final Workload workload;
+        private final SplittableRandom random;
+        private final long measureFrom;
+        private final long end;
+        private final Map<String, Samples> samples = new HashMap<>();
+
+        private Recorder(Workload workload, SplittableRandom random, long measureFrom, long end) {
+            this.workload = workload;
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            long start;
+            while ((start = System.nanoTime()) < end) {
+                var operation = workload.next(random);
+                var request = operation.request().apply(random);
+                int status;
+                try {
+                    var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                    try (InputStream body = response.body()) {
+                        body.transferTo(OutputStream.nullOutputStream());
+                    }
+                    status = response.statusCode();
+                } catch (IOException e) {
+                    status = -1;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (start >= measureFrom) {
+                    samples.computeIfAbsent(operation.name(), name -> new Samples())
+                            .add(System.nanoTime() - start, status);
+                }
+            }
+        }
+    }
+
+    /**
+     * Latencies in nanoseconds, grown by doubling.
+     */
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long clientErrors;
+        private long errors;
+
+        void add(long latency, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+            if (status >= 400 && status < 500) {
+                clientErrors++;
+            } else if (status < 200 || status >= 500) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (other == null) {
+                return;
+            }
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(size + other.size, latencies.length * 2));
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            clientErrors += other.clientErrors;
+            errors += other.errors;
+        }
+
+        LoadReport.Endpoint toEndpoint(String name, Duration measured) {
+            return LoadReport.endpoint(name, Arrays.copyOf(latencies, size), clientErrors, errors, measured);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.nosbielc.blogspringdatarest.benchmark.workload;
+
+import com.nosbielc.blogspringdatarest.infrastructure.persistence.enums.CommentStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Blog data shaped like production rather than like a fixture: a few users write most posts and
+ * comments, a few posts draw most comments, comments answer each other in threads whose reply counts
+ * follow a power law (every reply makes its parent more likely to be answered again), and votes have a
+ * heavy tail. The same shape and seed always produce the same rows.
+ * <p>
+ * Rows go through plain JDBC batches in large transactions, with ids reserved from the Hibernate
+ * sequences, and the denormalized {@code post.comment_count} / {@code post.total_votes} are written with
+ * each post. Nothing else is maintained: callers rebuild the search index and the comment statistics.
+ * Nothing may insert concurrently while the ids are reserved.
+ */
+public class SkewedDataset {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int BATCH_SIZE = 1000;
+    private static final int COMMIT_SIZE = 50_000;
+    // allocationSize of every entity sequence
+    private static final int ALLOCATION_SIZE = 50;
+    private static final long DAY = 86_400;
+    private static final long HOUR = 3_600;
+
+    private static final String[] FIRST_NAMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela",
+            "Heitor", "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael"};
+    private static final String[] LAST_NAMES = {"Silva", "Souza", "Oliveira", "Santos", "Lima", "Pereira",
+            "Costa", "Ferreira", "Almeida", "Ribeiro", "Carvalho", "Gomes", "Martins", "Rocha", "Barbosa", "Dias"};
+    private static final String[] WORDS = {"spring", "data", "rest", "java", "cache", "query", "index", "thread",
+            "latency", "hibernate", "post", "comment", "review", "vote", "page", "stream", "batch", "pool",
+            "connection", "transaction", "lock", "heap", "garbage", "collector", "benchmark", "throughput",
+            "replica", "shard", "schema", "migration", "json", "hal", "link", "projection", "entity", "graph",
+            "lazy", "eager", "fetch", "join", "sequence", "identity", "optimizer", "plan", "statement", "driver",
+            "socket", "netty", "tomcat", "reactive", "virtual", "kernel", "memory", "disk", "network", "search",
+            "lucene", "token", "filter", "metric", "trace", "log", "deploy", "release"};
+    private static final CommentStatus[] STATUSES = {CommentStatus.APPROVED, CommentStatus.PENDING_APPROVAL,
+            CommentStatus.SPAM, CommentStatus.REJECTED, CommentStatus.DELETED};
+    private static final double[] STATUS_SHARES = {0.85, 0.08, 0.04, 0.02, 0.01};
+
+    private final Shape shape;
+
+    private long firstUserId;
+    private long firstPostId;
+    private long firstCommentId;
+    private int[] usersByActivity;
+    private int[] postsByActivity;
+    private int[] commentCounts;
+    private long[] firstComments;
+    private long elapsedMillis;
+
+    public SkewedDataset(Shape shape) {
+        this.shape = shape;
+    }
+
+    public SkewedDataset insert(DataSource dataSource, EntityManagerFactory entityManagerFactory) throws SQLException {
+        long start = System.nanoTime();
+        var random = new SplittableRandom(shape.seed());
+
+        try (var connection = dataSource.getConnection()) {
+            firstUserId = reserve(connection, "users_seq", shape.users());
+            firstPostId = reserve(connection, "post_seq", shape.posts());
+            firstCommentId = reserve(connection, "post_comment_seq", shape.comments());
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                insertUsers(connection, random);
+                insertPostsAndComments(connection, random);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+
+        // the second-level and query caches never saw these rows
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return this;
+    }
+
+    /**
+     * Takes {@code rows} ids past every block Hibernate may hold and moves the sequence beyond them.
+     *
+     * @return the first reserved id
+     */
+    private static long reserve(Connection connection, String sequence, long rows) throws SQLException {
+        long first;
+        try (var statement = connection.createStatement();
+             var rs = statement.executeQuery("SELECT NEXT VALUE FOR " + sequence)) {
+            rs.next();
+            first = rs.getLong(1) + 1;
+        }
+        try (var statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (first + rows + ALLOCATION_SIZE));
+        }
+        return first;
+    }
+
+    private void insertUsers(Connection connection, SplittableRandom random) throws SQLException {
+        usersByActivity = permutation(shape.users(), random);
+        try (var users = connection.prepareStatement("INSERT INTO users "
+                + "(id, first_name, last_name, email, age, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)")) {
+            for (int offset = 0; offset < shape.users(); offset++) {
+                long id = firstUserId + offset;
+                var firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                var lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                users.setLong(1, id);
+                users.setString(2, firstName);
+                users.setString(3, lastName);
+                users.setString(4, (firstName + "." + lastName + "." + id + "@email.com").toLowerCase());
+                users.setInt(5, 16 + random.nextInt(60));
+                users.setObject(6, NOW);
+                users.addBatch();
+                if ((offset + 1) % BATCH_SIZE == 0) {
+                    users.executeBatch();
+                }
+            }
+            users.executeBatch();
+        }
+    }
+
+    private void insertPostsAndComments(Connection connection, SplittableRandom random) throws SQLException {
+        var authors = new ZipfDistribution(shape.users(), shape.authorSkew());
+        var words = new ZipfDistribution(WORDS.length, 1.0);
+
+        postsByActivity = permutation(shape.posts(), random);
+        commentCounts = new int[shape.posts()];
+        var popularity = new ZipfDistribution(shape.posts(), shape.postSkew());
+        for (long c = 0; c < shape.comments(); c++) {
+            commentCounts[postsByActivity[popularity.sample(random)]]++;
+        }
+        firstComments = new long[shape.posts()];
+
+        int largest = 0;
+        for (int count : commentCounts) {
+            largest = Math.max(largest, count);
+        }
+        var parents = new int[largest];
+        var depths = new int[largest];
+        var ages = new long[largest];
+        var votes = new int[largest];
+        var slots = new int[2 * largest];
+
+        try (var posts = connection.prepareStatement("INSERT INTO post (id, user_id, title, content, created_at, "
+                + "comment_count, total_votes, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)");
+             var comments = connection.prepareStatement("INSERT INTO post_comment (id, post_id, "
+                     + "parent_post_comment_id, user_id, review, votes, created_at, updated_at, version, status) "
+                     + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?)")) {
+            var batches = new Batches(connection, posts, comments);
+            long nextComment = firstCommentId;
+
+            for (int offset = 0; offset < shape.posts(); offset++) {
+                long postId = firstPostId + offset;
+                long postAge = random.nextLong(shape.days() * DAY);
+                int count = commentCounts[offset];
+                firstComments[offset] = nextComment;
+
+                // the thread first, so the post row with its counters precedes its comments in every batch
+                long totalVotes = 0;
+                int slotCount = 0;
+                for (int j = 0; j < count; j++) {
+                    int parent = slotCount > 0 && random.nextDouble() < shape.replyRatio()
+                            ? slots[random.nextInt(slotCount)] : -1;
+                    parents[j] = parent;
+                    depths[j] = parent < 0 ? 0 : depths[parent] + 1;
+                    long base = parent < 0 ? postAge : ages[parent];
+                    ages[j] = Math.max(0, base - (long) exponential(random, parent < 0 ? DAY : HOUR));
+                    votes[j] = pareto(random, shape.voteTail());
+                    totalVotes += votes[j];
+                    if (depths[j] < shape.maxDepth()) {
+                        slots[slotCount++] = j;
+                    }
+                    if (parent >= 0) {
+                        slots[slotCount++] = parent;
+                    }
+                }
+
+                posts.setLong(1, postId);
+                posts.setLong(2, firstUserId + usersByActivity[authors.sample(random)]);
+                posts.setString(3, text(random, words, 3 + random.nextInt(6)));
+                posts.setString(4, text(random, words, 30 + random.nextInt(170)));
+                posts.setObject(5, NOW.minusSeconds(postAge));
+                posts.setLong(6, count);
+                posts.setLong(7, totalVotes);
+                posts.setObject(8, NOW.minusSeconds(postAge));
+                posts.addBatch();
+                batches.add();
+
+                for (int j = 0; j < count; j++) {
+                    comments.setLong(1, nextComment + j);
+                    comments.setLong(2, postId);
+                    comments.setObject(3, parents[j] < 0 ? null : nextComment + parents[j]);
+                    comments.setLong(4, firstUserId + usersByActivity[authors.sample(random)]);
+                    comments.setString(5, text(random, words, 5 + random.nextInt(30)));
+                    comments.setInt(6, votes[j]);
+                    comments.setObject(7, NOW.minusSeconds(ages[j]));
+                    comments.setObject(8, NOW.minusSeconds(ages[j]));
+                    comments.setInt(9, status(random).ordinal());
+                    comments.addBatch();
+                    batches.add();
+                }
+                nextComment += count;
+            }
+            batches.flush();
+        }
+    }
+
+    private static int[] permutation(int n, SplittableRandom random) {
+        var permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = swap;
+        }
+        return permutation;
+    }
+
+    private static double exponential(SplittableRandom random, double mean) {
+        return -mean * Math.log(1 - random.nextDouble());
+    }
+
+    /**
+     * Votes from a Pareto distribution shifted to start at zero; {@code tail} near 1 means a heavier tail.
+     */
+    private static int pareto(SplittableRandom random, double tail) {
+        return (int) Math.min(1_000_000, Math.pow(1 - random.nextDouble(), -1 / tail) - 1);
+    }
+
+    private static CommentStatus status(SplittableRandom random) {
+        double target = random.nextDouble();
+        for (int i = 0; i < STATUSES.length - 1; i++) {
+            target -= STATUS_SHARES[i];
+            if (target < 0) {
+                return STATUSES[i];
+            }
+        }
+        return STATUSES[STATUSES.length - 1];
+    }
+
+    private static String text(SplittableRandom random, ZipfDistribution words, int length) {
+        var text = new StringBuilder(length * 8);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[words.sample(random)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * The words of the generated text, most frequent first.
+     */
+    public static String word(int rank) {
+        return WORDS[rank % WORDS.length];
+    }
+
+    public static int words() {
+        return WORDS.length;
+    }
+
+    public Shape shape() {
+        return shape;
+    }
+
+    /**
+     * @param rank 0 for the user who writes the most
+     */
+    public long userId(int rank) {
+        return firstUserId + usersByActivity[rank];
+    }
+
+    /**
+     * @param rank 0 for the post with the most comments
+     */
+    public long postId(int rank) {
+        return firstPostId + postsByActivity[rank];
+    }
+
+    public int commentCount(long postId) {
+        return commentCounts[(int) (postId - firstPostId)];
+    }
+
+    /**
+     * Comments of a post have consecutive ids starting here; meaningless when it has none.
+     */
+    public long firstCommentId(long postId) {
+        return firstComments[(int) (postId - firstPostId)];
+    }
+
+    public long rows() {
+        return shape.users() + shape.posts() + shape.comments();
+    }
+
+    public long elapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long rowsPerSecond() {
+        return elapsedMillis == 0 ? rows() : rows() * 1000 / elapsedMillis;
+    }
+
+    /**
+     * Executes the two batches together, posts first for the foreign keys, and commits every
+     * {@value #COMMIT_SIZE} rows so one transaction never holds the whole dataset's undo log.
+     */
+    private static final class Batches {
+
+        private final Connection connection;
+        private final PreparedStatement posts;
+        private final PreparedStatement comments;
+        private int pending;
+        private int uncommitted;
+
+        private Batches(Connection connection, PreparedStatement posts, PreparedStatement comments) {
+            this.connection = connection;
+            this.posts = posts;
+            this.comments = comments;
+        }
+
+        void add() throws SQLException {
+            if (++pending == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            posts.executeBatch();
+            comments.executeBatch();
+            uncommitted += pending;
+            pending = 0;
+            if (uncommitted >= COMMIT_SIZE) {
+                connection.commit();
+                uncommitted = 0;
+            }
+        }
+    }
+
+    /**
+     * @param authorSkew Zipf exponent of posts and comments per user
+     * @param postSkew   Zipf exponent of comments per post
+     * @param replyRatio share of comments that answer an earlier comment of the same post
+     * @param maxDepth   deepest reply, 0 for flat threads
+     * @param voteTail   Pareto index of the votes per comment
+     * @param days       posts are spread over this many days before 2024-01-01
+     */
+    public record Shape(int users, int posts, long comments, double authorSkew, double postSkew,
+                        double replyRatio, int maxDepth, double voteTail, int days, long seed) {
+
+        public static final Shape DEFAULT = new Shape(10_000, 100_000, 1_000_000, 1.0, 0.9, 0.6, 12, 1.5, 730, 42);
+
+        public Shape {
+            if (users <= 0 || posts <= 0 || comments < 0 || days <= 0 || maxDepth < 0) {
+                throw new IllegalArgumentException("users, posts e days devem ser positivos; comments e max-depth, não negativos");
+            }
+            if (replyRatio < 0 || replyRatio > 1 || voteTail <= 0 || authorSkew < 0 || postSkew < 0) {
+                throw new IllegalArgumentException("reply-ratio deve estar entre 0 e 1, vote-tail ser positivo e os skews, não negativos");
+            }
+            if (posts + comments > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("No máximo " + Integer.MAX_VALUE + " posts e comentários");
+            }
+        }
+
+        /**
+         * The given shape with every {@code bench.dataset.*} system property applied, e.g.
+         * {@code -Dbench.dataset.comments=5000000 -Dbench.dataset.post-skew=1.3}.
+         */
+        public static Shape fromSystemProperties(Shape defaults) {
+            return new Shape(
+                    Integer.getInteger("bench.dataset.users", defaults.users()),
+                    Integer.getInteger("bench.dataset.posts", defaults.posts()),
+                    Long.getLong("bench.dataset.comments", defaults.comments()),
+                    decimal("bench.dataset.author-skew", defaults.authorSkew()),
+                    decimal("bench.dataset.post-skew", defaults.postSkew()),
+                    decimal("bench.dataset.reply-ratio", defaults.replyRatio()),
+                    Integer.getInteger("bench.dataset.max-depth", defaults.maxDepth()),
+                    decimal("bench.dataset.vote-tail", defaults.voteTail()),
+                    Integer.getInteger("bench.dataset.days", defaults.days()),
+                    Long.getLong("bench.dataset.seed", defaults.seed()));
+        }
+
+        private static double decimal(String key, double defaultValue) {
+            var value = System.getProperty(key);
+            return value == null ? defaultValue : Double.parseDouble(value);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.nosbielc.blogspringdatarest.benchmark.workload;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * A weighted mix of REST calls against a {@link SkewedDataset}. Posts and users are picked with the
+ * skew that shaped the data, so the posts with the most comments are also the most read, and search
+ * terms follow the word frequencies of the text.
+ */
+public class Workload {
+
+    private final List<Operation> operations;
+    private final int[] cumulativeWeights;
+
+    public Workload(List<Operation> operations) {
+        this.operations = operations.stream().filter(operation -> operation.weight() > 0).toList();
+        if (this.operations.isEmpty()) {
+            throw new IllegalArgumentException("A carga precisa de ao menos uma operação com peso positivo");
+        }
+        cumulativeWeights = new int[this.operations.size()];
+        int total = 0;
+        for (int i = 0; i < this.operations.size(); i++) {
+            total += this.operations.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Reads, writes and searches in roughly the proportions of a blog, about four reads per write. Any
+     * weight can be changed with {@code -Dbench.workload.mix=posts.item=40,postComments.create=0}.
+     *
+     * @param base the Spring Data REST base URI, e.g. {@code http://localhost:8080/api/v1}
+     */
+    public static Workload blog(URI base, SkewedDataset dataset) {
+        var shape = dataset.shape();
+        var posts = new ZipfDistribution(shape.posts(), shape.postSkew());
+        var users = new ZipfDistribution(shape.users(), shape.authorSkew());
+        var words = new ZipfDistribution(SkewedDataset.words(), 1.0);
+        var pages = new ZipfDistribution(Math.min(50, (shape.posts() + 19) / 20), 1.0);
+        Function<SplittableRandom, Long> hotPost = random -> dataset.postId(posts.sample(random));
+        Function<SplittableRandom, Long> activeUser = random -> dataset.userId(users.sample(random));
+
+        var weights = weights(System.getProperty("bench.workload.mix", ""));
+        return new Workload(List.of(
+                new Operation("posts.page", weights.getOrDefault("posts.page", 15), random ->
+                        get(base, format("/posts?page=%d&size=20&sort=createdAt,desc", pages.sample(random)))),
+                new Operation("posts.item", weights.getOrDefault("posts.item", 20), random ->
+                        get(base, "/posts/" + hotPost.apply(random))),
+                new Operation("posts.commentTree", weights.getOrDefault("posts.commentTree", 15), random ->
+                        get(base, format("/posts/%d/commentTree?limit=100", hotPost.apply(random)))),
+                new Operation("postComments.filter", weights.getOrDefault("postComments.filter", 15), random ->
+                        get(base, format("/postComments/search/filter?postId=%d&status=APPROVED&sort=votes,desc&size=20",
+                                hotPost.apply(random)))),
+                new Operation("search", weights.getOrDefault("search", 10), random ->
+                        get(base, "/search?limit=20&q=" + SkewedDataset.word(words.sample(random)))),
+                new Operation("users.statistics", weights.getOrDefault("users.statistics", 5), random ->
+                        get(base, format("/users/%d/statistics", activeUser.apply(random)))),
+                new Operation("postComments.create", weights.getOrDefault("postComments.create", 12), random -> {
+                    long postId = hotPost.apply(random);
+                    int comments = dataset.commentCount(postId);
+                    var parent = comments > 0 && random.nextDouble() < shape.replyRatio()
+                            ? format(",\"parentPostComment\":\"%s/postComments/%d\"", base,
+                            dataset.firstCommentId(postId) + random.nextInt(comments))
+                            : "";
+                    var body = format("{\"review\":\"%s %s\",\"votes\":0,\"status\":\"PENDING_APPROVAL\","
+                                    + "\"createdAt\":\"%s\",\"post\":\"%s/posts/%d\",\"user\":\"%s/users/%d\"%s}",
+                            SkewedDataset.word(words.sample(random)), SkewedDataset.word(words.sample(random)),
+                            LocalDateTime.now(), base, postId, base, activeUser.apply(random), parent);
+                    return HttpRequest.newBuilder(URI.create(base + "/postComments"))
+                            .header("Content-Type", "application/json")
+                            .header("Accept", "application/hal+json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                }),
+                new Operation("postComments.vote", weights.getOrDefault("postComments.vote", 8), random -> {
+                    long postId = dataset.postId(0);
+                    for (int attempt = 0; attempt < 10; attempt++) {
+                        long candidate = hotPost.apply(random);
+                        if (dataset.commentCount(candidate) > 0) {
+                            postId = candidate;
+                            break;
+                        }
+                    }
+                    long commentId = dataset.firstCommentId(postId) + random.nextInt(dataset.commentCount(postId));
+                    return HttpRequest.newBuilder(URI.create(format("%s/postComments/%d/votes", base, commentId)))
+                            .POST(HttpRequest.BodyPublishers.noBody())
+                            .build();
+                })));
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .header("Accept", "application/hal+json")
+                .GET()
+                .build();
+    }
+
+    private static Map<String, Integer> weights(String mix) {
+        var weights = new HashMap<String, Integer>();
+        for (var entry : mix.split(",")) {
+            var pair = entry.split("=", 2);
+            if (pair.length == 2) {
+                weights.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+            }
+        }
+        return weights;
+    }
+
+    public Operation next(SplittableRandom random) {
+        int target = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (target < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    public List<Operation> operations() {
+        return operations;
+    }
+
+    public List<String> names() {
+        return operations.stream().map(Operation::name).toList();
+    }
+
+    public record Operation(String name, int weight, Function<SplittableRandom, HttpRequest> request) {
+    }
+}